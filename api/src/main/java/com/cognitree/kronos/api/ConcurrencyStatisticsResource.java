@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cognitree.kronos.api;
+
+import com.cognitree.kronos.ServiceException;
+import com.cognitree.kronos.scheduler.TaskService;
+import com.cognitree.kronos.scheduler.ValidationException;
+import com.cognitree.kronos.scheduler.model.ConcurrencyUsage;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+import static javax.ws.rs.core.Response.Status.BAD_REQUEST;
+import static javax.ws.rs.core.Response.Status.OK;
+
+@Path("statistics/concurrency")
+@Api(value = "concurrency statistics", description = "apis to query tasks in flight against the concurrency limits")
+public class ConcurrencyStatisticsResource {
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrencyStatisticsResource.class);
+
+    @GET
+    @ApiOperation(value = "Get tasks in flight against the concurrency limits per namespace, workflow and task type",
+            response = ConcurrencyUsage.class)
+    @ApiResponses(value = {
+            @ApiResponse(code = 404, message = "Namespace not found")})
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getConcurrencyUsage(@HeaderParam("namespace") String namespace)
+            throws ServiceException, ValidationException {
+        logger.info("Received request to get concurrency usage under namespace {}", namespace);
+        if (namespace == null || namespace.isEmpty()) {
+            return Response.status(BAD_REQUEST).entity("missing namespace header").build();
+        }
+        final ConcurrencyUsage concurrencyUsage = TaskService.getService().getConcurrencyUsage(namespace);
+        return Response.status(OK).entity(concurrencyUsage).build();
+    }
+}
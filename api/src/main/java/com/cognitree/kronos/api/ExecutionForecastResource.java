@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cognitree.kronos.api;
+
+import com.cognitree.kronos.ServiceException;
+import com.cognitree.kronos.scheduler.ValidationException;
+import com.cognitree.kronos.scheduler.WorkflowSchedulerService;
+import com.cognitree.kronos.scheduler.model.ExecutionForecast;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.util.concurrent.TimeUnit;
+
+import static javax.ws.rs.core.Response.Status.BAD_REQUEST;
+import static javax.ws.rs.core.Response.Status.OK;
+
+@Path("statistics/forecast")
+@Api(value = "execution forecast", description = "apis to forecast the jobs and tasks running concurrently")
+public class ExecutionForecastResource {
+    private static final Logger logger = LoggerFactory.getLogger(ExecutionForecastResource.class);
+    private static final String DEFAULT_HOURS = "24";
+    private static final int MAX_HOURS = 7 * 24;
+
+    @GET
+    @ApiOperation(value = "Forecast the jobs and tasks running concurrently for each minute of the range",
+            response = ExecutionForecast.class,
+            notes = "query param 'to' takes precedence over 'hours'. If 'from' is not specified the range starts now")
+    @ApiResponses(value = {
+            @ApiResponse(code = 404, message = "Namespace not found")})
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getForecast(@ApiParam(value = "Start time of the range")
+                                @QueryParam("from") long from,
+                                @ApiParam(value = "End time of the range")
+                                @QueryParam("to") long to,
+                                @ApiParam(value = "Number of hours to forecast from the start", defaultValue = "24")
+                                @DefaultValue(DEFAULT_HOURS) @QueryParam("hours") int numberOfHours,
+                                @HeaderParam("namespace") String namespace) throws ServiceException, ValidationException {
+        logger.info("Received request to forecast executions under namespace {} with param from {}, to {}, " +
+                "numberOfHours {}", namespace, from, to, numberOfHours);
+        if (namespace == null || namespace.isEmpty()) {
+            return Response.status(BAD_REQUEST).entity("missing namespace header").build();
+        }
+        if (from <= 0) {
+            from = System.currentTimeMillis();
+        }
+        if (to <= 0) {
+            to = from + TimeUnit.HOURS.toMillis(numberOfHours);
+        }
+        if (to <= from || to - from > TimeUnit.HOURS.toMillis(MAX_HOURS)) {
+            return Response.status(BAD_REQUEST)
+                    .entity("range should be positive and at most " + MAX_HOURS + " hours").build();
+        }
+        final ExecutionForecast executionForecast =
+                WorkflowSchedulerService.getService().getForecast(namespace, from, to);
+        return Response.status(OK).entity(executionForecast).build();
+    }
+}
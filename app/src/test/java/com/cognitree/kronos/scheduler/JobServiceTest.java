@@ -24,6 +24,8 @@ import com.cognitree.kronos.executor.handlers.MockRetryTaskHandler;
 import com.cognitree.kronos.executor.handlers.MockSuccessTaskHandler;
 import com.cognitree.kronos.model.Messages;
 import com.cognitree.kronos.model.Task;
+import com.cognitree.kronos.scheduler.ListenerConfig.OverflowPolicy;
+import com.cognitree.kronos.scheduler.WorkflowSchedulerService.WorkflowLifecycleHandler;
 import com.cognitree.kronos.scheduler.model.Job;
 import com.cognitree.kronos.scheduler.model.JobId;
 import com.cognitree.kronos.scheduler.model.WorkflowTrigger;
@@ -33,6 +35,7 @@ import org.junit.Test;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
 
 import static com.cognitree.kronos.TestUtil.scheduleWorkflow;
 import static com.cognitree.kronos.TestUtil.waitForJobsToTriggerAndComplete;
@@ -40,6 +43,7 @@ import static com.cognitree.kronos.TestUtil.waitForTaskToBeRunning;
 import static com.cognitree.kronos.TestUtil.waitForTriggerToComplete;
 import static com.cognitree.kronos.model.Task.Status.ABORTED;
 import static com.cognitree.kronos.model.Task.Status.SKIPPED;
+import static java.util.concurrent.TimeUnit.SECONDS;
 
 public class JobServiceTest extends ServiceTest {
 
@@ -206,6 +210,10 @@ public class JobServiceTest extends ServiceTest {
                 case "taskTwo":
                     Assert.assertEquals(Task.Status.SUCCESSFUL, task.getStatus());
                     Assert.assertEquals(2, task.getRetryCount());
+                    Assert.assertNotNull(task.getRetryAt());
+                    // the last retry is held back for its delay and dispatched once it is over
+                    Assert.assertTrue(task.getSubmittedAt() >= task.getRetryAt());
+                    Assert.assertTrue(task.getSubmittedAt() - task.getRetryAt() < 5000);
                     Assert.assertTrue(MockRetryTaskHandler.isHandled(task.getIdentity()));
                     break;
                 case "taskThree":
@@ -333,4 +341,79 @@ public class JobServiceTest extends ServiceTest {
                 workflowTrigger.getName(), 0, System.currentTimeMillis());
         Assert.assertEquals(0, workflowOneJobsPostDelete.size());
     }
+
+    @Test
+    public void testJobCompletesOnTaskStatusListenerQueueOverflow() throws Exception {
+        // listener queues hold a single notification and drop the overflowing ones unless registered otherwise
+        final ListenerConfig listenerConfig = new ListenerConfig();
+        listenerConfig.setQueueCapacity(1);
+        listenerConfig.setOverflowPolicy(OverflowPolicy.DROP);
+        final TaskService taskService = TaskService.getService();
+        final JobService jobService = JobService.getService();
+        final TaskService overflowingTaskService = new TaskService(listenerConfig);
+        final JobService overflowingJobService = new JobService(listenerConfig);
+        overflowingTaskService.init();
+        overflowingTaskService.start();
+        overflowingJobService.init();
+        overflowingJobService.start();
+        WorkflowSchedulerService.registerWorkflowLifecycleHandler(overflowingTaskService);
+
+        final LifecycleBlockingJobStatusChangeListener blockingListener = new LifecycleBlockingJobStatusChangeListener();
+        overflowingJobService.registerListener(blockingListener, OverflowPolicy.CALLER_RUNS);
+        try {
+            // the listener holds its delivery thread on the first notification and its queue fills up with the
+            // second one, notifications published after that are delivered on the publishing thread
+            final WorkflowTrigger workflowTriggerOne = scheduleWorkflow(WORKFLOW_TEMPLATE_YAML);
+            waitForJobsToTriggerAndComplete(workflowTriggerOne);
+            // the workflow lifecycle handler is held on publishing the completion of the job
+            final WorkflowTrigger workflowTriggerTwo = scheduleWorkflow(WORKFLOW_TEMPLATE_YAML);
+            waitForJobsToTriggerAndComplete(workflowTriggerTwo);
+
+            // task status notifications of the job overflow the queue of the held workflow lifecycle handler
+            final WorkflowTrigger workflowTriggerThree = scheduleWorkflow(WORKFLOW_TEMPLATE_YAML);
+            waitForTasksToComplete(workflowTriggerThree.getNamespace(), 10);
+            blockingListener.release.countDown();
+            waitForJobsToTriggerAndComplete(workflowTriggerThree);
+
+            final List<Job> jobs = JobService.getService().get(workflowTriggerThree.getNamespace(),
+                    workflowTriggerThree.getWorkflow(), workflowTriggerThree.getName(), 0, System.currentTimeMillis());
+            Assert.assertEquals(1, jobs.size());
+            Assert.assertEquals(Job.Status.SUCCESSFUL, jobs.get(0).getStatus());
+        } finally {
+            blockingListener.release.countDown();
+            ServiceProvider.registerService(taskService);
+            ServiceProvider.registerService(jobService);
+            overflowingTaskService.stop();
+            overflowingJobService.stop();
+        }
+    }
+
+    private void waitForTasksToComplete(String namespace, int maxCount) throws Exception {
+        while (maxCount > 0) {
+            final List<Task> tasks = TaskService.getService().get(namespace);
+            if (!tasks.isEmpty() && tasks.stream().allMatch(task -> task.getStatus().isFinal())) {
+                break;
+            }
+            Thread.sleep(1000);
+            maxCount--;
+        }
+    }
+
+    private static class LifecycleBlockingJobStatusChangeListener implements JobStatusChangeListener {
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public void statusChanged(JobId jobId, Job.Status from, Job.Status to) {
+            final String threadName = Thread.currentThread().getName();
+            if (!threadName.startsWith("job-status-change-") && !threadName.startsWith("task-status-change-" +
+                    WorkflowLifecycleHandler.class.getSimpleName())) {
+                return;
+            }
+            try {
+                release.await(180, SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
 }
@@ -48,6 +48,7 @@ public class ServiceTest {
     protected static final String WORKFLOW_TEMPLATE_WITH_TASK_CONTEXT_YAML = "workflows/workflow-template-with-task-context.yaml";
     protected static final String WORKFLOW_TEMPLATE_WITH_PROPERTIES_YAML = "workflows/workflow-template-with-properties.yaml";
     protected static final String WORKFLOW_TEMPLATE_WITH_DUPLICATE_POLICY_YAML = "workflows/workflow-template-with-duplicate-policy.yaml";
+    protected static final String WORKFLOW_TEMPLATE_WITH_INVALID_RETRY_POLICY_YAML = "workflows/workflow-template-with-invalid-retry-policy.yaml";
 
     private static final ObjectMapper MAPPER = new ObjectMapper(new YAMLFactory());
     private static final List<Namespace> EXISTING_NAMESPACE = new ArrayList<>();
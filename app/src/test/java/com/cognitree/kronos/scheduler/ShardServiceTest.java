@@ -0,0 +1,230 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cognitree.kronos.scheduler;
+
+import com.cognitree.kronos.ServiceException;
+import com.cognitree.kronos.model.Task;
+import com.cognitree.kronos.model.TaskStatusUpdate;
+import com.cognitree.kronos.model.TaskId;
+import com.cognitree.kronos.queue.QueueConfig;
+import com.cognitree.kronos.queue.QueueService;
+import com.cognitree.kronos.queue.consumer.ConsumerConfig;
+import com.cognitree.kronos.queue.consumer.RAMConsumer;
+import com.cognitree.kronos.queue.producer.ProducerConfig;
+import com.cognitree.kronos.queue.producer.RAMProducer;
+import com.cognitree.kronos.scheduler.store.LeaseStore;
+import com.cognitree.kronos.scheduler.store.impl.RAMLeaseStore;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * runs multiple scheduler nodes in process sharing a lease store and a task status queue
+ */
+public class ShardServiceTest {
+    private static final int PARTITIONS = 16;
+    private static final long LEASE_DURATION_IN_MS = 60000;
+
+    private LeaseStore leaseStore;
+
+    @Before
+    public void setup() {
+        leaseStore = new RAMLeaseStore();
+    }
+
+    @Test
+    public void testPartitionsShardedAmongNodes() {
+        final List<ShardService> nodes = Arrays.asList(createNode("node-1", LEASE_DURATION_IN_MS),
+                createNode("node-2", LEASE_DURATION_IN_MS), createNode("node-3", LEASE_DURATION_IN_MS));
+        final Map<ShardService, Set<Integer>> partitionsByListener = registerListeners(nodes);
+        rebalance(nodes);
+
+        assertSharded(nodes);
+        for (ShardService node : nodes) {
+            Assert.assertFalse(node.getOwnedPartitions().isEmpty());
+            Assert.assertEquals(node.getOwnedPartitions(), partitionsByListener.get(node));
+        }
+        // each workflow is owned by exactly one node
+        for (int i = 0; i < 100; i++) {
+            final String workflow = UUID.randomUUID().toString();
+            Assert.assertEquals(1, nodes.stream().filter(node -> node.owns("namespace", workflow)).count());
+        }
+    }
+
+    @Test
+    public void testRebalanceOnNodeJoinAndLeave() {
+        final ShardService nodeOne = createNode("node-1", LEASE_DURATION_IN_MS);
+        final ShardService nodeTwo = createNode("node-2", LEASE_DURATION_IN_MS);
+        final Map<ShardService, Set<Integer>> partitionsByListener = registerListeners(Arrays.asList(nodeOne, nodeTwo));
+        rebalance(Arrays.asList(nodeOne, nodeTwo));
+        assertSharded(Arrays.asList(nodeOne, nodeTwo));
+
+        // partitions moved to the joining node only
+        final Set<Integer> nodeOnePartitions = nodeOne.getOwnedPartitions();
+        final Set<Integer> nodeTwoPartitions = nodeTwo.getOwnedPartitions();
+        final ShardService nodeThree = createNode("node-3", LEASE_DURATION_IN_MS);
+        partitionsByListener.putAll(registerListeners(Arrays.asList(nodeThree)));
+        final List<ShardService> nodes = Arrays.asList(nodeOne, nodeTwo, nodeThree);
+        rebalance(nodes);
+        assertSharded(nodes);
+        Assert.assertFalse(nodeThree.getOwnedPartitions().isEmpty());
+        Assert.assertTrue(nodeOnePartitions.containsAll(nodeOne.getOwnedPartitions()));
+        Assert.assertTrue(nodeTwoPartitions.containsAll(nodeTwo.getOwnedPartitions()));
+
+        // partitions of the leaving node taken over by the remaining nodes
+        final Set<Integer> nodeTwoRemainingPartitions = nodeTwo.getOwnedPartitions();
+        final Set<Integer> nodeThreePartitions = nodeThree.getOwnedPartitions();
+        nodeOne.stop();
+        rebalance(Arrays.asList(nodeTwo, nodeThree));
+        assertSharded(Arrays.asList(nodeTwo, nodeThree));
+        Assert.assertTrue(nodeOne.getOwnedPartitions().isEmpty());
+        Assert.assertTrue(nodeTwo.getOwnedPartitions().containsAll(nodeTwoRemainingPartitions));
+        Assert.assertTrue(nodeThree.getOwnedPartitions().containsAll(nodeThreePartitions));
+        Assert.assertEquals(nodeTwo.getOwnedPartitions(), partitionsByListener.get(nodeTwo));
+        Assert.assertEquals(nodeThree.getOwnedPartitions(), partitionsByListener.get(nodeThree));
+    }
+
+    @Test
+    public void testTakeOverOnLeaseExpiry() throws InterruptedException {
+        final ShardService nodeOne = createNode("node-1", 500);
+        final ShardService nodeTwo = createNode("node-2", 500);
+        rebalance(Arrays.asList(nodeOne, nodeTwo));
+        assertSharded(Arrays.asList(nodeOne, nodeTwo));
+
+        // node two stops renewing its leases, its partitions are taken over once they expire
+        nodeOne.rebalance();
+        Assert.assertNotEquals(PARTITIONS, nodeOne.getOwnedPartitions().size());
+        Thread.sleep(600);
+        rebalance(Arrays.asList(nodeOne));
+        Assert.assertEquals(PARTITIONS, nodeOne.getOwnedPartitions().size());
+    }
+
+    @Test
+    public void testTaskStatusUpdatesConsumedByOwner() throws ServiceException {
+        final List<ShardService> nodes = Arrays.asList(createNode("node-1", LEASE_DURATION_IN_MS),
+                createNode("node-2", LEASE_DURATION_IN_MS), createNode("node-3", LEASE_DURATION_IN_MS));
+        rebalance(nodes);
+
+        final QueueConfig queueConfig = createQueueConfig();
+        final QueueService executorQueueService = new QueueService(queueConfig, "shard-test-executor-queue");
+        final Map<ShardService, QueueService> schedulerQueueServices = new HashMap<>();
+        for (ShardService node : nodes) {
+            schedulerQueueServices.put(node, new QueueService(queueConfig, "shard-test-queue-" + node.getNodeId()));
+        }
+        final Set<TaskStatusUpdate> taskStatusUpdates = new HashSet<>();
+        for (int i = 0; i < 50; i++) {
+            final TaskStatusUpdate taskStatusUpdate = createTaskStatusUpdate("namespace-" + i % 5,
+                    UUID.randomUUID().toString());
+            executorQueueService.send(taskStatusUpdate);
+            taskStatusUpdates.add(taskStatusUpdate);
+        }
+
+        final List<TaskStatusUpdate> consumedTaskStatusUpdates = new ArrayList<>();
+        for (ShardService node : nodes) {
+            final List<TaskStatusUpdate> nodeTaskStatusUpdates =
+                    schedulerQueueServices.get(node).consumeTaskStatusUpdates(node.getOwnedPartitions());
+            for (TaskStatusUpdate taskStatusUpdate : nodeTaskStatusUpdates) {
+                final TaskId taskId = taskStatusUpdate.getTaskId();
+                Assert.assertTrue(node.owns(taskId.getNamespace(), taskId.getWorkflow()));
+            }
+            consumedTaskStatusUpdates.addAll(nodeTaskStatusUpdates);
+        }
+        Assert.assertEquals(taskStatusUpdates.size(), consumedTaskStatusUpdates.size());
+        Assert.assertEquals(taskStatusUpdates, new HashSet<>(consumedTaskStatusUpdates));
+        executorQueueService.stop();
+        schedulerQueueServices.values().forEach(QueueService::stop);
+    }
+
+    private ShardService createNode(String nodeId, long leaseDurationInMs) {
+        final ClusterConfig clusterConfig = new ClusterConfig();
+        clusterConfig.setNodeId(nodeId);
+        clusterConfig.setLeaseDurationInMs(leaseDurationInMs);
+        return new ShardService(clusterConfig, PARTITIONS, leaseStore);
+    }
+
+    private Map<ShardService, Set<Integer>> registerListeners(List<ShardService> nodes) {
+        final Map<ShardService, Set<Integer>> partitionsByListener = new HashMap<>();
+        for (ShardService node : nodes) {
+            final Set<Integer> partitions = ConcurrentHashMap.newKeySet();
+            node.registerListener(new PartitionChangeListener() {
+                @Override
+                public void partitionsAssigned(Set<Integer> assigned) {
+                    Assert.assertTrue(partitions.addAll(assigned));
+                }
+
+                @Override
+                public void partitionsRevoked(Set<Integer> revoked) {
+                    Assert.assertTrue(partitions.removeAll(revoked));
+                }
+            });
+            partitionsByListener.put(node, partitions);
+        }
+        return partitionsByListener;
+    }
+
+    /**
+     * a partition is taken over on the heartbeat after it is released by its previous owner
+     */
+    private void rebalance(List<ShardService> nodes) {
+        for (int round = 0; round < 3; round++) {
+            nodes.forEach(ShardService::rebalance);
+        }
+    }
+
+    private void assertSharded(List<ShardService> nodes) {
+        final Set<Integer> partitions = new HashSet<>();
+        for (ShardService node : nodes) {
+            for (Integer partition : node.getOwnedPartitions()) {
+                Assert.assertTrue("partition " + partition + " is owned by multiple nodes", partitions.add(partition));
+            }
+        }
+        Assert.assertEquals(PARTITIONS, partitions.size());
+    }
+
+    private QueueConfig createQueueConfig() {
+        final ProducerConfig producerConfig = new ProducerConfig();
+        producerConfig.setProducerClass(RAMProducer.class.getName());
+        final ConsumerConfig consumerConfig = new ConsumerConfig();
+        consumerConfig.setConsumerClass(RAMConsumer.class.getName());
+        final QueueConfig queueConfig = new QueueConfig();
+        queueConfig.setProducerConfig(producerConfig);
+        queueConfig.setConsumerConfig(consumerConfig);
+        queueConfig.setTaskStatusQueue("shard-test-taskstatus");
+        queueConfig.setTaskStatusPartitions(PARTITIONS);
+        return queueConfig;
+    }
+
+    private TaskStatusUpdate createTaskStatusUpdate(String namespace, String workflow) {
+        final TaskStatusUpdate taskStatusUpdate = new TaskStatusUpdate();
+        taskStatusUpdate.setTaskId(TaskId.build(namespace, UUID.randomUUID().toString(),
+                UUID.randomUUID().toString(), workflow));
+        taskStatusUpdate.setStatus(Task.Status.RUNNING);
+        taskStatusUpdate.setPartitionKey(QueueService.getPartitionKey(namespace, workflow));
+        return taskStatusUpdate;
+    }
+}
@@ -21,6 +21,7 @@ import com.cognitree.kronos.ServiceProvider;
 import com.cognitree.kronos.executor.handlers.MockAbortTaskHandler;
 import com.cognitree.kronos.executor.handlers.MockSuccessTaskHandler;
 import com.cognitree.kronos.model.Messages;
+import com.cognitree.kronos.model.RetryPolicy;
 import com.cognitree.kronos.model.Task;
 import com.cognitree.kronos.model.TaskId;
 import com.cognitree.kronos.scheduler.model.Job;
@@ -192,4 +193,47 @@ public class TaskServiceTest extends ServiceTest {
             }
         }
     }
+
+    @Test
+    public void testGetRetryDelay() {
+        final RetryPolicy retryPolicy = new RetryPolicy();
+        Assert.assertEquals(0, TaskService.getRetryDelay(retryPolicy, 1));
+
+        retryPolicy.setRetryDelayInMs(100);
+        Assert.assertEquals(100, TaskService.getRetryDelay(retryPolicy, 1));
+        Assert.assertEquals(100, TaskService.getRetryDelay(retryPolicy, 3));
+
+        // delay grows exponentially with the retry count
+        retryPolicy.setBackoffMultiplier(2);
+        Assert.assertEquals(100, TaskService.getRetryDelay(retryPolicy, 1));
+        Assert.assertEquals(200, TaskService.getRetryDelay(retryPolicy, 2));
+        Assert.assertEquals(400, TaskService.getRetryDelay(retryPolicy, 3));
+
+        // and is capped at the max retry delay
+        retryPolicy.setMaxRetryDelayInMs(300);
+        Assert.assertEquals(300, TaskService.getRetryDelay(retryPolicy, 3));
+        Assert.assertEquals(300, TaskService.getRetryDelay(retryPolicy, 100));
+        // an unbounded delay does not overflow
+        retryPolicy.setMaxRetryDelayInMs(-1);
+        Assert.assertTrue(TaskService.getRetryDelay(retryPolicy, 10000) > 0);
+    }
+
+    @Test
+    public void testGetRetryDelayWithJitter() {
+        final RetryPolicy retryPolicy = new RetryPolicy();
+        retryPolicy.setRetryDelayInMs(1000);
+        retryPolicy.setBackoffMultiplier(2);
+        retryPolicy.setJitterFactor(0.25);
+        long minDelay = Long.MAX_VALUE;
+        long maxDelay = Long.MIN_VALUE;
+        for (int i = 0; i < 1000; i++) {
+            final long delay = TaskService.getRetryDelay(retryPolicy, 2);
+            minDelay = Math.min(minDelay, delay);
+            maxDelay = Math.max(maxDelay, delay);
+        }
+        // jitter reduces the delay by up to the jitter factor
+        Assert.assertTrue(minDelay >= 1500);
+        Assert.assertTrue(maxDelay <= 2000);
+        Assert.assertTrue(maxDelay > minDelay);
+    }
 }
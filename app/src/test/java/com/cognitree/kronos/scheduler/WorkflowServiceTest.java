@@ -255,6 +255,12 @@ public class WorkflowServiceTest extends ServiceTest {
         Assert.fail();
     }
 
+    @Test(expected = ValidationException.class)
+    public void testInvalidRetryPolicy() throws Exception {
+        scheduleWorkflow(WORKFLOW_TEMPLATE_WITH_INVALID_RETRY_POLICY_YAML, null, null);
+        Assert.fail();
+    }
+
     @Test(expected = ValidationException.class)
     public void testMissingWorkflowPropertiesShouldFail() throws Exception {
         HashMap<String, Object> workflowProps = new HashMap<>();
@@ -20,16 +20,26 @@ package com.cognitree.kronos.scheduler;
 import com.cognitree.kronos.executor.handlers.MockSuccessTaskHandler;
 import com.cognitree.kronos.model.Task;
 import com.cognitree.kronos.scheduler.model.CalendarIntervalSchedule;
+import com.cognitree.kronos.scheduler.model.CronSchedule;
 import com.cognitree.kronos.scheduler.model.DailyTimeIntervalSchedule;
+import com.cognitree.kronos.scheduler.model.ExecutionForecast;
 import com.cognitree.kronos.scheduler.model.FixedDelaySchedule;
+import com.cognitree.kronos.scheduler.model.Job;
 import com.cognitree.kronos.scheduler.model.Namespace;
 import com.cognitree.kronos.scheduler.model.SimpleSchedule;
 import com.cognitree.kronos.scheduler.model.Workflow;
+import com.cognitree.kronos.scheduler.model.WorkflowId;
 import com.cognitree.kronos.scheduler.model.WorkflowTrigger;
 import org.junit.Assert;
 import org.junit.Test;
 import org.quartz.DateBuilder;
+import org.quartz.Scheduler;
+import org.quartz.TriggerKey;
+import org.quartz.impl.matchers.GroupMatcher;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.UUID;
@@ -39,6 +49,8 @@ import static com.cognitree.kronos.TestUtil.createWorkflow;
 import static com.cognitree.kronos.TestUtil.createWorkflowTrigger;
 import static com.cognitree.kronos.TestUtil.scheduleWorkflow;
 import static com.cognitree.kronos.TestUtil.waitForJobsToTriggerAndComplete;
+import static com.cognitree.kronos.scheduler.model.Job.Status.FAILED;
+import static com.cognitree.kronos.scheduler.model.Job.Status.SUCCESSFUL;
 import static org.quartz.DailyTimeIntervalScheduleBuilder.ALL_DAYS_OF_THE_WEEK;
 
 public class WorkflowTriggerServiceTest extends ServiceTest {
@@ -150,6 +162,154 @@ public class WorkflowTriggerServiceTest extends ServiceTest {
         Assert.assertEquals(fixedWorkflowTrigger, workflowTrigger);
     }
 
+    @Test
+    public void testFixedDelayTriggerRescheduledOnJobCompletion() throws Exception {
+        Namespace namespace = createNamespace(UUID.randomUUID().toString());
+        NamespaceService.getService().add(namespace);
+
+        final Workflow workflow = createWorkflow(WORKFLOW_TEMPLATE_YAML,
+                UUID.randomUUID().toString(), namespace.getName());
+        WorkflowService.getService().add(workflow);
+
+        final WorkflowTriggerService workflowTriggerService = WorkflowTriggerService.getService();
+        final WorkflowTrigger fixedWorkflowTrigger = new WorkflowTrigger();
+        fixedWorkflowTrigger.setStartAt(System.currentTimeMillis());
+        fixedWorkflowTrigger.setEnabled(true);
+        fixedWorkflowTrigger.setWorkflow(workflow.getName());
+        fixedWorkflowTrigger.setNamespace(workflow.getNamespace());
+        fixedWorkflowTrigger.setName(UUID.randomUUID().toString());
+        final FixedDelaySchedule fixedDelaySchedule = new FixedDelaySchedule();
+        fixedDelaySchedule.setIntervalInMs(1000);
+        fixedWorkflowTrigger.setSchedule(fixedDelaySchedule);
+        workflowTriggerService.add(fixedWorkflowTrigger);
+
+        final Scheduler scheduler = WorkflowSchedulerService.getService().getScheduler();
+        final TriggerKey triggerKey = WorkflowSchedulerService.getService().getTriggerKey(fixedWorkflowTrigger);
+        List<Job> completedJobs = Collections.emptyList();
+        int maxCount = 30;
+        while (maxCount > 0 && completedJobs.size() < 2) {
+            Thread.sleep(1000);
+            completedJobs = JobService.getService().get(namespace.getName(), workflow.getName(),
+                    fixedWorkflowTrigger.getName(), Arrays.asList(SUCCESSFUL, FAILED), 0, System.currentTimeMillis());
+            // the trigger is rescheduled in place and never removed from or paused in the quartz scheduler
+            Assert.assertTrue(scheduler.checkExists(triggerKey));
+            Assert.assertFalse(scheduler.isInStandbyMode());
+            maxCount--;
+        }
+        Assert.assertTrue(completedJobs.size() >= 2);
+        completedJobs.sort(Comparator.comparing(Job::getCreatedAt));
+        // next run is triggered after the delay from the completion of the previous one
+        Assert.assertTrue(completedJobs.get(1).getCreatedAt() - completedJobs.get(0).getCompletedAt() >= 1000);
+        workflowTriggerService.delete(fixedWorkflowTrigger);
+    }
+
+    @Test
+    public void testCoalesceCronWorkflowTriggers() throws Exception {
+        Namespace namespace = createNamespace(UUID.randomUUID().toString());
+        NamespaceService.getService().add(namespace);
+
+        final Workflow workflowOne = createWorkflow(WORKFLOW_TEMPLATE_YAML,
+                UUID.randomUUID().toString(), namespace.getName());
+        WorkflowService.getService().add(workflowOne);
+        final Workflow workflowTwo = createWorkflow(WORKFLOW_TEMPLATE_YAML,
+                UUID.randomUUID().toString(), namespace.getName());
+        WorkflowService.getService().add(workflowTwo);
+
+        final Scheduler scheduler = WorkflowSchedulerService.getService().getScheduler();
+        final int sharedTriggerCount = scheduler.getTriggerKeys(GroupMatcher.triggerGroupEquals("coalesced")).size();
+        final WorkflowTriggerService workflowTriggerService = WorkflowTriggerService.getService();
+        final WorkflowTrigger workflowTriggerOne = createCronWorkflowTrigger(workflowOne);
+        workflowTriggerService.add(workflowTriggerOne);
+        final WorkflowTrigger workflowTriggerTwo = createCronWorkflowTrigger(workflowTwo);
+        workflowTriggerService.add(workflowTriggerTwo);
+
+        // both the workflow triggers share a single quartz trigger
+        Assert.assertFalse(scheduler.checkExists(WorkflowSchedulerService.getService().getTriggerKey(workflowTriggerOne)));
+        Assert.assertFalse(scheduler.checkExists(WorkflowSchedulerService.getService().getTriggerKey(workflowTriggerTwo)));
+        Assert.assertEquals(sharedTriggerCount + 1,
+                scheduler.getTriggerKeys(GroupMatcher.triggerGroupEquals("coalesced")).size());
+
+        int maxCount = 30;
+        while (maxCount > 0 && (getJobs(workflowTriggerOne, 0).isEmpty() || getJobs(workflowTriggerTwo, 0).isEmpty())) {
+            Thread.sleep(1000);
+            maxCount--;
+        }
+        Assert.assertFalse(getJobs(workflowTriggerOne, 0).isEmpty());
+        Assert.assertFalse(getJobs(workflowTriggerTwo, 0).isEmpty());
+
+        // a paused workflow trigger is skipped on fan out
+        workflowTriggerService.pause(workflowTriggerOne);
+        final long pausedAt = System.currentTimeMillis();
+        Thread.sleep(5000);
+        Assert.assertTrue(getJobs(workflowTriggerOne, pausedAt).isEmpty());
+        Assert.assertFalse(getJobs(workflowTriggerTwo, pausedAt).isEmpty());
+
+        workflowTriggerService.delete(workflowTriggerOne);
+        workflowTriggerService.delete(workflowTriggerTwo);
+        Assert.assertEquals(sharedTriggerCount,
+                scheduler.getTriggerKeys(GroupMatcher.triggerGroupEquals("coalesced")).size());
+    }
+
+    @Test
+    public void testForecastWorkflowTriggers() throws Exception {
+        Namespace namespace = createNamespace(UUID.randomUUID().toString());
+        NamespaceService.getService().add(namespace);
+
+        final Workflow workflow = createWorkflow(WORKFLOW_TEMPLATE_YAML,
+                UUID.randomUUID().toString(), namespace.getName());
+        WorkflowService.getService().add(workflow);
+        final WorkflowTrigger workflowTrigger = createCronWorkflowTrigger(workflow);
+        ((CronSchedule) workflowTrigger.getSchedule()).setCronExpression("0 0/5 * * * ?");
+        WorkflowTriggerService.getService().add(workflowTrigger);
+        final int tasksPerJob = WorkflowService.getService()
+                .getPlan(WorkflowId.build(namespace.getName(), workflow.getName())).getTaskPlans().size();
+
+        final long currentTimeMillis = System.currentTimeMillis();
+        final long from = currentTimeMillis - currentTimeMillis % 60000 + 60000;
+        final ExecutionForecast executionForecast = WorkflowSchedulerService.getService()
+                .getForecast(namespace.getName(), from, from + 60 * 60000);
+        Assert.assertEquals(namespace.getName(), executionForecast.getNamespace());
+        Assert.assertEquals(60, executionForecast.getSlots().size());
+        // a job fires every 5 minutes and runs for the default duration of a minute in absence of history
+        for (ExecutionForecast.Slot slot : executionForecast.getSlots()) {
+            final boolean fires = (slot.getStartAt() / 60000) % 5 == 0;
+            Assert.assertEquals(fires ? 1 : 0, slot.getJobs());
+            Assert.assertEquals(fires ? tasksPerJob : 0, slot.getTasks());
+        }
+
+        // paused triggers are excluded from the forecast
+        WorkflowTriggerService.getService().pause(workflowTrigger);
+        Assert.assertTrue(WorkflowSchedulerService.getService().getForecast(namespace.getName(), from, from + 60 * 60000)
+                .getSlots().stream().allMatch(slot -> slot.getJobs() == 0));
+        WorkflowTriggerService.getService().delete(workflowTrigger);
+    }
+
+    @Test(expected = ValidationException.class)
+    public void testGetForecastWithEmptyWindow() throws Exception {
+        Namespace namespace = createNamespace(UUID.randomUUID().toString());
+        NamespaceService.getService().add(namespace);
+
+        final long from = System.currentTimeMillis();
+        WorkflowSchedulerService.getService().getForecast(namespace.getName(), from, from);
+        Assert.fail();
+    }
+
+    private WorkflowTrigger createCronWorkflowTrigger(Workflow workflow) {
+        final WorkflowTrigger workflowTrigger = new WorkflowTrigger();
+        workflowTrigger.setName(UUID.randomUUID().toString());
+        workflowTrigger.setWorkflow(workflow.getName());
+        workflowTrigger.setNamespace(workflow.getNamespace());
+        final CronSchedule cronSchedule = new CronSchedule();
+        cronSchedule.setCronExpression("1/2 * * * * ?");
+        workflowTrigger.setSchedule(cronSchedule);
+        return workflowTrigger;
+    }
+
+    private List<Job> getJobs(WorkflowTrigger workflowTrigger, long createdAfter) throws Exception {
+        return JobService.getService().get(workflowTrigger.getNamespace(), workflowTrigger.getWorkflow(),
+                workflowTrigger.getName(), createdAfter, System.currentTimeMillis());
+    }
+
     @Test
     public void testAddWorkflowTriggerWithCalendarSchedule() throws Exception {
         Namespace namespace = createNamespace(UUID.randomUUID().toString());
@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cognitree.kronos.store;
+
+import com.cognitree.kronos.scheduler.model.Lease;
+import com.cognitree.kronos.scheduler.store.LeaseStore;
+import com.cognitree.kronos.scheduler.store.StoreException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+public class LeaseStoreTest extends StoreTest {
+
+    @Test
+    public void testAcquireAndReleaseLease() throws StoreException {
+        LeaseStore leaseStore = storeService.getLeaseStore();
+        final String leaseName = UUID.randomUUID().toString();
+        Assert.assertTrue(leaseStore.acquire(leaseName, "owner-1", 60000));
+        // lease held by one owner at a time, renewed by its owner
+        Assert.assertFalse(leaseStore.acquire(leaseName, "owner-2", 60000));
+        Assert.assertTrue(leaseStore.acquire(leaseName, "owner-1", 60000));
+
+        List<Lease> leases = leaseStore.load();
+        Assert.assertTrue(leases.stream().anyMatch(lease -> lease.getName().equals(leaseName)
+                && lease.getOwner().equals("owner-1")));
+
+        // released only by its owner
+        leaseStore.release(leaseName, "owner-2");
+        Assert.assertFalse(leaseStore.acquire(leaseName, "owner-2", 60000));
+        leaseStore.release(leaseName, "owner-1");
+        Assert.assertTrue(leaseStore.load().stream().noneMatch(lease -> lease.getName().equals(leaseName)));
+        Assert.assertTrue(leaseStore.acquire(leaseName, "owner-2", 60000));
+        leaseStore.release(leaseName, "owner-2");
+    }
+
+    @Test
+    public void testAcquireExpiredLease() throws StoreException, InterruptedException {
+        LeaseStore leaseStore = storeService.getLeaseStore();
+        final String leaseName = UUID.randomUUID().toString();
+        Assert.assertTrue(leaseStore.acquire(leaseName, "owner-1", 100));
+        Thread.sleep(200);
+        Assert.assertTrue(leaseStore.load().stream().noneMatch(lease -> lease.getName().equals(leaseName)));
+        Assert.assertTrue(leaseStore.acquire(leaseName, "owner-2", 60000));
+        leaseStore.release(leaseName, "owner-2");
+    }
+}
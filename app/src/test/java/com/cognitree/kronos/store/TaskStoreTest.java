@@ -109,6 +109,40 @@ public class TaskStoreTest extends StoreTest {
                         && existingTasks.containsAll(tasksAfterCreate));
     }
 
+    @Test
+    public void testStoreAllTasks() throws StoreException {
+        TaskStore taskStore = storeService.getTaskStore();
+        String namespace = UUID.randomUUID().toString();
+        String workflow = UUID.randomUUID().toString();
+        String job = UUID.randomUUID().toString();
+        createJob(namespace, workflow, UUID.randomUUID().toString(), job);
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Task task = new Task();
+            task.setType("test");
+            task.setNamespace(namespace);
+            task.setWorkflow(workflow);
+            task.setJob(job);
+            task.setName(UUID.randomUUID().toString());
+            task.setCreatedAt(System.currentTimeMillis());
+            tasks.add(task);
+        }
+        taskStore.storeAll(tasks);
+        List<Task> tasksByJob = taskStore.loadByJobIdAndWorkflowName(namespace, job, workflow);
+        assertEquals(3, tasksByJob.size());
+        Assert.assertTrue(tasksByJob.containsAll(tasks));
+        for (Task task : tasks) {
+            assertEquals(task, taskStore.load(task));
+        }
+
+        try {
+            taskStore.storeAll(Collections.singletonList(tasks.get(0)));
+            Assert.fail("storing an existing task should fail");
+        } catch (StoreException ignored) {
+        }
+        assertEquals(3, taskStore.loadByJobIdAndWorkflowName(namespace, job, workflow).size());
+    }
+
     @Test
     public void testUpdateTask() throws StoreException {
         ArrayList<Task> existingTasks = loadExistingTasks();
@@ -28,6 +28,22 @@ public class RetryPolicy extends Policy {
     private int maxRetryCount = 1;
     private boolean retryOnFailure = true;
     private boolean retryOnTimeout = false;
+    /**
+     * delay before the first retry, the task is retried immediately if set to 0
+     */
+    private long retryDelayInMs = 0;
+    /**
+     * factor by which the delay grows after each retry, 1 for a fixed delay and greater than 1 for exponential backoff
+     */
+    private double backoffMultiplier = 1;
+    /**
+     * upper bound on the delay between retries, -1 for no bound
+     */
+    private long maxRetryDelayInMs = -1;
+    /**
+     * fraction of the delay, between 0 and 1, randomly subtracted from it to spread out the retries
+     */
+    private double jitterFactor = 0;
 
     public RetryPolicy() {
         super(retry);
@@ -57,6 +73,38 @@ public class RetryPolicy extends Policy {
         this.retryOnTimeout = retryOnTimeout;
     }
 
+    public long getRetryDelayInMs() {
+        return retryDelayInMs;
+    }
+
+    public void setRetryDelayInMs(long retryDelayInMs) {
+        this.retryDelayInMs = retryDelayInMs;
+    }
+
+    public double getBackoffMultiplier() {
+        return backoffMultiplier;
+    }
+
+    public void setBackoffMultiplier(double backoffMultiplier) {
+        this.backoffMultiplier = backoffMultiplier;
+    }
+
+    public long getMaxRetryDelayInMs() {
+        return maxRetryDelayInMs;
+    }
+
+    public void setMaxRetryDelayInMs(long maxRetryDelayInMs) {
+        this.maxRetryDelayInMs = maxRetryDelayInMs;
+    }
+
+    public double getJitterFactor() {
+        return jitterFactor;
+    }
+
+    public void setJitterFactor(double jitterFactor) {
+        this.jitterFactor = jitterFactor;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -65,12 +113,17 @@ public class RetryPolicy extends Policy {
         RetryPolicy that = (RetryPolicy) o;
         return maxRetryCount == that.maxRetryCount &&
                 retryOnFailure == that.retryOnFailure &&
-                retryOnTimeout == that.retryOnTimeout;
+                retryOnTimeout == that.retryOnTimeout &&
+                retryDelayInMs == that.retryDelayInMs &&
+                Double.compare(that.backoffMultiplier, backoffMultiplier) == 0 &&
+                maxRetryDelayInMs == that.maxRetryDelayInMs &&
+                Double.compare(that.jitterFactor, jitterFactor) == 0;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(super.hashCode(), maxRetryCount, retryOnFailure, retryOnTimeout);
+        return Objects.hash(super.hashCode(), maxRetryCount, retryOnFailure, retryOnTimeout, retryDelayInMs,
+                backoffMultiplier, maxRetryDelayInMs, jitterFactor);
     }
 
     @Override
@@ -79,6 +132,10 @@ public class RetryPolicy extends Policy {
                 "maxRetryCount=" + maxRetryCount +
                 ", retryOnFailure=" + retryOnFailure +
                 ", retryOnTimeout=" + retryOnTimeout +
+                ", retryDelayInMs=" + retryDelayInMs +
+                ", backoffMultiplier=" + backoffMultiplier +
+                ", maxRetryDelayInMs=" + maxRetryDelayInMs +
+                ", jitterFactor=" + jitterFactor +
                 "} " + super.toString();
     }
 }
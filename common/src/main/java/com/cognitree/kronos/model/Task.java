@@ -48,6 +48,9 @@ public class Task extends TaskId {
     private Long submittedAt;
     private Long completedAt;
     private int retryCount = 0;
+    private Long retryAt;
+    private long priority;
+    private Long planVersion;
 
     public String getType() {
         return type;
@@ -145,6 +148,39 @@ public class Task extends TaskId {
         this.retryCount = retryCount;
     }
 
+    /**
+     * time after which the task waiting to be retried is scheduled for execution
+     */
+    public Long getRetryAt() {
+        return retryAt;
+    }
+
+    public void setRetryAt(Long retryAt) {
+        this.retryAt = retryAt;
+    }
+
+    /**
+     * priority of the task set by the scheduler on dispatch, executors pick tasks with higher priority first
+     */
+    public long getPriority() {
+        return priority;
+    }
+
+    public void setPriority(long priority) {
+        this.priority = priority;
+    }
+
+    /**
+     * version of the workflow plan the task is created from
+     */
+    public Long getPlanVersion() {
+        return planVersion;
+    }
+
+    public void setPlanVersion(Long planVersion) {
+        this.planVersion = planVersion;
+    }
+
     @JsonIgnore
     @BsonIgnore
     public TaskId getIdentity() {
@@ -176,6 +212,9 @@ public class Task extends TaskId {
                 ", submittedAt=" + submittedAt +
                 ", completedAt=" + completedAt +
                 ", retryCount=" + retryCount +
+                ", retryAt=" + retryAt +
+                ", priority=" + priority +
+                ", planVersion=" + planVersion +
                 "} " + super.toString();
     }
 
@@ -31,6 +31,8 @@ public class TaskStatusUpdate {
     private Status status;
     private String statusMessage;
     private Map<String, Object> context;
+    // routes the update to the scheduler node owning the workflow of the task, see QueueService#getPartitionKey
+    private String partitionKey;
 
     public TaskId getTaskId() {
         return taskId;
@@ -64,6 +66,14 @@ public class TaskStatusUpdate {
         this.context = context;
     }
 
+    public String getPartitionKey() {
+        return partitionKey;
+    }
+
+    public void setPartitionKey(String partitionKey) {
+        this.partitionKey = partitionKey;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -72,13 +82,14 @@ public class TaskStatusUpdate {
         return Objects.equals(taskId, that.taskId) &&
                 status == that.status &&
                 Objects.equals(statusMessage, that.statusMessage) &&
-                Objects.equals(context, that.context);
+                Objects.equals(context, that.context) &&
+                Objects.equals(partitionKey, that.partitionKey);
     }
 
     @Override
     public int hashCode() {
 
-        return Objects.hash(taskId, status, statusMessage, context);
+        return Objects.hash(taskId, status, statusMessage, context, partitionKey);
     }
 
     @Override
@@ -88,6 +99,7 @@ public class TaskStatusUpdate {
                 ", status=" + status +
                 ", statusMessage='" + statusMessage + '\'' +
                 ", context=" + context +
+                ", partitionKey='" + partitionKey + '\'' +
                 '}';
     }
 }
\ No newline at end of file
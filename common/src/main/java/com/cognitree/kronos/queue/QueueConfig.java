@@ -37,6 +37,11 @@ public class QueueConfig {
      * time duration between successive poll to queue in millisecond, defaults to 1000ms.
      */
     private long pollIntervalInMs = TimeUnit.SECONDS.toMillis(1);
+    /**
+     * number of partitions of the task status queue, task status updates are partitioned by namespace and workflow
+     * of the task so that each scheduler node consumes the updates of the workflows it owns. Defaults to 1.
+     */
+    private int taskStatusPartitions = 1;
 
     public ProducerConfig getProducerConfig() {
         return producerConfig;
@@ -86,12 +91,21 @@ public class QueueConfig {
         this.pollIntervalInMs = pollIntervalInMs;
     }
 
+    public int getTaskStatusPartitions() {
+        return taskStatusPartitions;
+    }
+
+    public void setTaskStatusPartitions(int taskStatusPartitions) {
+        this.taskStatusPartitions = taskStatusPartitions;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof QueueConfig)) return false;
         QueueConfig that = (QueueConfig) o;
         return pollIntervalInMs == that.pollIntervalInMs &&
+                taskStatusPartitions == that.taskStatusPartitions &&
                 Objects.equals(producerConfig, that.producerConfig) &&
                 Objects.equals(consumerConfig, that.consumerConfig) &&
                 Objects.equals(taskStatusQueue, that.taskStatusQueue) &&
@@ -101,7 +115,8 @@ public class QueueConfig {
 
     @Override
     public int hashCode() {
-        return Objects.hash(producerConfig, consumerConfig, taskStatusQueue, configurationQueue, controlMessageQueue, pollIntervalInMs);
+        return Objects.hash(producerConfig, consumerConfig, taskStatusQueue, configurationQueue, controlMessageQueue,
+                pollIntervalInMs, taskStatusPartitions);
     }
 
     @Override
@@ -113,6 +128,7 @@ public class QueueConfig {
                 ", configurationQueue='" + configurationQueue + '\'' +
                 ", controlMessageQueue='" + controlMessageQueue + '\'' +
                 ", pollIntervalInMs=" + pollIntervalInMs +
+                ", taskStatusPartitions=" + taskStatusPartitions +
                 '}';
     }
 }
@@ -35,6 +35,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
@@ -52,6 +53,7 @@ public class QueueService implements Service {
     private final ProducerConfig producerConfig;
     private final String taskStatusQueue;
     private final String controlQueue;
+    private final int taskStatusPartitions;
 
     private final ConcurrentHashMap<String, Consumer> consumers = new ConcurrentHashMap<>();
     private final ConcurrentHashMap<String, Producer> producers = new ConcurrentHashMap<>();
@@ -63,12 +65,36 @@ public class QueueService implements Service {
         this.producerConfig = queueConfig.getProducerConfig();
         this.taskStatusQueue = queueConfig.getTaskStatusQueue();
         this.controlQueue = queueConfig.getControlMessageQueue();
+        this.taskStatusPartitions = queueConfig.getTaskStatusPartitions();
     }
 
     public static QueueService getService(String serviceName) {
         return (QueueService) ServiceProvider.getService(serviceName);
     }
 
+    /**
+     * key partitioning the task status updates and the scheduling of the workflow, all the tasks of a workflow share
+     * the same partition key
+     *
+     * @param namespace namespace of the workflow
+     * @param workflow  name of the workflow
+     * @return partition key of the workflow
+     */
+    public static String getPartitionKey(String namespace, String workflow) {
+        return namespace + ":" + workflow;
+    }
+
+    /**
+     * maps the partition key to one of the partitions, the mapping is stable across processes
+     *
+     * @param partitionKey   partition key
+     * @param partitionCount number of partitions
+     * @return partition in the range [0, partitionCount)
+     */
+    public static int getPartition(String partitionKey, int partitionCount) {
+        return Math.floorMod(partitionKey.hashCode(), partitionCount);
+    }
+
     @Override
     public void init() {
         logger.info("Initializing queue service {}", serviceName);
@@ -93,7 +119,7 @@ public class QueueService implements Service {
             createProducer(type);
         }
         try {
-            producers.get(type).send(MAPPER.writeValueAsString(task));
+            producers.get(type).send(MAPPER.writeValueAsString(task), task.getPriority());
         } catch (IOException e) {
             logger.error("Error serializing task {}", task, e);
         }
@@ -107,17 +133,27 @@ public class QueueService implements Service {
      */
     public void send(TaskStatusUpdate taskStatusUpdate) throws ServiceException {
         logger.debug("Received request to send task status update {}", taskStatusUpdate);
-        if (!producers.containsKey(taskStatusQueue)) {
-            createProducer(taskStatusQueue);
+        final TaskId taskId = taskStatusUpdate.getTaskId();
+        final String partitionKey = taskStatusUpdate.getPartitionKey() != null ? taskStatusUpdate.getPartitionKey() :
+                getPartitionKey(taskId.getNamespace(), taskId.getWorkflow());
+        final String topic = getTaskStatusTopic(getPartition(partitionKey, taskStatusPartitions));
+        if (!producers.containsKey(topic)) {
+            createProducer(topic);
         }
         try {
-            producers.get(taskStatusQueue).sendInOrder(MAPPER.writeValueAsString(taskStatusUpdate),
+            producers.get(topic).sendInOrder(MAPPER.writeValueAsString(taskStatusUpdate),
                     getOrderingKey(taskStatusUpdate.getTaskId()));
         } catch (IOException e) {
             logger.error("Error serializing task status update {}", taskStatusUpdate, e);
         }
     }
 
+    // partitions other than the first are suffixed by the partition number
+    // so that the topic of an unpartitioned queue remains the same
+    private String getTaskStatusTopic(int partition) {
+        return partition == 0 ? taskStatusQueue : taskStatusQueue + "-" + partition;
+    }
+
     private String getOrderingKey(TaskId taskId) {
         return taskId.getNamespace() + taskId.getWorkflow()
                 + taskId.getJob() + taskId.getName();
@@ -161,21 +197,45 @@ public class QueueService implements Service {
         return tasks;
     }
 
+    public int getTaskStatusPartitions() {
+        return taskStatusPartitions;
+    }
+
+    /**
+     * consumes the task status updates of all the partitions
+     *
+     * @return task status updates
+     * @throws ServiceException
+     */
     public List<TaskStatusUpdate> consumeTaskStatusUpdates() throws ServiceException {
-        logger.debug("Received request to consume task status update");
-        if (!consumers.containsKey(taskStatusQueue)) {
-            createConsumer(taskStatusQueue, taskStatusQueue);
-        }
-        final List<String> records = consumers.get(taskStatusQueue).poll();
-        if (records.isEmpty()) {
-            return Collections.emptyList();
+        final ArrayList<Integer> partitions = new ArrayList<>();
+        for (int partition = 0; partition < taskStatusPartitions; partition++) {
+            partitions.add(partition);
         }
+        return consumeTaskStatusUpdates(partitions);
+    }
+
+    /**
+     * consumes the task status updates of the given partitions
+     *
+     * @param partitions partitions to consume
+     * @return task status updates
+     * @throws ServiceException
+     */
+    public List<TaskStatusUpdate> consumeTaskStatusUpdates(Collection<Integer> partitions) throws ServiceException {
+        logger.debug("Received request to consume task status update of partitions {}", partitions);
         final ArrayList<TaskStatusUpdate> taskStatusUpdates = new ArrayList<>();
-        for (String record : records) {
-            try {
-                taskStatusUpdates.add(MAPPER.readValue(record, TaskStatusUpdate.class));
-            } catch (IOException e) {
-                logger.error("Error parsing record {} to TaskStatusUpdate", record, e);
+        for (Integer partition : partitions) {
+            final String topic = getTaskStatusTopic(partition);
+            if (!consumers.containsKey(topic)) {
+                createConsumer(topic, taskStatusQueue);
+            }
+            for (String record : consumers.get(topic).poll()) {
+                try {
+                    taskStatusUpdates.add(MAPPER.readValue(record, TaskStatusUpdate.class));
+                } catch (IOException e) {
+                    logger.error("Error parsing record {} to TaskStatusUpdate", record, e);
+                }
             }
         }
         return taskStatusUpdates;
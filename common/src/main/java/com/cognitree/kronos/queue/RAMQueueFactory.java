@@ -17,18 +17,23 @@
 
 package com.cognitree.kronos.queue;
 
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * A factory class providing RAM(in-memory) queue for a given type of data
+ * <p>
+ * Records are ordered by their priority, higher first, and then in the order they were added.
+ * </p>
  */
 public class RAMQueueFactory {
 
-    private static final Map<Object, LinkedBlockingQueue<String>> RAM_QUEUE_MAP = new HashMap<>();
+    private static final Map<Object, PriorityBlockingQueue<Record>> RAM_QUEUE_MAP = new HashMap<>();
 
-    public static LinkedBlockingQueue<String> getQueue(String topic) {
+    public static PriorityBlockingQueue<Record> getQueue(String topic) {
         if (!RAM_QUEUE_MAP.containsKey(topic)) {
             createQueue(topic);
         }
@@ -37,7 +42,30 @@ public class RAMQueueFactory {
 
     private synchronized static void createQueue(String topic) {
         if (!RAM_QUEUE_MAP.containsKey(topic)) {
-            RAM_QUEUE_MAP.put(topic, new LinkedBlockingQueue<>());
+            RAM_QUEUE_MAP.put(topic, new PriorityBlockingQueue<>(11, Record.COMPARATOR));
+        }
+    }
+
+    public static final class Record {
+        private static final Comparator<Record> COMPARATOR = Comparator.comparingLong((Record record) -> -record.priority)
+                .thenComparingLong(record -> record.sequence);
+        private static final AtomicLong SEQUENCE = new AtomicLong();
+
+        private final String value;
+        private final long priority;
+        private final long sequence = SEQUENCE.getAndIncrement();
+
+        public Record(String value, long priority) {
+            this.value = value;
+            this.priority = priority;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public long getPriority() {
+            return priority;
         }
     }
 }
@@ -18,18 +18,19 @@
 package com.cognitree.kronos.queue.consumer;
 
 import com.cognitree.kronos.queue.RAMQueueFactory;
+import com.cognitree.kronos.queue.RAMQueueFactory.Record;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.PriorityBlockingQueue;
 
 public class RAMConsumer implements Consumer {
     private static final Logger logger = LoggerFactory.getLogger(RAMConsumer.class);
 
-    private LinkedBlockingQueue<String> blockingQueue;
+    private PriorityBlockingQueue<Record> blockingQueue;
 
     @Override
     public void init(String topic, ObjectNode config) {
@@ -46,8 +47,9 @@ public class RAMConsumer implements Consumer {
     public List<String> poll(int size) {
         logger.trace("Received request to poll {} message", size);
         final List<String> records = new ArrayList<>();
-        while (!blockingQueue.isEmpty() && records.size() < size)
-            records.add(blockingQueue.poll());
+        Record record;
+        while (records.size() < size && (record = blockingQueue.poll()) != null)
+            records.add(record.getValue());
         return records;
     }
 
@@ -40,6 +40,18 @@ public interface Producer {
      */
     void send(String record);
 
+    /**
+     * sends the record to the underlying queue along with its priority.
+     * Consumers backed by a queue supporting priority return records with higher priority first, for others the
+     * record is sent as is.
+     *
+     * @param record   record to send
+     * @param priority priority of the record
+     */
+    default void send(String record, long priority) {
+        send(record);
+    }
+
     /**
      * sends the record to the underlying queue in-order.
      * Records should be consumed in-order by the Consumer.
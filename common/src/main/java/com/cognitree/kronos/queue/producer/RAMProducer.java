@@ -18,16 +18,17 @@
 package com.cognitree.kronos.queue.producer;
 
 import com.cognitree.kronos.queue.RAMQueueFactory;
+import com.cognitree.kronos.queue.RAMQueueFactory.Record;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.PriorityBlockingQueue;
 
 public class RAMProducer implements Producer {
     private static final Logger logger = LoggerFactory.getLogger(RAMProducer.class);
 
-    private LinkedBlockingQueue<String> blockingQueue;
+    private PriorityBlockingQueue<Record> blockingQueue;
 
     @Override
     public void init(String topic, ObjectNode config) {
@@ -45,10 +46,16 @@ public class RAMProducer implements Producer {
         sendInOrder(record, null);
     }
 
+    @Override
+    public void send(String record, long priority) {
+        logger.trace("Received request to send message {} with priority {}", record, priority);
+        blockingQueue.add(new Record(record, priority));
+    }
+
     @Override
     public void sendInOrder(String record, String orderingKey) {
         logger.trace("Received request to send message {} with orderingKey {}", record, orderingKey);
-        blockingQueue.add(record);
+        blockingQueue.add(new Record(record, 0));
     }
 
     @Override
@@ -211,6 +211,7 @@ public final class TaskExecutionService implements Service {
             taskStatusUpdate.setStatus(status);
             taskStatusUpdate.setStatusMessage(statusMessage);
             taskStatusUpdate.setContext(context);
+            taskStatusUpdate.setPartitionKey(QueueService.getPartitionKey(taskId.getNamespace(), taskId.getWorkflow()));
             QueueService.getService(EXECUTOR_QUEUE).send(taskStatusUpdate);
         } catch (ServiceException e) {
             logger.error("Error adding task status {} to queue", status, e);
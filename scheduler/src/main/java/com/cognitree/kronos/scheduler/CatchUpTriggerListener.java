@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cognitree.kronos.scheduler;
+
+import com.cognitree.kronos.scheduler.util.FixedDelayTrigger;
+import com.codahale.metrics.Meter;
+import org.quartz.JobExecutionContext;
+import org.quartz.Trigger;
+import org.quartz.listeners.TriggerListenerSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Date;
+
+/**
+ * Bounds the firings replayed by a trigger after the scheduler was down, applicable to triggers replaying all the
+ * missed firings (misfire instruction ignore misfire policy).
+ * <p>
+ * A firing late by more than the late threshold is vetoed if at least max catch up firings of the trigger were also
+ * missed after it, so that only the latest missed firings are replayed.
+ * </p>
+ */
+final class CatchUpTriggerListener extends TriggerListenerSupport {
+    private static final Logger logger = LoggerFactory.getLogger(CatchUpTriggerListener.class);
+
+    private final int maxCatchUpFirings;
+    private final long lateThresholdInMs;
+    private final Meter skippedFirings;
+
+    CatchUpTriggerListener(int maxCatchUpFirings, long lateThresholdInMs, Meter skippedFirings) {
+        this.maxCatchUpFirings = maxCatchUpFirings;
+        this.lateThresholdInMs = lateThresholdInMs;
+        this.skippedFirings = skippedFirings;
+    }
+
+    @Override
+    public String getName() {
+        return CatchUpTriggerListener.class.getSimpleName();
+    }
+
+    @Override
+    public boolean vetoJobExecution(Trigger trigger, JobExecutionContext context) {
+        // a fixed delay trigger is parked on fire and never replays missed firings
+        if (trigger instanceof FixedDelayTrigger) {
+            return false;
+        }
+        final long currentTimeMillis = System.currentTimeMillis();
+        final Date scheduledFireTime = context.getScheduledFireTime();
+        if (scheduledFireTime == null || currentTimeMillis - scheduledFireTime.getTime() <= lateThresholdInMs) {
+            return false;
+        }
+        int missedFiringsAfter = 0;
+        Date fireTime = trigger.getFireTimeAfter(scheduledFireTime);
+        while (fireTime != null && fireTime.getTime() <= currentTimeMillis && missedFiringsAfter < maxCatchUpFirings) {
+            missedFiringsAfter++;
+            fireTime = trigger.getFireTimeAfter(fireTime);
+        }
+        if (missedFiringsAfter < maxCatchUpFirings) {
+            return false;
+        }
+        logger.info("Skipping missed firing of trigger {} scheduled at {}, {} later firings are yet to be replayed",
+                trigger.getKey(), scheduledFireTime, missedFiringsAfter);
+        skippedFirings.mark();
+        return true;
+    }
+}
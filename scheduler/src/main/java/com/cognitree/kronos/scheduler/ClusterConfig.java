@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cognitree.kronos.scheduler;
+
+import java.util.Objects;
+
+/**
+ * defines configurations for {@link ShardService} coordinating the ownership of the workflows among the scheduler
+ * nodes. Workflows are hashed by namespace and workflow name into the partitions of the task status queue, each
+ * partition is owned by one of the live scheduler nodes.
+ */
+public class ClusterConfig {
+
+    /**
+     * unique id of the scheduler node in the cluster, defaults to a random id generated on start
+     */
+    private String nodeId;
+
+    /**
+     * interval at which the node renews its leases and rebalances the partitions among the live nodes
+     */
+    private long heartbeatIntervalInMs = 5000;
+
+    /**
+     * duration after which the leases of a node failing to renew them expire and its partitions are taken over by
+     * the other nodes, should be a few multiples of the heartbeat interval
+     */
+    private long leaseDurationInMs = 15000;
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public void setNodeId(String nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    public long getHeartbeatIntervalInMs() {
+        return heartbeatIntervalInMs;
+    }
+
+    public void setHeartbeatIntervalInMs(long heartbeatIntervalInMs) {
+        this.heartbeatIntervalInMs = heartbeatIntervalInMs;
+    }
+
+    public long getLeaseDurationInMs() {
+        return leaseDurationInMs;
+    }
+
+    public void setLeaseDurationInMs(long leaseDurationInMs) {
+        this.leaseDurationInMs = leaseDurationInMs;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ClusterConfig)) return false;
+        ClusterConfig that = (ClusterConfig) o;
+        return heartbeatIntervalInMs == that.heartbeatIntervalInMs &&
+                leaseDurationInMs == that.leaseDurationInMs &&
+                Objects.equals(nodeId, that.nodeId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(nodeId, heartbeatIntervalInMs, leaseDurationInMs);
+    }
+
+    @Override
+    public String toString() {
+        return "ClusterConfig{" +
+                "nodeId='" + nodeId + '\'' +
+                ", heartbeatIntervalInMs=" + heartbeatIntervalInMs +
+                ", leaseDurationInMs=" + leaseDurationInMs +
+                '}';
+    }
+}
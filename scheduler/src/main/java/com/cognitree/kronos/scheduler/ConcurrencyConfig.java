@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cognitree.kronos.scheduler;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * defines the limits on number of tasks in flight (scheduled or running) per namespace, per workflow and per task type.
+ * Tasks exceeding any of the limits are held back in the scheduler till the in flight tasks complete.
+ * <p>
+ * A limit of -1 means there is no limit.
+ * </p>
+ */
+public class ConcurrencyConfig {
+
+    /**
+     * max tasks in flight in a namespace, applies to namespaces not configured in {@link #namespaces}
+     */
+    private int maxTasksPerNamespace = -1;
+
+    /**
+     * max tasks in flight for a workflow, applies to workflows not configured in {@link #workflows}
+     */
+    private int maxTasksPerWorkflow = -1;
+
+    /**
+     * max tasks in flight of a task type, applies to task types not configured in {@link #taskTypes}
+     */
+    private int maxTasksPerTaskType = -1;
+
+    /**
+     * max tasks in flight keyed by namespace name
+     */
+    private Map<String, Integer> namespaces = new HashMap<>();
+
+    /**
+     * max tasks in flight keyed by namespace name and then by workflow name
+     */
+    private Map<String, Map<String, Integer>> workflows = new HashMap<>();
+
+    /**
+     * max tasks in flight keyed by task type
+     */
+    private Map<String, Integer> taskTypes = new HashMap<>();
+
+    public int getMaxTasksPerNamespace() {
+        return maxTasksPerNamespace;
+    }
+
+    public void setMaxTasksPerNamespace(int maxTasksPerNamespace) {
+        this.maxTasksPerNamespace = maxTasksPerNamespace;
+    }
+
+    public int getMaxTasksPerWorkflow() {
+        return maxTasksPerWorkflow;
+    }
+
+    public void setMaxTasksPerWorkflow(int maxTasksPerWorkflow) {
+        this.maxTasksPerWorkflow = maxTasksPerWorkflow;
+    }
+
+    public int getMaxTasksPerTaskType() {
+        return maxTasksPerTaskType;
+    }
+
+    public void setMaxTasksPerTaskType(int maxTasksPerTaskType) {
+        this.maxTasksPerTaskType = maxTasksPerTaskType;
+    }
+
+    public Map<String, Integer> getNamespaces() {
+        return namespaces;
+    }
+
+    public void setNamespaces(Map<String, Integer> namespaces) {
+        this.namespaces = namespaces;
+    }
+
+    public Map<String, Map<String, Integer>> getWorkflows() {
+        return workflows;
+    }
+
+    public void setWorkflows(Map<String, Map<String, Integer>> workflows) {
+        this.workflows = workflows;
+    }
+
+    public Map<String, Integer> getTaskTypes() {
+        return taskTypes;
+    }
+
+    public void setTaskTypes(Map<String, Integer> taskTypes) {
+        this.taskTypes = taskTypes;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ConcurrencyConfig)) return false;
+        ConcurrencyConfig that = (ConcurrencyConfig) o;
+        return maxTasksPerNamespace == that.maxTasksPerNamespace &&
+                maxTasksPerWorkflow == that.maxTasksPerWorkflow &&
+                maxTasksPerTaskType == that.maxTasksPerTaskType &&
+                Objects.equals(namespaces, that.namespaces) &&
+                Objects.equals(workflows, that.workflows) &&
+                Objects.equals(taskTypes, that.taskTypes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(maxTasksPerNamespace, maxTasksPerWorkflow, maxTasksPerTaskType,
+                namespaces, workflows, taskTypes);
+    }
+
+    @Override
+    public String toString() {
+        return "ConcurrencyConfig{" +
+                "maxTasksPerNamespace=" + maxTasksPerNamespace +
+                ", maxTasksPerWorkflow=" + maxTasksPerWorkflow +
+                ", maxTasksPerTaskType=" + maxTasksPerTaskType +
+                ", namespaces=" + namespaces +
+                ", workflows=" + workflows +
+                ", taskTypes=" + taskTypes +
+                '}';
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cognitree.kronos.scheduler;
+
+import com.cognitree.kronos.model.Task;
+import com.cognitree.kronos.model.TaskId;
+import com.cognitree.kronos.scheduler.model.ConcurrencyUsage;
+import com.cognitree.kronos.scheduler.model.ConcurrencyUsage.Usage;
+import com.cognitree.kronos.scheduler.model.WorkflowId;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * tracks the number of tasks in flight (scheduled or running) per namespace, per workflow and per task type
+ * and admits a task for dispatch only if it is within the limits defined by {@link ConcurrencyConfig}.
+ * <p>
+ * Tasks in flight are tracked with counters so that admitting and releasing a task is O(1).
+ * </p>
+ */
+final class ConcurrencyLimiter {
+
+    private static final int NO_LIMIT = -1;
+
+    private final ConcurrencyConfig concurrencyConfig;
+    private final Map<String, AtomicInteger> namespaceCounters = new ConcurrentHashMap<>();
+    private final Map<WorkflowId, AtomicInteger> workflowCounters = new ConcurrentHashMap<>();
+    // task type counters are shared across namespaces as the executors are
+    private final Map<String, AtomicInteger> taskTypeCounters = new ConcurrentHashMap<>();
+    // guards against counting a task twice or releasing a task which was never admitted
+    private final Set<TaskId> inFlightTasks = ConcurrentHashMap.newKeySet();
+
+    ConcurrencyLimiter(ConcurrencyConfig concurrencyConfig) {
+        this.concurrencyConfig = concurrencyConfig == null ? new ConcurrencyConfig() : concurrencyConfig;
+    }
+
+    /**
+     * admits the task for dispatch if it is within the limits
+     *
+     * @param task task to admit
+     * @return true if the task is admitted, false if any of the limits is reached
+     */
+    boolean tryAcquire(Task task) {
+        if (inFlightTasks.contains(task.getIdentity())) {
+            return true;
+        }
+        final AtomicInteger namespaceCounter = getNamespaceCounter(task);
+        if (!tryIncrement(namespaceCounter, getNamespaceLimit(task.getNamespace()))) {
+            return false;
+        }
+        final AtomicInteger workflowCounter = getWorkflowCounter(task);
+        if (!tryIncrement(workflowCounter, getWorkflowLimit(task.getNamespace(), task.getWorkflow()))) {
+            namespaceCounter.decrementAndGet();
+            return false;
+        }
+        final AtomicInteger taskTypeCounter = getTaskTypeCounter(task);
+        if (!tryIncrement(taskTypeCounter, getTaskTypeLimit(task.getType()))) {
+            workflowCounter.decrementAndGet();
+            namespaceCounter.decrementAndGet();
+            return false;
+        }
+        if (!inFlightTasks.add(task.getIdentity())) {
+            // admitted concurrently by another thread
+            release(namespaceCounter, workflowCounter, taskTypeCounter);
+        }
+        return true;
+    }
+
+    /**
+     * admits the task irrespective of the limits, used to account for the tasks already in flight on restart
+     *
+     * @param task task to admit
+     */
+    void acquire(Task task) {
+        if (inFlightTasks.add(task.getIdentity())) {
+            getNamespaceCounter(task).incrementAndGet();
+            getWorkflowCounter(task).incrementAndGet();
+            getTaskTypeCounter(task).incrementAndGet();
+        }
+    }
+
+    /**
+     * releases the slots held by the task, no-op if the task was not admitted
+     *
+     * @param task task to release
+     * @return true if the slots held by the task are released
+     */
+    boolean release(Task task) {
+        if (!inFlightTasks.remove(task.getIdentity())) {
+            return false;
+        }
+        release(getNamespaceCounter(task), getWorkflowCounter(task), getTaskTypeCounter(task));
+        return true;
+    }
+
+    ConcurrencyUsage getUsage(String namespace) {
+        final ConcurrencyUsage concurrencyUsage = new ConcurrencyUsage();
+        concurrencyUsage.setNamespace(Usage.build(getCount(namespaceCounters.get(namespace)),
+                getNamespaceLimit(namespace)));
+        workflowCounters.forEach((workflowId, counter) -> {
+            if (workflowId.getNamespace().equals(namespace)) {
+                concurrencyUsage.getWorkflows().put(workflowId.getName(),
+                        Usage.build(counter.get(), getWorkflowLimit(namespace, workflowId.getName())));
+            }
+        });
+        taskTypeCounters.forEach((type, counter) ->
+                concurrencyUsage.getTaskTypes().put(type, Usage.build(counter.get(), getTaskTypeLimit(type))));
+        return concurrencyUsage;
+    }
+
+    private AtomicInteger getNamespaceCounter(Task task) {
+        return namespaceCounters.computeIfAbsent(task.getNamespace(), namespace -> new AtomicInteger());
+    }
+
+    private AtomicInteger getWorkflowCounter(Task task) {
+        return workflowCounters.computeIfAbsent(WorkflowId.build(task.getNamespace(), task.getWorkflow()),
+                workflowId -> new AtomicInteger());
+    }
+
+    private AtomicInteger getTaskTypeCounter(Task task) {
+        return taskTypeCounters.computeIfAbsent(task.getType(), type -> new AtomicInteger());
+    }
+
+    private int getNamespaceLimit(String namespace) {
+        return concurrencyConfig.getNamespaces()
+                .getOrDefault(namespace, concurrencyConfig.getMaxTasksPerNamespace());
+    }
+
+    private int getWorkflowLimit(String namespace, String workflow) {
+        return concurrencyConfig.getWorkflows().getOrDefault(namespace, Collections.emptyMap())
+                .getOrDefault(workflow, concurrencyConfig.getMaxTasksPerWorkflow());
+    }
+
+    private int getTaskTypeLimit(String type) {
+        return concurrencyConfig.getTaskTypes().getOrDefault(type, concurrencyConfig.getMaxTasksPerTaskType());
+    }
+
+    private static boolean tryIncrement(AtomicInteger counter, int limit) {
+        while (true) {
+            final int count = counter.get();
+            if (limit != NO_LIMIT && count >= limit) {
+                return false;
+            }
+            if (counter.compareAndSet(count, count + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private static void release(AtomicInteger... counters) {
+        for (AtomicInteger counter : counters) {
+            counter.decrementAndGet();
+        }
+    }
+
+    private static int getCount(AtomicInteger counter) {
+        return counter == null ? 0 : counter.get();
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cognitree.kronos.scheduler;
+
+import com.cognitree.kronos.scheduler.model.ExecutionForecast;
+import com.cognitree.kronos.scheduler.model.ExecutionForecast.Slot;
+import org.quartz.Trigger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Comparator;
+import java.util.Date;
+import java.util.PriorityQueue;
+
+/**
+ * forecasts the jobs and tasks running concurrently over a time window.
+ * <p>
+ * The fire times of all the triggers added are streamed in time order by merging them with a priority queue, each
+ * fire time is expected to run a job for its estimated duration. Jobs running within a slot are accumulated into a
+ * difference array so that a job costs O(1) irrespective of the number of slots it spans.
+ * </p>
+ */
+final class ExecutionForecaster {
+    private static final Logger logger = LoggerFactory.getLogger(ExecutionForecaster.class);
+
+    // guards against triggers firing at a very high frequency
+    static final int MAX_FIRE_TIMES_PER_TRIGGER = 100000;
+
+    private final long from;
+    private final long to;
+    private final long slotDurationInMs;
+    private final int[] jobDeltas;
+    private final int[] taskDeltas;
+    private final PriorityQueue<FireTimeCursor> cursors =
+            new PriorityQueue<>(Comparator.comparingLong(cursor -> cursor.nextFireTime));
+
+    ExecutionForecaster(long from, long to, long slotDurationInMs) {
+        this.from = from;
+        this.to = to;
+        this.slotDurationInMs = slotDurationInMs;
+        final int slotCount = (int) ((to - from + slotDurationInMs - 1) / slotDurationInMs);
+        this.jobDeltas = new int[slotCount + 1];
+        this.taskDeltas = new int[slotCount + 1];
+    }
+
+    /**
+     * adds a trigger firing as per its schedule, jobs fired before the window and still running within it are included
+     */
+    void add(Trigger trigger, long jobDurationInMs, int tasksPerJob) {
+        final Date firstFireTime = trigger.getFireTimeAfter(new Date(from - jobDurationInMs - 1));
+        if (firstFireTime != null) {
+            cursors.add(new FireTimeCursor(trigger, firstFireTime.getTime(), 0, jobDurationInMs, tasksPerJob));
+        }
+    }
+
+    /**
+     * adds a fixed delay trigger, each subsequent fire time follows the completion of the previous job by the interval
+     */
+    void addFixedDelay(long firstFireTime, long intervalInMs, long jobDurationInMs, int tasksPerJob) {
+        cursors.add(new FireTimeCursor(null, firstFireTime, intervalInMs, jobDurationInMs, tasksPerJob));
+    }
+
+    ExecutionForecast forecast() {
+        while (!cursors.isEmpty() && cursors.peek().nextFireTime < to) {
+            final FireTimeCursor cursor = cursors.poll();
+            record(cursor.nextFireTime, cursor.jobDurationInMs, cursor.tasksPerJob);
+            if (++cursor.fireCount >= MAX_FIRE_TIMES_PER_TRIGGER) {
+                logger.warn("Trigger {} exceeds {} fire times in the forecast window, skipping its further fire times",
+                        cursor.trigger != null ? cursor.trigger.getKey() : "with fixed delay", MAX_FIRE_TIMES_PER_TRIGGER);
+                continue;
+            }
+            if (cursor.advance()) {
+                cursors.add(cursor);
+            }
+        }
+        final ExecutionForecast executionForecast = new ExecutionForecast();
+        executionForecast.setFrom(from);
+        executionForecast.setTo(to);
+        executionForecast.setSlotDurationInMs(slotDurationInMs);
+        int jobs = 0;
+        int tasks = 0;
+        for (int slot = 0; slot < jobDeltas.length - 1; slot++) {
+            jobs += jobDeltas[slot];
+            tasks += taskDeltas[slot];
+            executionForecast.getSlots().add(Slot.build(from + slot * slotDurationInMs, jobs, tasks));
+        }
+        return executionForecast;
+    }
+
+    private void record(long startTime, long durationInMs, int tasks) {
+        final long endTime = startTime + Math.max(1, durationInMs);
+        if (endTime <= from || startTime >= to) {
+            return;
+        }
+        final int startSlot = (int) (Math.max(0, startTime - from) / slotDurationInMs);
+        final int endSlot = (int) Math.min(jobDeltas.length - 1, (endTime - 1 - from) / slotDurationInMs + 1);
+        jobDeltas[startSlot]++;
+        jobDeltas[endSlot]--;
+        taskDeltas[startSlot] += tasks;
+        taskDeltas[endSlot] -= tasks;
+    }
+
+    private static final class FireTimeCursor {
+        private final Trigger trigger;
+        private final long fixedDelayInMs;
+        private final long jobDurationInMs;
+        private final int tasksPerJob;
+        private long nextFireTime;
+        private int fireCount;
+
+        private FireTimeCursor(Trigger trigger, long nextFireTime, long fixedDelayInMs, long jobDurationInMs,
+                               int tasksPerJob) {
+            this.trigger = trigger;
+            this.nextFireTime = nextFireTime;
+            this.fixedDelayInMs = fixedDelayInMs;
+            this.jobDurationInMs = jobDurationInMs;
+            this.tasksPerJob = tasksPerJob;
+        }
+
+        /**
+         * @return false if the trigger will not fire again
+         */
+        private boolean advance() {
+            if (trigger == null) {
+                nextFireTime += jobDurationInMs + fixedDelayInMs;
+                return true;
+            }
+            final Date fireTime = trigger.getFireTimeAfter(new Date(nextFireTime));
+            if (fireTime == null) {
+                return false;
+            }
+            nextFireTime = fireTime.getTime();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cognitree.kronos.scheduler;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.function.Predicate;
+
+/**
+ * orders elements for dispatch in a weighted fair share across namespaces and then in an equal share across
+ * workflows of a namespace. Elements of a workflow are dispatched in a round robin fashion.
+ * <p>
+ * Ordering is done using stride scheduling, a deterministic variant of weighted deficit round robin. Every namespace
+ * and workflow carries a pass which is advanced by its stride (inverse of its weight) each time it is picked and the
+ * one with the smallest pass is picked next. Adding and polling an element costs O(log n) in the number of
+ * namespaces and workflows having elements queued.
+ * </p>
+ * <p>
+ * The queue is meant to outlive a dispatch round. Namespaces and workflows running out of elements keep their pass
+ * as long as it is ahead of the pass of the last picked one, so that an element added back in a later round re-enters
+ * at its own pass and the weights hold even when a single element is dispatched per round. A namespace or workflow
+ * is charged only for the elements accepted by the dispatcher, elements rejected for lack of capacity do not count
+ * against its share.
+ * </p>
+ * <p>
+ * Not thread safe, callers are expected to guard a dispatch round with a lock.
+ * </p>
+ */
+final class FairShareQueue<E> {
+
+    private final PriorityQueue<NamespaceEntry> namespaceQueue = new PriorityQueue<>(Entry.COMPARATOR);
+    private final Map<String, NamespaceEntry> namespaceEntries = new HashMap<>();
+    // pass of the last picked namespace, namespaces becoming active start from here instead of catching up
+    private double virtualTime;
+    private long sequence;
+    private int size;
+
+    /**
+     * @param namespace namespace of the element
+     * @param weight    weight of the namespace, a namespace with weight 2 gets twice the share of a namespace with
+     *                  weight 1
+     * @param workflow  workflow of the element
+     * @param element   element to add
+     */
+    void add(String namespace, int weight, String workflow, E element) {
+        NamespaceEntry namespaceEntry = namespaceEntries.get(namespace);
+        if (namespaceEntry == null) {
+            namespaceEntry = new NamespaceEntry(virtualTime, sequence++);
+            namespaceEntries.put(namespace, namespaceEntry);
+            namespaceQueue.add(namespaceEntry);
+        } else if (namespaceEntry.isEmpty()) {
+            namespaceEntry.pass = Math.max(namespaceEntry.pass, virtualTime);
+            namespaceEntry.sequence = sequence++;
+            namespaceQueue.add(namespaceEntry);
+        }
+        namespaceEntry.stride = 1.0 / Math.max(1, weight);
+        namespaceEntry.add(workflow, element, sequence++);
+        size++;
+    }
+
+    /**
+     * @return next element to dispatch or null if the queue is empty
+     */
+    E poll() {
+        return poll(element -> true);
+    }
+
+    /**
+     * removes the next element and hands it to the dispatcher. Its namespace and workflow are charged only if the
+     * dispatcher accepts it.
+     *
+     * @param dispatcher returns true if the element was dispatched
+     * @return next element or null if the queue is empty
+     */
+    E poll(Predicate<? super E> dispatcher) {
+        final NamespaceEntry namespaceEntry = namespaceQueue.poll();
+        if (namespaceEntry == null) {
+            return null;
+        }
+        final WorkflowEntry workflowEntry = namespaceEntry.workflowQueue.poll();
+        final E element = workflowEntry.elements.poll();
+        size--;
+        boolean dispatched = false;
+        try {
+            dispatched = dispatcher.test(element);
+        } finally {
+            if (dispatched) {
+                virtualTime = namespaceEntry.pass;
+                namespaceEntry.pass += namespaceEntry.stride;
+                namespaceEntry.sequence = sequence++;
+                namespaceEntry.virtualTime = workflowEntry.pass;
+                workflowEntry.pass += 1;
+                workflowEntry.sequence = sequence++;
+            }
+            if (!workflowEntry.elements.isEmpty()) {
+                namespaceEntry.workflowQueue.add(workflowEntry);
+            }
+            if (!namespaceEntry.isEmpty()) {
+                namespaceQueue.add(namespaceEntry);
+            }
+            if (size == 0) {
+                trim();
+            }
+        }
+        return element;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    // drops drained namespaces and workflows which are not ahead of the last picked one, they would re-enter at the
+    // virtual time anyway and keeping them would leak entries of deleted namespaces and workflows
+    private void trim() {
+        namespaceEntries.values().removeIf(namespaceEntry -> namespaceEntry.pass <= virtualTime);
+        namespaceEntries.values().forEach(namespaceEntry -> namespaceEntry.workflowEntries.values()
+                .removeIf(workflowEntry -> workflowEntry.pass <= namespaceEntry.virtualTime));
+    }
+
+    private static abstract class Entry {
+        private static final Comparator<Entry> COMPARATOR =
+                Comparator.<Entry>comparingDouble(entry -> entry.pass).thenComparingLong(entry -> entry.sequence);
+
+        double pass;
+        // breaks ties between entries with same pass in the order they were queued
+        long sequence;
+
+        Entry(double pass, long sequence) {
+            this.pass = pass;
+            this.sequence = sequence;
+        }
+    }
+
+    private final class NamespaceEntry extends Entry {
+        private final PriorityQueue<WorkflowEntry> workflowQueue = new PriorityQueue<>(Entry.COMPARATOR);
+        private final Map<String, WorkflowEntry> workflowEntries = new HashMap<>();
+        private double stride = 1;
+        private double virtualTime;
+
+        NamespaceEntry(double pass, long sequence) {
+            super(pass, sequence);
+        }
+
+        void add(String workflow, E element, long sequence) {
+            WorkflowEntry workflowEntry = workflowEntries.get(workflow);
+            if (workflowEntry == null) {
+                workflowEntry = new WorkflowEntry(virtualTime, sequence);
+                workflowEntries.put(workflow, workflowEntry);
+                workflowQueue.add(workflowEntry);
+            } else if (workflowEntry.elements.isEmpty()) {
+                workflowEntry.pass = Math.max(workflowEntry.pass, virtualTime);
+                workflowEntry.sequence = sequence;
+                workflowQueue.add(workflowEntry);
+            }
+            workflowEntry.elements.add(element);
+        }
+
+        boolean isEmpty() {
+            return workflowQueue.isEmpty();
+        }
+    }
+
+    private final class WorkflowEntry extends Entry {
+        private final Queue<E> elements = new ArrayDeque<>();
+
+        WorkflowEntry(double pass, long sequence) {
+            super(pass, sequence);
+        }
+    }
+}
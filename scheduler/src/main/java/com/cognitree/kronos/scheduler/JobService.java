@@ -21,6 +21,7 @@ import com.cognitree.kronos.Service;
 import com.cognitree.kronos.ServiceException;
 import com.cognitree.kronos.ServiceProvider;
 import com.cognitree.kronos.model.Task;
+import com.cognitree.kronos.scheduler.ListenerConfig.OverflowPolicy;
 import com.cognitree.kronos.scheduler.model.Job;
 import com.cognitree.kronos.scheduler.model.Job.Status;
 import com.cognitree.kronos.scheduler.model.JobId;
@@ -34,10 +35,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.UUID;
 
 import static com.cognitree.kronos.model.Task.Status.SCHEDULED;
@@ -49,9 +48,13 @@ import static com.cognitree.kronos.scheduler.ValidationError.WORKFLOW_NOT_FOUND;
 public class JobService implements Service {
     private static final Logger logger = LoggerFactory.getLogger(JobService.class);
 
-    private final Set<JobStatusChangeListener> statusChangeListeners = new HashSet<>();
+    private final ListenerEventBus<JobStatusChangeListener> statusChangeEventBus;
     private JobStore jobStore;
 
+    public JobService(ListenerConfig listenerConfig) {
+        statusChangeEventBus = new ListenerEventBus<>("job-status-change", listenerConfig);
+    }
+
     public static JobService getService() {
         return (JobService) ServiceProvider.getService(JobService.class.getSimpleName());
     }
@@ -69,10 +72,13 @@ public class JobService implements Service {
         ServiceProvider.registerService(this);
     }
 
-    Job create(String namespace, String workflowName, String triggerName) throws ServiceException, ValidationException {
+    /**
+     * creates a job for the workflow. Internal entry point for the scheduler, the workflow is expected to exist and
+     * is not validated.
+     */
+    Job create(String namespace, String workflowName, String triggerName) throws ServiceException {
         logger.info("Received request to create job from workflow {}, trigger {} under namespace {}",
                 workflowName, triggerName, namespace);
-        validateWorkflow(namespace, workflowName);
         final Job job = new Job();
         job.setId(UUID.randomUUID().toString());
         job.setWorkflow(workflowName);
@@ -95,7 +101,18 @@ public class JobService implements Service {
      * @param statusChangeListener
      */
     public void registerListener(JobStatusChangeListener statusChangeListener) {
-        statusChangeListeners.add(statusChangeListener);
+        statusChangeEventBus.register(statusChangeListener);
+    }
+
+    /**
+     * register a listener to receive job status change notifications, notifications overflowing the listener queue
+     * are handled as per the given policy instead of the configured one
+     *
+     * @param statusChangeListener
+     * @param overflowPolicy
+     */
+    public void registerListener(JobStatusChangeListener statusChangeListener, OverflowPolicy overflowPolicy) {
+        statusChangeEventBus.register(statusChangeListener, overflowPolicy);
     }
 
     /**
@@ -104,7 +121,7 @@ public class JobService implements Service {
      * @param statusChangeListener
      */
     public void deregisterListener(JobStatusChangeListener statusChangeListener) {
-        statusChangeListeners.remove(statusChangeListener);
+        statusChangeEventBus.deregister(statusChangeListener);
     }
 
     public List<Job> get(String namespace) throws ServiceException, ValidationException {
@@ -122,6 +139,14 @@ public class JobService implements Service {
     public Job get(JobId jobId) throws ServiceException, ValidationException {
         logger.debug("Received request to get job {}", jobId);
         validateWorkflow(jobId.getNamespace(), jobId.getWorkflow());
+        return load(jobId);
+    }
+
+    /**
+     * loads the job skipping the validation of its namespace and workflow. Internal entry point for the scheduler
+     * and the listeners handling ids known to exist.
+     */
+    Job load(JobId jobId) throws ServiceException {
         try {
             return jobStore.load(jobId);
         } catch (StoreException e) {
@@ -212,6 +237,15 @@ public class JobService implements Service {
                         "under namespace {} created between {} to {}",
                 workflowName, triggerName, statuses, namespace, createdAfter, createdBefore);
         validateWorkflow(namespace, workflowName);
+        return load(namespace, workflowName, triggerName, statuses, createdAfter, createdBefore);
+    }
+
+    /**
+     * loads the jobs of the workflow trigger skipping the validation of its workflow. Internal entry point for the
+     * scheduler handling triggers known to exist.
+     */
+    List<Job> load(String namespace, String workflowName, String triggerName, List<Status> statuses,
+                   long createdAfter, long createdBefore) throws ServiceException {
         try {
             final List<Job> jobs =
                     jobStore.loadByWorkflowNameAndTriggerNameAndStatus(namespace, workflowName, triggerName, statuses,
@@ -264,11 +298,16 @@ public class JobService implements Service {
         }
     }
 
-    void updateStatus(JobId jobId, Status status) throws ServiceException, ValidationException {
+    /**
+     * updates the status of the job. Internal entry point for the scheduler, the namespace and the workflow of the
+     * job are not validated.
+     *
+     * @return the updated job
+     */
+    Job updateStatus(JobId jobId, Status status) throws ServiceException, ValidationException {
         logger.info("Received request to update job {} status to {}", jobId, status);
-        validateWorkflow(jobId.getNamespace(), jobId.getWorkflow());
         try {
-            final Job job = get(jobId);
+            final Job job = load(jobId);
             if (job == null) {
                 throw JOB_NOT_FOUND.createException(jobId.getId(), jobId.getWorkflow(), jobId.getNamespace());
             }
@@ -287,6 +326,7 @@ public class JobService implements Service {
             }
             jobStore.update(job);
             notifyListeners(job, currentStatus, status);
+            return job;
         } catch (StoreException e) {
             logger.error("unable to update job {} status to {}", jobId, status, e);
             throw new ServiceException(e.getMessage(), e.getCause());
@@ -294,7 +334,7 @@ public class JobService implements Service {
     }
 
     private void notifyListeners(Job job, Job.Status from, Job.Status to) {
-        statusChangeListeners.forEach(listener -> {
+        statusChangeEventBus.publish(job.getId(), listener -> {
             try {
                 listener.statusChanged(job, from, to);
             } catch (Exception e) {
@@ -320,12 +360,12 @@ public class JobService implements Service {
             return;
         }
         final List<Task> tasks =
-                TaskService.getService().get(jobId.getNamespace(), jobId.getId(), job.getWorkflow());
+                TaskService.getService().load(jobId.getNamespace(), jobId.getId(), job.getWorkflow());
         if (tasks.stream().anyMatch(task -> task.getStatus() == SCHEDULED)) {
             throw CANNOT_ABORT_JOB_WITH_SCHEDULED_TASK.createException();
         }
         for (Task task : tasks) {
-            TaskService.getService().abortTask(task);
+            TaskService.getService().abort(task);
         }
     }
 
@@ -370,5 +410,6 @@ public class JobService implements Service {
     @Override
     public void stop() {
         logger.info("Stopping job service");
+        statusChangeEventBus.stop();
     }
 }
\ No newline at end of file
@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cognitree.kronos.scheduler;
+
+import com.cognitree.kronos.model.Task.Status;
+
+import static com.cognitree.kronos.model.Task.Status.SUCCESSFUL;
+
+/**
+ * counts the tasks of a job, the tasks in final state and the successful tasks. Kept up to date on each task status
+ * transition so that the completion and the status of a job is known without loading its tasks.
+ * <p>
+ * Updated on the job event loop and read by the workflow lifecycle handler, the counts are guarded by the instance
+ * lock so that a reader never sees the completed count of a transition without its successful count.
+ * </p>
+ */
+final class JobTaskCounters {
+
+    private int total;
+    private int completed;
+    private int successful;
+
+    synchronized void taskAdded(Status status) {
+        total++;
+        statusChanged(null, status);
+    }
+
+    synchronized void statusChanged(Status from, Status to) {
+        completed += (isFinal(to) ? 1 : 0) - (isFinal(from) ? 1 : 0);
+        successful += (to == SUCCESSFUL ? 1 : 0) - (from == SUCCESSFUL ? 1 : 0);
+    }
+
+    synchronized int getTotal() {
+        return total;
+    }
+
+    synchronized int getCompleted() {
+        return completed;
+    }
+
+    synchronized int getSuccessful() {
+        return successful;
+    }
+
+    /**
+     * @return true if the job has tasks and all of them are in final state
+     */
+    synchronized boolean isComplete() {
+        return total > 0 && completed == total;
+    }
+
+    /**
+     * @return true if the job has tasks and all of them are successful
+     */
+    synchronized boolean isSuccessful() {
+        return total > 0 && successful == total;
+    }
+
+    private static boolean isFinal(Status status) {
+        return status != null && status.isFinal();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "JobTaskCounters{" +
+                "total=" + total +
+                ", completed=" + completed +
+                ", successful=" + successful +
+                '}';
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cognitree.kronos.scheduler;
+
+import java.util.Objects;
+
+/**
+ * defines how the task and job status change notifications are dispatched to the registered listeners.
+ * <p>
+ * Each listener is fed by its own bounded queues drained by dedicated threads, so that a slow listener does not hold
+ * back the scheduler or the other listeners. Notifications belonging to the same job are always delivered to a
+ * listener in the order they were published.
+ * </p>
+ */
+public class ListenerConfig {
+
+    /**
+     * max notifications queued per listener thread
+     */
+    private int queueCapacity = 10000;
+
+    /**
+     * number of threads delivering notifications to a listener, notifications are partitioned across the threads
+     * by job
+     */
+    private int threadsPerListener = 1;
+
+    /**
+     * action to take when a notification is published and the listener queue is full, applies to the listeners not
+     * registered with their own policy. Listeners the scheduler relies on to complete the jobs never drop
+     * notifications.
+     */
+    private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getThreadsPerListener() {
+        return threadsPerListener;
+    }
+
+    public void setThreadsPerListener(int threadsPerListener) {
+        this.threadsPerListener = threadsPerListener;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ListenerConfig)) return false;
+        ListenerConfig that = (ListenerConfig) o;
+        return queueCapacity == that.queueCapacity &&
+                threadsPerListener == that.threadsPerListener &&
+                overflowPolicy == that.overflowPolicy;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(queueCapacity, threadsPerListener, overflowPolicy);
+    }
+
+    @Override
+    public String toString() {
+        return "ListenerConfig{" +
+                "queueCapacity=" + queueCapacity +
+                ", threadsPerListener=" + threadsPerListener +
+                ", overflowPolicy=" + overflowPolicy +
+                '}';
+    }
+
+    public enum OverflowPolicy {
+        /**
+         * wait for the listener to make room in the queue, preserves all notifications and their order unless the
+         * listener publishes to its own full queue, in which case the notification is delivered on the spot
+         */
+        BLOCK,
+        /**
+         * discard the notification, the number of notifications dropped is reported as a metric
+         */
+        DROP,
+        /**
+         * deliver the notification on the publishing thread, preserves all notifications but not their order
+         */
+        CALLER_RUNS
+    }
+}
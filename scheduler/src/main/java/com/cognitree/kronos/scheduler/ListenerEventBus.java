@@ -0,0 +1,270 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cognitree.kronos.scheduler;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.cognitree.kronos.scheduler.ListenerConfig.OverflowPolicy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Dispatches notifications to the registered listeners asynchronously.
+ * <p>
+ * Each listener is fed by {@link ListenerConfig#getThreadsPerListener()} bounded queues, each drained by a dedicated
+ * thread. Notifications are partitioned across the queues by a key, so the notifications published for a key are
+ * delivered to a listener in the order they were published. When a queue is full the notification is handled as
+ * per the {@link OverflowPolicy} the listener is registered with, or the configured one if none.
+ * </p>
+ * <p>
+ * Order is not preserved for the notifications delivered on the publishing thread, they are delivered ahead of the
+ * notifications already queued for the same key. This happens on a full queue under
+ * {@link OverflowPolicy#CALLER_RUNS}, and under any policy when the delivery thread of a queue publishes to its own
+ * full queue as waiting on it would never make room for the notification.
+ * </p>
+ * <p>
+ * Queue depth, delivery latency and dropped notifications are published per listener to the
+ * {@link SchedulerMetrics} registry.
+ * </p>
+ *
+ * @param <L> type of the listener
+ */
+final class ListenerEventBus<L> {
+    private static final Logger logger = LoggerFactory.getLogger(ListenerEventBus.class);
+
+    static final String LISTENERS_METRIC_PREFIX = "kronos.scheduler.listeners";
+
+    private final String name;
+    private final ListenerConfig listenerConfig;
+    private final Map<L, Subscriber> subscribers = new ConcurrentHashMap<>();
+
+    /**
+     * @param name           name of the event bus, used to name the delivery threads and the metrics
+     * @param listenerConfig configuration of the listener queues
+     */
+    ListenerEventBus(String name, ListenerConfig listenerConfig) {
+        if (listenerConfig.getQueueCapacity() <= 0) {
+            throw new IllegalArgumentException("queue capacity must be greater than 0: " +
+                    listenerConfig.getQueueCapacity());
+        }
+        if (listenerConfig.getThreadsPerListener() <= 0) {
+            throw new IllegalArgumentException("threads per listener must be greater than 0: " +
+                    listenerConfig.getThreadsPerListener());
+        }
+        this.name = name;
+        this.listenerConfig = listenerConfig;
+    }
+
+    void register(L listener) {
+        register(listener, listenerConfig.getOverflowPolicy());
+    }
+
+    /**
+     * registers the listener handling the notifications overflowing its queues as per the given policy instead of
+     * the configured one
+     */
+    void register(L listener, OverflowPolicy overflowPolicy) {
+        subscribers.computeIfAbsent(listener, key -> new Subscriber(key, overflowPolicy));
+    }
+
+    /**
+     * deregisters the listener once the notifications already queued for it are delivered
+     */
+    void deregister(L listener) {
+        final Subscriber subscriber = subscribers.remove(listener);
+        if (subscriber != null) {
+            subscriber.stop();
+        }
+    }
+
+    /**
+     * publishes a notification to all the registered listeners
+     *
+     * @param key          key the notification belongs to, notifications with the same key are delivered in order
+     * @param notification notification to deliver to a listener
+     */
+    void publish(Object key, Consumer<L> notification) {
+        for (Subscriber subscriber : subscribers.values()) {
+            subscriber.publish(key, notification);
+        }
+    }
+
+    /**
+     * deregisters all the listeners once the notifications already queued are delivered
+     */
+    void stop() {
+        for (L listener : new ArrayList<>(subscribers.keySet())) {
+            deregister(listener);
+        }
+    }
+
+    private static final class Notification<L> {
+        private final Consumer<L> delivery;
+        private final long publishedAt;
+
+        private Notification(Consumer<L> delivery, long publishedAt) {
+            this.delivery = delivery;
+            this.publishedAt = publishedAt;
+        }
+    }
+
+    private final class Subscriber {
+        // queued to stop the delivery threads once the notifications queued before it are delivered
+        private final Notification<L> stopNotification = new Notification<>(null, 0);
+
+        private final L listener;
+        private final OverflowPolicy overflowPolicy;
+        private final String metricPrefix;
+        private final List<Partition> partitions = new ArrayList<>();
+        private final Timer latency;
+        private final Meter dropped;
+
+        private Subscriber(L listener, OverflowPolicy overflowPolicy) {
+            this.listener = listener;
+            this.overflowPolicy = overflowPolicy;
+            final String listenerName = listener.getClass().getSimpleName().isEmpty() ?
+                    listener.getClass().getName() : listener.getClass().getSimpleName();
+            metricPrefix = name(LISTENERS_METRIC_PREFIX, name, listenerName);
+            final MetricRegistry metricRegistry = SchedulerMetrics.getRegistry();
+            latency = metricRegistry.timer(name(metricPrefix, "latency"));
+            dropped = metricRegistry.meter(name(metricPrefix, "dropped"));
+            metricRegistry.remove(name(metricPrefix, "queue.size"));
+            metricRegistry.register(name(metricPrefix, "queue.size"), (Gauge<Integer>) this::size);
+
+            for (int i = 0; i < listenerConfig.getThreadsPerListener(); i++) {
+                final Partition partition = new Partition(name + "-" + listenerName + "-" + i);
+                partitions.add(partition);
+                partition.thread.start();
+            }
+        }
+
+        private void publish(Object key, Consumer<L> delivery) {
+            final Partition partition = getPartition(key);
+            final Notification<L> notification = new Notification<>(delivery, System.nanoTime());
+            if (partition.queue.offer(notification)) {
+                return;
+            }
+            // the delivery thread waiting on its own queue would never make room for the notification
+            if (overflowPolicy == OverflowPolicy.CALLER_RUNS ||
+                    Thread.currentThread() == partition.thread) {
+                deliver(notification);
+                return;
+            }
+            if (overflowPolicy == OverflowPolicy.DROP) {
+                dropped.mark();
+                logger.warn("Queue for listener {} is full, dropping notification", listener);
+                return;
+            }
+            try {
+                partition.queue.put(notification);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                dropped.mark();
+                logger.error("Interrupted waiting on queue for listener {}, dropping notification", listener);
+            }
+        }
+
+        private void deliver(Notification<L> notification) {
+            try {
+                notification.delivery.accept(listener);
+            } catch (Throwable t) {
+                logger.error("Error delivering notification to listener {}", listener, t);
+            } finally {
+                latency.update(System.nanoTime() - notification.publishedAt, NANOSECONDS);
+            }
+        }
+
+        private int size() {
+            int size = 0;
+            for (Partition partition : partitions) {
+                size += partition.queue.size();
+            }
+            return size;
+        }
+
+        private Partition getPartition(Object key) {
+            final int hash = key.hashCode();
+            return partitions.get(((hash ^ (hash >>> 16)) & Integer.MAX_VALUE) % partitions.size());
+        }
+
+        private void stop() {
+            for (Partition partition : partitions) {
+                try {
+                    partition.queue.put(stopNotification);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    partition.thread.interrupt();
+                }
+            }
+            for (Partition partition : partitions) {
+                if (partition.thread == Thread.currentThread()) {
+                    continue;
+                }
+                try {
+                    partition.thread.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    logger.error("Interrupted waiting for listener {} to stop", listener);
+                    break;
+                }
+            }
+            SchedulerMetrics.getRegistry().removeMatching((name, metric) -> name.startsWith(metricPrefix + "."));
+        }
+
+        private final class Partition implements Runnable {
+            private final BlockingQueue<Notification<L>> queue =
+                    new ArrayBlockingQueue<>(listenerConfig.getQueueCapacity());
+            private final Thread thread;
+
+            private Partition(String name) {
+                thread = new Thread(this, name);
+                thread.setDaemon(true);
+            }
+
+            @Override
+            public void run() {
+                while (true) {
+                    final Notification<L> notification;
+                    try {
+                        notification = queue.take();
+                    } catch (InterruptedException e) {
+                        logger.error("Interrupted delivering notifications to listener {}", listener);
+                        return;
+                    }
+                    if (notification == stopNotification) {
+                        return;
+                    }
+                    deliver(notification);
+                }
+            }
+        }
+    }
+}
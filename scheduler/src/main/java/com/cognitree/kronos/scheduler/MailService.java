@@ -138,13 +138,13 @@ public class MailService implements Service {
         public void statusChanged(JobId jobId, Job.Status from, Job.Status to) {
             if (to.isFinal()) {
                 try {
-                    Job job = JobService.getService().get(jobId);
+                    Job job = JobService.getService().load(jobId);
                     if (job == null) {
                         logger.error("Received status change notification for job {}, which does not exists", jobId);
                         return;
                     }
                     notifyJobCompletion(job, to);
-                } catch (ServiceException | ValidationException e) {
+                } catch (ServiceException e) {
                     logger.error("Error handling job {} status change from {}, to {}", jobId, from, to, e);
                 }
             }
@@ -152,7 +152,7 @@ public class MailService implements Service {
 
         private void notifyJobCompletion(Job job, Job.Status status) {
             try {
-                final Workflow workflow = WorkflowService.getService().get(WorkflowId.build(job.getNamespace(), job.getWorkflow()));
+                final Workflow workflow = WorkflowService.getService().load(WorkflowId.build(job.getNamespace(), job.getWorkflow()));
                 List<String> recipients = null;
                 if (status == SUCCESSFUL) {
                     recipients = workflow.getEmailOnSuccess();
@@ -161,7 +161,7 @@ public class MailService implements Service {
                     recipients = workflow.getEmailOnFailure();
                 }
                 if (recipients != null && !recipients.isEmpty()) {
-                    final List<Task> tasks = TaskService.getService().get(job.getNamespace(), job.getId(), job.getWorkflow());
+                    final List<Task> tasks = TaskService.getService().load(job.getNamespace(), job.getId(), job.getWorkflow());
                     VelocityContext velocityContext = buildVelocityContext(job, workflow, tasks);
                     StringWriter subjectWriter = new StringWriter();
                     subjectTemplate.merge(velocityContext, subjectWriter);
@@ -175,13 +175,13 @@ public class MailService implements Service {
         }
 
         private VelocityContext buildVelocityContext(Job job, Workflow workflow, List<Task> tasks)
-                throws ServiceException, ValidationException {
+                throws ServiceException {
             VelocityContext velocityContext = new VelocityContext();
             velocityContext.put("job", job);
             velocityContext.put("workflow", workflow);
             velocityContext.put("tasks", tasks);
             final WorkflowTriggerId triggerId = WorkflowTriggerId.build(job.getNamespace(), job.getTrigger(), job.getWorkflow());
-            final WorkflowTrigger workflowTrigger = WorkflowTriggerService.getService().get(triggerId);
+            final WorkflowTrigger workflowTrigger = WorkflowTriggerService.getService().load(triggerId);
             final Schedule schedule = workflowTrigger.getSchedule();
             TimeZone timeZone;
             if (schedule.getType() == cron && ((CronSchedule) schedule).getTimezone() != null) {
@@ -215,11 +215,11 @@ public class MailService implements Service {
         public void statusChanged(TaskId taskId, Task.Status from, Task.Status to) {
             if (to == Task.Status.FAILED) {
                 try {
-                    Task task = TaskService.getService().get(taskId);
+                    Task task = TaskService.getService().load(taskId);
                     if (task.getStatusMessage() != null) {
                         notifyTaskFailure(task);
                     }
-                } catch (ServiceException | ValidationException e) {
+                } catch (ServiceException e) {
                     logger.error("Error handling task {} status change from {}, to {}", taskId, from, to, e);
                 }
 
@@ -228,8 +228,8 @@ public class MailService implements Service {
 
         void notifyTaskFailure(Task task) {
             try {
-                final Job job = JobService.getService().get(JobId.build(task.getNamespace(), task.getJob(), task.getWorkflow()));
-                final Workflow workflow = WorkflowService.getService().get(WorkflowId.build(job.getNamespace(), job.getWorkflow()));
+                final Job job = JobService.getService().load(JobId.build(task.getNamespace(), task.getJob(), task.getWorkflow()));
+                final Workflow workflow = WorkflowService.getService().load(WorkflowId.build(job.getNamespace(), job.getWorkflow()));
                 List<String> recipients = workflow.getEmailOnFailure();
                 if (recipients != null && !recipients.isEmpty()) {
                     VelocityContext velocityContext = buildVelocityContext(task, job, workflow);
@@ -245,13 +245,13 @@ public class MailService implements Service {
         }
 
         private VelocityContext buildVelocityContext(Task task, Job job, Workflow workflow)
-                throws ServiceException, ValidationException {
+                throws ServiceException {
             VelocityContext velocityContext = new VelocityContext();
             velocityContext.put("job", job);
             velocityContext.put("task", task);
             velocityContext.put("workflow", workflow);
             final WorkflowTriggerId triggerId = WorkflowTriggerId.build(job.getNamespace(), job.getTrigger(), job.getWorkflow());
-            final WorkflowTrigger workflowTrigger = WorkflowTriggerService.getService().get(triggerId);
+            final WorkflowTrigger workflowTrigger = WorkflowTriggerService.getService().load(triggerId);
             final Schedule schedule = workflowTrigger.getSchedule();
             TimeZone timeZone;
             if (schedule.getType() == cron && ((CronSchedule) schedule).getTimezone() != null) {
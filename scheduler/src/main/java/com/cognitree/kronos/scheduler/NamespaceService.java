@@ -31,6 +31,7 @@ import org.slf4j.LoggerFactory;
 import java.util.Collections;
 import java.util.List;
 
+import static com.cognitree.kronos.scheduler.ValidationError.INVALID_NAMESPACE;
 import static com.cognitree.kronos.scheduler.ValidationError.NAMESPACE_ALREADY_EXISTS;
 import static com.cognitree.kronos.scheduler.ValidationError.NAMESPACE_NOT_FOUND;
 
@@ -79,6 +80,7 @@ public class NamespaceService implements Service {
 
     public void add(Namespace namespace) throws ServiceException, ValidationException {
         logger.info("Received request to add namespace {}", namespace);
+        validate(namespace);
         try {
             if (namespaceStore.load(namespace) != null) {
                 throw NAMESPACE_ALREADY_EXISTS.createException(namespace.getName());
@@ -92,6 +94,7 @@ public class NamespaceService implements Service {
 
     public void update(Namespace namespace) throws ServiceException, ValidationException {
         logger.info("Received request to update namespace to {}", namespace);
+        validate(namespace);
         try {
             if (namespaceStore.load(namespace) == null) {
                 throw NAMESPACE_NOT_FOUND.createException(namespace.getName());
@@ -103,6 +106,12 @@ public class NamespaceService implements Service {
         }
     }
 
+    private void validate(Namespace namespace) throws ValidationException {
+        if (namespace.getWeight() < 1) {
+            throw INVALID_NAMESPACE.createException("weight should be greater than 0");
+        }
+    }
+
     @Override
     public void stop() {
         logger.info("Stopping namespace service");
@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cognitree.kronos.scheduler;
+
+import java.util.Set;
+
+/**
+ * An interface implemented by services holding the state of the workflows owned by the scheduler node. To receive
+ * notification on change in ownership of partitions register the listener with
+ * {@link ShardService#registerListener(PartitionChangeListener)}
+ */
+public interface PartitionChangeListener {
+
+    /**
+     * invoked on the node taking over the partitions, before it starts consuming their task status updates
+     *
+     * @param partitions partitions assigned to the node
+     */
+    void partitionsAssigned(Set<Integer> partitions);
+
+    /**
+     * invoked on the node giving up the partitions, once it has stopped consuming their task status updates and
+     * before the partitions are released to be taken over by other nodes
+     *
+     * @param partitions partitions revoked from the node
+     */
+    void partitionsRevoked(Set<Integer> partitions);
+}
@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cognitree.kronos.scheduler;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.cognitree.kronos.scheduler.model.Constants.DYNAMIC_VAR_PREFIX;
+import static com.cognitree.kronos.scheduler.model.Constants.DYNAMIC_VAR_SUFFFIX;
+import static com.cognitree.kronos.scheduler.model.Constants.WORKFLOW_NAMESPACE_PREFIX;
+
+/**
+ * A compiled form of the properties of a workflow task recording the path to each dynamic property (`${...}`).
+ * <p>
+ * Workflow properties (`${workflow.x}`) are bound when a task is created and the properties referring to the
+ * context of upstream tasks (`${task.key}`) are bound when the task is scheduled. Binding copies only the maps along
+ * the path to a dynamic property, subtrees without any dynamic property are shared as is.
+ * </p>
+ */
+final class PropertyTemplate {
+    private static final Logger logger = LoggerFactory.getLogger(PropertyTemplate.class);
+
+    private final Map<String, Object> properties;
+    // dynamic properties at this level keyed by property name, value is the variable to replace it with
+    private final Map<String, String> variables = new HashMap<>();
+    // nested properties having at least one dynamic property keyed by property name
+    private final Map<String, PropertyTemplate> nestedTemplates = new HashMap<>();
+
+    private PropertyTemplate(Map<String, Object> properties) {
+        this.properties = properties;
+    }
+
+    @SuppressWarnings("unchecked")
+    static PropertyTemplate compile(Map<String, Object> properties) {
+        final PropertyTemplate propertyTemplate = new PropertyTemplate(properties);
+        for (Map.Entry<String, Object> entry : properties.entrySet()) {
+            final Object value = entry.getValue();
+            if (isDynamicProperty(value)) {
+                final String variable = ((String) value).substring(DYNAMIC_VAR_PREFIX.length(),
+                        ((String) value).length() - DYNAMIC_VAR_SUFFFIX.length()).trim();
+                propertyTemplate.variables.put(entry.getKey(), variable);
+            } else if (value instanceof Map) {
+                final PropertyTemplate nestedTemplate = compile((Map<String, Object>) value);
+                if (!nestedTemplate.isStatic()) {
+                    propertyTemplate.nestedTemplates.put(entry.getKey(), nestedTemplate);
+                }
+            }
+        }
+        return propertyTemplate;
+    }
+
+    private static boolean isDynamicProperty(Object value) {
+        return value instanceof String &&
+                ((String) value).startsWith(DYNAMIC_VAR_PREFIX) &&
+                ((String) value).endsWith(DYNAMIC_VAR_SUFFFIX);
+    }
+
+    /**
+     * replaces the workflow properties (`${workflow.x}`) with its value from the given workflow properties,
+     * other dynamic properties are retained as is.
+     *
+     * @param workflowProperties workflow properties to replace with
+     * @return task properties
+     */
+    Map<String, Object> bindWorkflowProperties(Map<String, Object> workflowProperties) {
+        final Map<String, Object> boundProperties = new HashMap<>(properties);
+        variables.forEach((key, variable) -> {
+            if (variable.contains(WORKFLOW_NAMESPACE_PREFIX)) {
+                boundProperties.put(key, workflowProperties.get(variable.substring(WORKFLOW_NAMESPACE_PREFIX.length())));
+            }
+        });
+        nestedTemplates.forEach((key, nestedTemplate) ->
+                boundProperties.put(key, nestedTemplate.bindWorkflowProperties(workflowProperties)));
+        return boundProperties;
+    }
+
+    /**
+     * replaces the dynamic properties in the given task properties, created from this template, with its value from
+     * the context of the upstream tasks. Dynamic property not found in the context is set to null.
+     *
+     * @param taskProperties properties of the task created from this template
+     * @param context        context of the upstream tasks
+     * @return task properties
+     */
+    @SuppressWarnings("unchecked")
+    Map<String, Object> bindContext(Map<String, Object> taskProperties, Map<String, Object> context) {
+        final Map<String, Object> boundProperties = new HashMap<>(taskProperties);
+        for (String key : variables.keySet()) {
+            if (taskProperties.containsKey(key)) {
+                boundProperties.put(key, bindContext(key, taskProperties.get(key), context));
+            }
+        }
+        nestedTemplates.forEach((key, nestedTemplate) -> {
+            final Object value = taskProperties.get(key);
+            if (value instanceof Map) {
+                boundProperties.put(key, nestedTemplate.bindContext((Map<String, Object>) value, context));
+            }
+        });
+        return boundProperties;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object bindContext(String key, Object value, Map<String, Object> context) {
+        if (isDynamicProperty(value)) {
+            final String variable = ((String) value).substring(DYNAMIC_VAR_PREFIX.length(),
+                    ((String) value).length() - DYNAMIC_VAR_SUFFFIX.length()).trim();
+            if (context.containsKey(variable)) {
+                return context.get(variable);
+            }
+            // no dynamic property found to replace, setting it to null
+            logger.warn("No dynamic property found in dependent task context to replace key: {}," +
+                    " setting it to null", key);
+            return null;
+        } else if (value instanceof Map) {
+            // workflow property replaced with nested properties which might refer to the upstream context
+            final Map<String, Object> nestedProperties = (Map<String, Object>) value;
+            return compile(nestedProperties).bindContext(nestedProperties, context);
+        }
+        return value;
+    }
+
+    private boolean isStatic() {
+        return variables.isEmpty() && nestedTemplates.isEmpty();
+    }
+}
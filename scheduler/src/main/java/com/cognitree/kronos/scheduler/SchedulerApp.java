@@ -65,19 +65,23 @@ public class SchedulerApp {
         final StoreService storeService = (StoreService) Class.forName(storeServiceConfig.getStoreServiceClass())
                 .getConstructor(ObjectNode.class).newInstance(storeServiceConfig.getConfig());
         final NamespaceService namespaceService = new NamespaceService();
-        final TaskService taskService = new TaskService();
+        final TaskService taskService = new TaskService(schedulerConfig.getListenerConfig());
         final WorkflowService workflowService = new WorkflowService();
-        final JobService jobService = new JobService();
+        final JobService jobService = new JobService(schedulerConfig.getListenerConfig());
         final WorkflowTriggerService workflowTriggerService = new WorkflowTriggerService();
         final MailService mailService = new MailService(schedulerConfig.getMailConfig());
         final QueueService queueService = new QueueService(queueConfig, SCHEDULER_QUEUE);
+        final ShardService shardService =
+                new ShardService(schedulerConfig.getClusterConfig(), queueConfig.getTaskStatusPartitions());
         // The order between task scheduler and workflow scheduler service is of importance
         // task scheduler service should be started before workflow scheduler service.
         // Workflow scheduler services starts the quartz scheduler which in turn might schedule some tasks
         // based on misfire policies and if the task scheduler service is not initialized that, it will result in NPE.
         final TaskSchedulerService taskSchedulerService =
-                new TaskSchedulerService(queueConfig.getPollIntervalInMs());
-        final WorkflowSchedulerService workflowSchedulerService = new WorkflowSchedulerService();
+                new TaskSchedulerService(queueConfig.getPollIntervalInMs(),
+                        schedulerConfig.getTimeoutTickDurationInMs(), schedulerConfig.getCompletedJobRetentionInMs(),
+                        schedulerConfig.getConcurrencyConfig());
+        final WorkflowSchedulerService workflowSchedulerService = new WorkflowSchedulerService(schedulerConfig.getWorkflowSchedulerConfig());
 
         logger.info("Initializing scheduler app");
         // initialize all service
@@ -89,6 +93,7 @@ public class SchedulerApp {
         workflowTriggerService.init();
         mailService.init();
         queueService.init();
+        shardService.init();
         taskSchedulerService.init();
         workflowSchedulerService.init();
 
@@ -104,8 +109,11 @@ public class SchedulerApp {
         queueService.start();
         taskSchedulerService.start();
         workflowSchedulerService.start();
+        // partitions are taken over once the services holding the state of the workflows are started
+        shardService.start();
 
         startAddOnServices(schedulerConfig, queueConfig);
+        SchedulerMetrics.startReporter();
     }
 
     private void startAddOnServices(SchedulerConfig schedulerConfig, QueueConfig queueConfig) throws Exception {
@@ -118,8 +126,12 @@ public class SchedulerApp {
 
     public void stop() {
         logger.info("Stopping scheduler app");
+        SchedulerMetrics.stopReporter();
         // stop services in the reverse order
         stopAddOnServices();
+        if (ShardService.getService() != null) {
+            ShardService.getService().stop();
+        }
         if (WorkflowSchedulerService.getService() != null) {
             WorkflowSchedulerService.getService().stop();
         }
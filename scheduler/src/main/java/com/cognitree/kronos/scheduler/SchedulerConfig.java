@@ -42,6 +42,38 @@ public class SchedulerConfig {
      */
     private boolean enableConfigurationService = false;
 
+    /**
+     * tick duration of the timing wheel used to time out tasks exceeding their max execution time,
+     * a task is timed out within one tick after its max execution time has elapsed
+     */
+    private long timeoutTickDurationInMs = 100;
+
+    /**
+     * duration for which the tasks of a job are retained in memory after all of them reach final state
+     */
+    private long completedJobRetentionInMs = 600000;
+
+    /**
+     * limits on number of tasks in flight per namespace, per workflow and per task type
+     */
+    private ConcurrencyConfig concurrencyConfig = new ConcurrencyConfig();
+
+    /**
+     * configuration of the queues dispatching task and job status change notifications to the listeners
+     */
+    private ListenerConfig listenerConfig = new ListenerConfig();
+
+    /**
+     * configuration of the {@link WorkflowSchedulerService} firing the workflow triggers
+     */
+    private WorkflowSchedulerConfig workflowSchedulerConfig = new WorkflowSchedulerConfig();
+
+    /**
+     * configuration of the {@link ShardService} sharding the workflows among multiple scheduler nodes,
+     * the scheduler runs standalone owning all the workflows if not set
+     */
+    private ClusterConfig clusterConfig;
+
     public StoreServiceConfig getStoreServiceConfig() {
         return storeServiceConfig;
     }
@@ -66,19 +98,75 @@ public class SchedulerConfig {
         this.enableConfigurationService = enableConfigurationService;
     }
 
+    public long getTimeoutTickDurationInMs() {
+        return timeoutTickDurationInMs;
+    }
+
+    public void setTimeoutTickDurationInMs(long timeoutTickDurationInMs) {
+        this.timeoutTickDurationInMs = timeoutTickDurationInMs;
+    }
+
+    public long getCompletedJobRetentionInMs() {
+        return completedJobRetentionInMs;
+    }
+
+    public void setCompletedJobRetentionInMs(long completedJobRetentionInMs) {
+        this.completedJobRetentionInMs = completedJobRetentionInMs;
+    }
+
+    public ConcurrencyConfig getConcurrencyConfig() {
+        return concurrencyConfig;
+    }
+
+    public void setConcurrencyConfig(ConcurrencyConfig concurrencyConfig) {
+        this.concurrencyConfig = concurrencyConfig;
+    }
+
+    public ListenerConfig getListenerConfig() {
+        return listenerConfig;
+    }
+
+    public void setListenerConfig(ListenerConfig listenerConfig) {
+        this.listenerConfig = listenerConfig;
+    }
+
+    public WorkflowSchedulerConfig getWorkflowSchedulerConfig() {
+        return workflowSchedulerConfig;
+    }
+
+    public void setWorkflowSchedulerConfig(WorkflowSchedulerConfig workflowSchedulerConfig) {
+        this.workflowSchedulerConfig = workflowSchedulerConfig;
+    }
+
+    public ClusterConfig getClusterConfig() {
+        return clusterConfig;
+    }
+
+    public void setClusterConfig(ClusterConfig clusterConfig) {
+        this.clusterConfig = clusterConfig;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof SchedulerConfig)) return false;
         SchedulerConfig that = (SchedulerConfig) o;
         return enableConfigurationService == that.enableConfigurationService &&
+                timeoutTickDurationInMs == that.timeoutTickDurationInMs &&
+                completedJobRetentionInMs == that.completedJobRetentionInMs &&
                 Objects.equals(storeServiceConfig, that.storeServiceConfig) &&
-                Objects.equals(mailConfig, that.mailConfig);
+                Objects.equals(mailConfig, that.mailConfig) &&
+                Objects.equals(concurrencyConfig, that.concurrencyConfig) &&
+                Objects.equals(listenerConfig, that.listenerConfig) &&
+                Objects.equals(workflowSchedulerConfig, that.workflowSchedulerConfig) &&
+                Objects.equals(clusterConfig, that.clusterConfig);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(storeServiceConfig, mailConfig, enableConfigurationService);
+        return Objects.hash(storeServiceConfig, mailConfig, enableConfigurationService, timeoutTickDurationInMs,
+                completedJobRetentionInMs, concurrencyConfig, listenerConfig, workflowSchedulerConfig,
+                clusterConfig);
     }
 
     @Override
@@ -87,6 +175,12 @@ public class SchedulerConfig {
                 "storeServiceConfig=" + storeServiceConfig +
                 ", mailConfig=" + mailConfig +
                 ", enableConfigurationService=" + enableConfigurationService +
+                ", timeoutTickDurationInMs=" + timeoutTickDurationInMs +
+                ", completedJobRetentionInMs=" + completedJobRetentionInMs +
+                ", concurrencyConfig=" + concurrencyConfig +
+                ", listenerConfig=" + listenerConfig +
+                ", workflowSchedulerConfig=" + workflowSchedulerConfig +
+                ", clusterConfig=" + clusterConfig +
                 '}';
     }
 }
@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cognitree.kronos.scheduler;
+
+import com.codahale.metrics.JmxReporter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.SharedMetricRegistries;
+
+/**
+ * A registry for the metrics published by the scheduler, reported over JMX while the scheduler app is running.
+ */
+public final class SchedulerMetrics {
+
+    private static final String REGISTRY_NAME = "kronos-scheduler";
+
+    private static JmxReporter jmxReporter;
+
+    private SchedulerMetrics() {
+    }
+
+    public static MetricRegistry getRegistry() {
+        return SharedMetricRegistries.getOrCreate(REGISTRY_NAME);
+    }
+
+    static synchronized void startReporter() {
+        if (jmxReporter == null) {
+            jmxReporter = JmxReporter.forRegistry(getRegistry()).inDomain("com.cognitree.kronos").build();
+            jmxReporter.start();
+        }
+    }
+
+    static synchronized void stopReporter() {
+        if (jmxReporter != null) {
+            jmxReporter.stop();
+            jmxReporter = null;
+        }
+    }
+}
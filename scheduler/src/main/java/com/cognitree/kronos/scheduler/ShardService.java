@@ -0,0 +1,271 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cognitree.kronos.scheduler;
+
+import com.cognitree.kronos.Service;
+import com.cognitree.kronos.ServiceProvider;
+import com.cognitree.kronos.queue.QueueService;
+import com.cognitree.kronos.scheduler.model.Lease;
+import com.cognitree.kronos.scheduler.store.LeaseStore;
+import com.cognitree.kronos.scheduler.store.StoreException;
+import com.cognitree.kronos.scheduler.store.StoreService;
+import com.google.common.hash.Hashing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.stream.Collectors;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * A shard service is responsible for sharding the workflows among the scheduler nodes.
+ * <p>
+ * Workflows are hashed by namespace and workflow name into the partitions of the task status queue, a node fires the
+ * triggers and consumes the task status updates of the workflows belonging to the partitions it owns. Without a
+ * {@link ClusterConfig} the node runs standalone and owns all the partitions.
+ * </p>
+ * <p>
+ * Ownership is coordinated through the leases in {@link LeaseStore}. On each heartbeat a node
+ * <pre>
+ * 1) renews its node lease announcing itself as a live node
+ * 2) assigns each partition to one of the live nodes by rendezvous hashing, so that only the partitions of a node
+ *    joining or leaving the cluster are moved
+ * 3) gives up the partitions assigned to other nodes and then releases their leases
+ * 4) acquires or renews the leases of the partitions assigned to it, a partition still leased by its previous owner
+ *    is taken over on a subsequent heartbeat once released or expired
+ * </pre>
+ * A node failing to renew its leases gives up its partitions once the leases might have expired.
+ * </p>
+ */
+public class ShardService implements Service {
+    private static final Logger logger = LoggerFactory.getLogger(ShardService.class);
+
+    // node leases announce the live nodes, partition leases claim the ownership of a partition
+    private static final String NODE_LEASE_PREFIX = "node:";
+    private static final String PARTITION_LEASE_PREFIX = "partition:";
+
+    private final ClusterConfig clusterConfig;
+    private final int partitionCount;
+    private final String nodeId;
+    private final Set<Integer> ownedPartitions = ConcurrentHashMap.newKeySet();
+    private final List<PartitionChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private LeaseStore leaseStore;
+    private ScheduledExecutorService heartbeatExecutor;
+    // time until which the leases renewed on the last successful heartbeat are held
+    private long leasedUntil;
+
+    public ShardService(ClusterConfig clusterConfig, int partitionCount) {
+        this(clusterConfig, partitionCount, null);
+    }
+
+    // used in junit
+    ShardService(ClusterConfig clusterConfig, int partitionCount, LeaseStore leaseStore) {
+        this.clusterConfig = clusterConfig;
+        this.partitionCount = partitionCount;
+        this.leaseStore = leaseStore;
+        this.nodeId = clusterConfig == null || clusterConfig.getNodeId() == null ?
+                UUID.randomUUID().toString() : clusterConfig.getNodeId();
+    }
+
+    public static ShardService getService() {
+        return (ShardService) ServiceProvider.getService(ShardService.class.getSimpleName());
+    }
+
+    /**
+     * a standalone node owns all the partitions from the start, a clustered node owns none until it is started
+     * so that the services holding the state of the workflows can be started before taking over any partition
+     */
+    @Override
+    public void init() {
+        logger.info("Initializing shard service on node {}", nodeId);
+        if (clusterConfig == null) {
+            for (int partition = 0; partition < partitionCount; partition++) {
+                ownedPartitions.add(partition);
+            }
+        }
+        ServiceProvider.registerService(this);
+    }
+
+    @Override
+    public void start() {
+        logger.info("Starting shard service on node {}", nodeId);
+        if (clusterConfig == null) {
+            return;
+        }
+        if (leaseStore == null) {
+            StoreService storeService = (StoreService) ServiceProvider.getService(StoreService.class.getSimpleName());
+            leaseStore = storeService.getLeaseStore();
+        }
+        rebalance();
+        heartbeatExecutor = Executors.newSingleThreadScheduledExecutor();
+        heartbeatExecutor.scheduleWithFixedDelay(this::rebalance, clusterConfig.getHeartbeatIntervalInMs(),
+                clusterConfig.getHeartbeatIntervalInMs(), MILLISECONDS);
+    }
+
+    public void registerListener(PartitionChangeListener partitionChangeListener) {
+        listeners.add(partitionChangeListener);
+    }
+
+    public void deregisterListener(PartitionChangeListener partitionChangeListener) {
+        listeners.remove(partitionChangeListener);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public int getPartition(String namespace, String workflow) {
+        return QueueService.getPartition(QueueService.getPartitionKey(namespace, workflow), partitionCount);
+    }
+
+    /**
+     * @return true if the workflow belongs to one of the partitions owned by the node
+     */
+    public boolean owns(String namespace, String workflow) {
+        return ownedPartitions.contains(getPartition(namespace, workflow));
+    }
+
+    public Set<Integer> getOwnedPartitions() {
+        return Collections.unmodifiableSet(new HashSet<>(ownedPartitions));
+    }
+
+    /**
+     * renews the leases of the node and rebalances the partitions among the live nodes
+     */
+    synchronized void rebalance() {
+        final long heartbeatAt = System.currentTimeMillis();
+        final long leaseDurationInMs = clusterConfig.getLeaseDurationInMs();
+        final Set<Integer> assigned = new HashSet<>();
+        final Set<Integer> revoked = new HashSet<>();
+        try {
+            leaseStore.acquire(NODE_LEASE_PREFIX + nodeId, nodeId, leaseDurationInMs);
+            final List<String> liveNodes = leaseStore.load().stream()
+                    .filter(lease -> lease.getName().startsWith(NODE_LEASE_PREFIX))
+                    .map(Lease::getOwner)
+                    .collect(Collectors.toList());
+            for (int partition = 0; partition < partitionCount; partition++) {
+                final boolean isOwned = ownedPartitions.contains(partition);
+                if (!nodeId.equals(getAssignedNode(liveNodes, partition))) {
+                    if (isOwned) {
+                        revoked.add(partition);
+                    }
+                    continue;
+                }
+                final boolean isLeased = leaseStore.acquire(PARTITION_LEASE_PREFIX + partition, nodeId,
+                        leaseDurationInMs);
+                if (isLeased && !isOwned) {
+                    assigned.add(partition);
+                } else if (!isLeased && isOwned) {
+                    // lease expired and taken over by another node
+                    revoked.add(partition);
+                }
+            }
+            leasedUntil = heartbeatAt + leaseDurationInMs;
+        } catch (StoreException e) {
+            logger.error("Error renewing leases of node {}", nodeId, e);
+            if (heartbeatAt >= leasedUntil) {
+                revoked.addAll(ownedPartitions);
+            }
+        }
+        revoke(revoked);
+        assign(assigned);
+    }
+
+    private void revoke(Set<Integer> partitions) {
+        if (partitions.isEmpty()) {
+            return;
+        }
+        logger.info("Partitions {} revoked from node {}", partitions, nodeId);
+        ownedPartitions.removeAll(partitions);
+        listeners.forEach(listener -> listener.partitionsRevoked(partitions));
+        release(partitions);
+    }
+
+    private void assign(Set<Integer> partitions) {
+        if (partitions.isEmpty()) {
+            return;
+        }
+        logger.info("Partitions {} assigned to node {}", partitions, nodeId);
+        listeners.forEach(listener -> listener.partitionsAssigned(partitions));
+        ownedPartitions.addAll(partitions);
+    }
+
+    private void release(Collection<Integer> partitions) {
+        for (Integer partition : partitions) {
+            try {
+                leaseStore.release(PARTITION_LEASE_PREFIX + partition, nodeId);
+            } catch (StoreException e) {
+                logger.error("Error releasing lease of partition {} by node {}, it will be taken over on expiry",
+                        partition, nodeId, e);
+            }
+        }
+    }
+
+    /**
+     * assigns the partition to the live node with the highest weight for the partition (rendezvous hashing)
+     */
+    static String getAssignedNode(Collection<String> nodes, int partition) {
+        String assignedNode = null;
+        long maxWeight = Long.MIN_VALUE;
+        for (String node : nodes) {
+            final long weight = Hashing.murmur3_128().newHasher()
+                    .putString(node, UTF_8)
+                    .putInt(partition)
+                    .hash().asLong();
+            if (assignedNode == null || weight > maxWeight || (weight == maxWeight && node.compareTo(assignedNode) < 0)) {
+                assignedNode = node;
+                maxWeight = weight;
+            }
+        }
+        return assignedNode;
+    }
+
+    /**
+     * gives up all the partitions and the node lease so that the other nodes take over without waiting for the
+     * leases to expire
+     */
+    @Override
+    public synchronized void stop() {
+        logger.info("Stopping shard service on node {}", nodeId);
+        if (clusterConfig == null || leaseStore == null) {
+            return;
+        }
+        if (heartbeatExecutor != null) {
+            heartbeatExecutor.shutdownNow();
+        }
+        final Set<Integer> partitions = new HashSet<>(ownedPartitions);
+        ownedPartitions.clear();
+        release(partitions);
+        try {
+            leaseStore.release(NODE_LEASE_PREFIX + nodeId, nodeId);
+        } catch (StoreException e) {
+            logger.error("Error releasing lease of node {}", nodeId, e);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cognitree.kronos.scheduler;
+
+import com.cognitree.kronos.model.Task;
+import com.cognitree.kronos.scheduler.model.WorkflowId;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * estimates the duration of a workflow task from the observed durations of its previous executions.
+ * <p>
+ * Duration of each execution is measured from the submitted time of the task, which is set when the task moves to
+ * running state, till it completed and the estimate is an exponentially weighted moving average of it. Tasks with no
+ * execution observed yet are estimated by the mean of the estimates of other tasks in the same workflow, or
+ * {@link #DEFAULT_DURATION_IN_MS} if there are none.
+ * </p>
+ */
+final class TaskDurationEstimator {
+
+    static final long DEFAULT_DURATION_IN_MS = 1;
+    // weight of the latest observed duration in the moving average
+    private static final double SMOOTHING_FACTOR = 0.3;
+
+    private final Map<WorkflowId, Map<String, Double>> estimates = new ConcurrentHashMap<>();
+
+    /**
+     * records the duration of a completed task execution
+     *
+     * @param task task which completed successfully
+     */
+    void record(Task task) {
+        if (task.getSubmittedAt() == null || task.getCompletedAt() == null) {
+            return;
+        }
+        final long duration = Math.max(0, task.getCompletedAt() - task.getSubmittedAt());
+        estimates.computeIfAbsent(WorkflowId.build(task.getNamespace(), task.getWorkflow()),
+                workflowId -> new ConcurrentHashMap<>())
+                .merge(task.getName(), (double) duration,
+                        (estimate, observed) -> estimate + SMOOTHING_FACTOR * (observed - estimate));
+    }
+
+    /**
+     * @param task task to estimate the duration of
+     * @return estimated duration of the task in milliseconds, at least {@link #DEFAULT_DURATION_IN_MS}
+     */
+    long estimate(Task task) {
+        final Map<String, Double> workflowEstimates =
+                estimates.get(WorkflowId.build(task.getNamespace(), task.getWorkflow()));
+        if (workflowEstimates == null || workflowEstimates.isEmpty()) {
+            return DEFAULT_DURATION_IN_MS;
+        }
+        Double estimate = workflowEstimates.get(task.getName());
+        if (estimate == null) {
+            estimate = workflowEstimates.values().stream().mapToDouble(Double::doubleValue).average()
+                    .orElse(DEFAULT_DURATION_IN_MS);
+        }
+        return Math.max(DEFAULT_DURATION_IN_MS, Math.round(estimate));
+    }
+}
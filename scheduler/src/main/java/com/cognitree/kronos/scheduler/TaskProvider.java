@@ -14,47 +14,169 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-
 package com.cognitree.kronos.scheduler;
 
 import com.cognitree.kronos.model.Task;
 import com.cognitree.kronos.model.Task.Status;
 import com.cognitree.kronos.model.TaskId;
+import com.cognitree.kronos.scheduler.model.JobId;
 import com.google.common.graph.GraphBuilder;
 import com.google.common.graph.MutableGraph;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.function.ToLongFunction;
 
 import static com.cognitree.kronos.model.Task.Status.FAILED;
 import static com.cognitree.kronos.model.Task.Status.RUNNING;
 import static com.cognitree.kronos.model.Task.Status.SUCCESSFUL;
 import static com.cognitree.kronos.model.Task.Status.UP_FOR_RETRY;
 import static com.cognitree.kronos.model.Task.Status.WAITING;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
 /**
  * Task provider manages/ resolves task dependencies and exposes APIs to add, remove, retrieve tasks in active and
  * ready-to-execute state.
  * <p>
- * Internally, task provider is backed by a directed acyclic graph to manage dependencies across these tasks.
+ * Internally, task provider is backed by a directed acyclic graph per job to manage dependencies across these tasks.
+ * Dependencies never cross the job boundary so each job graph is guarded by its own lock and tasks belonging to
+ * different jobs can be added, resolved and purged in parallel.
  */
 final class TaskProvider {
     private static final Logger logger = LoggerFactory.getLogger(TaskProvider.class);
 
-    private final MutableGraph<Task> graph = GraphBuilder.directed().build();
+    private final Map<JobId, JobGraph> jobGraphs = new ConcurrentHashMap<>();
+    // index of the tasks in all the job graphs by task id, kept in sync with the graph nodes
+    private final Map<TaskId, Task> tasks = new ConcurrentHashMap<>();
+    // tasks in all the job graphs bucketed by their last known status, maintained on each status change
+    private final Map<Status, Set<Task>> tasksByStatus = new EnumMap<>(Status.class);
+    // jobs with all its tasks in final state, queued for eviction after the retention period
+    private final DelayQueue<CompletedJob> completedJobs = new DelayQueue<>();
+    private final long completedJobRetentionInMs;
+
+    /**
+     * @param completedJobRetentionInMs duration for which a job is retained after all its tasks reach final state
+     */
+    TaskProvider(long completedJobRetentionInMs) {
+        this.completedJobRetentionInMs = completedJobRetentionInMs;
+        for (Status status : Status.values()) {
+            tasksByStatus.put(status, ConcurrentHashMap.newKeySet());
+        }
+    }
+
+    boolean add(Task task) {
+        final JobId jobId = getJobId(task);
+        while (true) {
+            final JobGraph jobGraph = jobGraphs.computeIfAbsent(jobId, id -> new JobGraph());
+            synchronized (jobGraph) {
+                // job graph might have been purged while acquiring the lock, retry with a new one
+                if (jobGraphs.get(jobId) != jobGraph) {
+                    continue;
+                }
+                final boolean isAdded = addNode(jobId, jobGraph, task);
+                if (isAdded) {
+                    jobGraph.updateReadiness(task);
+                }
+                return isAdded;
+            }
+        }
+    }
+
+    private boolean addNode(JobId jobId, JobGraph jobGraph, Task task) {
+        if (!jobGraph.graph.addNode(task)) {
+            return false;
+        }
+        tasks.put(task.getIdentity(), task);
+        jobGraph.pendingDependencies.put(task.getIdentity(), 0);
+        jobGraph.remainingPathLengths = null;
+        updateStatusIndex(jobGraph, task, task.getStatus());
+        if (!isFinal(task.getStatus())) {
+            jobGraph.activeTasks++;
+        } else if (jobGraph.activeTasks == 0) {
+            completedJobs.add(new CompletedJob(jobId, jobGraph));
+        }
+        return true;
+    }
+
+    /**
+     * adds the tasks along with the dependencies among them in one pass per job, used to rebuild the provider on
+     * restart.
+     * <p>
+     * Unlike {@link #resolve(Task)}, dependencies not available in the provider are ignored as only the tasks yet to
+     * reach final state are expected to be loaded on restart.
+     * </p>
+     *
+     * @param tasks tasks to add
+     */
+    void addAll(Collection<Task> tasks) {
+        final Map<JobId, List<Task>> tasksByJob = new HashMap<>();
+        tasks.forEach(task -> tasksByJob.computeIfAbsent(getJobId(task), jobId -> new ArrayList<>()).add(task));
+        tasksByJob.forEach(this::addAll);
+    }
 
-    synchronized boolean add(Task task) {
-        return graph.addNode(task);
+    /**
+     * adds the tasks of a job along with the dependencies among them under one lock of the job graph. Dependencies
+     * not available in the provider are ignored.
+     *
+     * @param jobId    id of the job
+     * @param jobTasks tasks of the job to add
+     * @return tasks added, tasks already available in the provider are skipped
+     */
+    List<Task> addAll(JobId jobId, List<Task> jobTasks) {
+        while (true) {
+            final JobGraph jobGraph = jobGraphs.computeIfAbsent(jobId, id -> new JobGraph());
+            synchronized (jobGraph) {
+                // job graph might have been purged while acquiring the lock, retry with a new one
+                if (jobGraphs.get(jobId) != jobGraph) {
+                    continue;
+                }
+                final Map<String, Task> tasksByName = new HashMap<>();
+                jobGraph.graph.nodes().forEach(task -> tasksByName.put(task.getName(), task));
+                final List<Task> addedTasks = new ArrayList<>();
+                for (Task task : jobTasks) {
+                    if (addNode(jobId, jobGraph, task)) {
+                        tasksByName.put(task.getName(), task);
+                        addedTasks.add(task);
+                    }
+                }
+                for (Task task : addedTasks) {
+                    int pendingDependencyCount = 0;
+                    if (task.getDependsOn() != null) {
+                        for (String dependentTaskName : task.getDependsOn()) {
+                            final Task dependentTask = tasksByName.get(dependentTaskName);
+                            if (dependentTask != null && jobGraph.addDependency(dependentTask, task)) {
+                                if (jobGraph.statuses.get(dependentTask.getIdentity()) != SUCCESSFUL) {
+                                    pendingDependencyCount++;
+                                }
+                            }
+                        }
+                    }
+                    jobGraph.pendingDependencies.put(task.getIdentity(), pendingDependencyCount);
+                    jobGraph.updateReadiness(task);
+                }
+                jobGraph.remainingPathLengths = null;
+                return addedTasks;
+            }
+        }
     }
 
     /**
@@ -63,9 +185,17 @@ final class TaskProvider {
      * @param task
      * @return false when dependant tasks are in failed state or not found, true otherwise
      */
-    synchronized boolean resolve(Task task) {
+    boolean resolve(Task task) {
         final List<String> dependsOn = task.getDependsOn();
-        if (dependsOn != null) {
+        if (dependsOn == null) {
+            return true;
+        }
+        final JobGraph jobGraph = jobGraphs.get(getJobId(task));
+        if (jobGraph == null) {
+            logger.error("No task with id {} found", task.getIdentity());
+            return false;
+        }
+        synchronized (jobGraph) {
             List<Task> dependentTasks = new ArrayList<>();
             for (String dependentTaskName : dependsOn) {
                 TaskId dependentTaskId = TaskId.build(task.getNamespace(), dependentTaskName, task.getJob(),
@@ -82,121 +212,425 @@ final class TaskProvider {
                 }
                 dependentTasks.add(dependentTask);
             }
-            dependentTasks.forEach(dependentTask -> addDependency(dependentTask, task));
+            dependentTasks.forEach(dependentTask -> jobGraph.addDependency(dependentTask, task));
+            jobGraph.remainingPathLengths = null;
+            final int pendingDependencyCount = (int) jobGraph.graph.predecessors(task).stream()
+                    .filter(dependentTask -> jobGraph.statuses.get(dependentTask.getIdentity()) != SUCCESSFUL)
+                    .count();
+            jobGraph.pendingDependencies.put(task.getIdentity(), pendingDependencyCount);
+            jobGraph.updateReadiness(task);
         }
         return true;
     }
 
-    synchronized Task getTask(TaskId taskId) {
-        for (Task task : graph.nodes()) {
-            if (task.getIdentity().equals(taskId)) {
-                return task;
+    Task getTask(TaskId taskId) {
+        return tasks.get(taskId);
+    }
+
+    /**
+     * updates the status index and the set of tasks ready for execution on status change of a task.
+     * <p>
+     * Should be called each time the status of a task managed by the provider is changed. Calling it again without
+     * a change in the task status is a no-op.
+     * </p>
+     *
+     * @param task task whose status has changed
+     */
+    void statusChanged(Task task) {
+        final JobGraph jobGraph = jobGraphs.get(getJobId(task));
+        if (jobGraph == null) {
+            return;
+        }
+        synchronized (jobGraph) {
+            if (!jobGraph.graph.nodes().contains(task)) {
+                return;
+            }
+            final Status status = task.getStatus();
+            final Status previousStatus = jobGraph.statuses.get(task.getIdentity());
+            if (previousStatus == status) {
+                return;
+            }
+            updateStatusIndex(jobGraph, task, status);
+            if (!isFinal(previousStatus) && isFinal(status) && --jobGraph.activeTasks == 0) {
+                completedJobs.add(new CompletedJob(getJobId(task), jobGraph));
+            }
+            jobGraph.updateReadiness(task);
+            if (status == SUCCESSFUL) {
+                jobGraph.updateContext(task);
+                for (Task dependentTask : jobGraph.graph.successors(task)) {
+                    jobGraph.pendingDependencies.computeIfPresent(dependentTask.getIdentity(),
+                            (taskId, count) -> count - 1);
+                    jobGraph.updateReadiness(dependentTask);
+                }
             }
         }
-        return null;
+    }
+
+    private void updateStatusIndex(JobGraph jobGraph, Task task, Status status) {
+        final Status previousStatus = jobGraph.statuses.put(task.getIdentity(), status);
+        if (previousStatus != null) {
+            tasksByStatus.get(previousStatus).remove(task);
+        }
+        if (status != null) {
+            tasksByStatus.get(status).add(task);
+        }
+    }
+
+    /**
+     * return the context of all the tasks the given task depends on directly or transitively, keyed by
+     * `taskName.key` for each key in the context of the upstream task.
+     * <p>
+     * Context of each task is flattened along with the context of its upstream tasks once it completes successfully,
+     * so the cost is proportional to the number of tasks the given task directly depends on.
+     * </p>
+     */
+    Map<String, Object> getUpstreamContext(Task task) {
+        final JobGraph jobGraph = jobGraphs.get(getJobId(task));
+        if (jobGraph == null) {
+            return Collections.emptyMap();
+        }
+        synchronized (jobGraph) {
+            return jobGraph.getUpstreamContext(task);
+        }
     }
 
     /**
-     * For statement A depends on B, A is the dependent and B is the dependee.
+     * return the length of the longest chain of tasks from each task of the job to the end of the job, including
+     * the task itself, using the estimated duration of each task.
+     * <p>
+     * Lengths are computed in one pass over the job graph in reverse topological order and are cached till a task
+     * or a dependency is added to the job.
+     * </p>
      *
-     * @param dependentTask
-     * @param dependeeTask
+     * @param jobId             job to compute the lengths for
+     * @param durationEstimator estimated duration of a task
      */
-    private void addDependency(Task dependentTask, Task dependeeTask) {
-        graph.putEdge(dependentTask, dependeeTask);
+    Map<Task, Long> getRemainingPathLengths(JobId jobId, ToLongFunction<Task> durationEstimator) {
+        final JobGraph jobGraph = jobGraphs.get(jobId);
+        if (jobGraph == null) {
+            return Collections.emptyMap();
+        }
+        synchronized (jobGraph) {
+            if (jobGraph.remainingPathLengths == null) {
+                jobGraph.remainingPathLengths = jobGraph.computeRemainingPathLengths(durationEstimator);
+            }
+            return jobGraph.remainingPathLengths;
+        }
     }
 
-    synchronized List<Task> getReadyTasks() {
-        final Predicate<Task> isReadyForExecution = this::isReadyForExecution;
-        return getTasks(Arrays.asList(UP_FOR_RETRY, WAITING), isReadyForExecution);
+    /**
+     * return tasks ready for execution across all the jobs
+     */
+    List<Task> getReadyTasks() {
+        final List<Task> readyTasks = new ArrayList<>();
+        for (JobGraph jobGraph : jobGraphs.values()) {
+            synchronized (jobGraph) {
+                readyTasks.addAll(jobGraph.readyTasks);
+            }
+        }
+        return readyTasks;
     }
 
     /**
-     * return tasks currently being executed by executor
+     * return tasks ready for execution belonging to the given job
      */
-    synchronized List<Task> getActiveTasks() {
-        return getTasks(Collections.singletonList(RUNNING));
+    List<Task> getReadyTasks(JobId jobId) {
+        final JobGraph jobGraph = jobGraphs.get(jobId);
+        if (jobGraph == null) {
+            return Collections.emptyList();
+        }
+        synchronized (jobGraph) {
+            return new ArrayList<>(jobGraph.readyTasks);
+        }
     }
 
-    synchronized List<Task> getDependentTasks(Task task) {
-        return new ArrayList<>(graph.successors(task));
+    /**
+     * return tasks currently being executed by executor
+     */
+    List<Task> getActiveTasks() {
+        return getTasks(Collections.singletonList(RUNNING));
     }
 
-    @SafeVarargs
-    synchronized final List<Task> getTasks(List<Status> statuses, Predicate<Task>... predicates) {
-        final Predicate<Task> statusPredicate = task -> statuses.contains(task.getStatus());
-        if (predicates != null && predicates.length > 0) {
-            final Predicate<Task> isReadyForExecutionPredicate = this::isReadyForExecution;
-            return getTasks(statusPredicate, isReadyForExecutionPredicate);
-        } else {
-            return getTasks(statusPredicate);
+    List<Task> getDependentTasks(Task task) {
+        final JobGraph jobGraph = jobGraphs.get(getJobId(task));
+        if (jobGraph == null) {
+            return Collections.emptyList();
+        }
+        synchronized (jobGraph) {
+            return new ArrayList<>(jobGraph.graph.successors(task));
         }
     }
 
-    @SafeVarargs
-    private final List<Task> getTasks(Predicate<Task>... predicates) {
-        Stream<Task> stream = graph.nodes().stream();
-        for (Predicate<Task> predicate : predicates) {
-            stream = stream.filter(predicate);
-        }
-        return stream.collect(Collectors.toList());
+    List<Task> getTasks(List<Status> statuses) {
+        final List<Task> tasks = new ArrayList<>();
+        statuses.forEach(status -> tasks.addAll(tasksByStatus.get(status)));
+        return tasks;
     }
 
-    private boolean isReadyForExecution(Task task) {
-        return graph.predecessors(task)
-                .stream()
-                .allMatch(t -> t.getStatus().equals(SUCCESSFUL));
+    /**
+     * return number of tasks in the given status
+     */
+    int size(Status status) {
+        return tasksByStatus.get(status).size();
     }
 
     /**
-     * deletes all the stale tasks from graph having `createdAt` older than `durationInMillis`
+     * evicts the jobs from memory which have all its tasks in final state for more than the retention period.
+     * <p>
+     * Jobs are evicted as a whole in the order they complete, a job is queued for eviction as soon as its last task
+     * reaches final state so the cost is proportional to the number of jobs evicted.
      * </p>
-     * before deleting a task we assure that the task is no longer required in future
      */
-    synchronized void removeStaleTasks(long durationInMillis) {
-        final Set<Task> tasksToDelete = new HashSet<>();
+    void removeCompletedJobs() {
+        CompletedJob completedJob;
+        while ((completedJob = completedJobs.poll()) != null) {
+            final JobGraph jobGraph = completedJob.jobGraph;
+            synchronized (jobGraph) {
+                if (jobGraph.activeTasks > 0 || !jobGraphs.remove(completedJob.jobId, jobGraph)) {
+                    continue;
+                }
+                logger.debug("Cleaning up tasks of job {} from memory", completedJob.jobId);
+                for (Task task : jobGraph.graph.nodes()) {
+                    tasks.remove(task.getIdentity());
+                    updateStatusIndex(jobGraph, task, null);
+                }
+            }
+        }
+    }
 
-        Long cleanUpTimestamp = System.currentTimeMillis() - durationInMillis;
-        for (Task task : graph.nodes()) {
-            if (graph.inDegree(task) == 0) {
-                tasksToDelete.addAll(getTasksToDelete(task, cleanUpTimestamp));
+    /**
+     * @param filter jobs to return
+     * @return ids of the jobs in memory matching the filter
+     */
+    List<JobId> getJobIds(Predicate<JobId> filter) {
+        final List<JobId> jobIds = new ArrayList<>();
+        for (JobId jobId : jobGraphs.keySet()) {
+            if (filter.test(jobId)) {
+                jobIds.add(jobId);
             }
         }
+        return jobIds;
+    }
 
-        logger.debug("Cleaning up tasks from memory {}", tasksToDelete);
-        tasksToDelete.forEach(graph::removeNode);
+    /**
+     * removes the job from memory irrespective of the status of its tasks, used to give up the jobs of the workflows
+     * taken over by another scheduler node
+     *
+     * @param jobId job to remove
+     * @return tasks of the removed job
+     */
+    List<Task> removeJob(JobId jobId) {
+        final JobGraph jobGraph = jobGraphs.get(jobId);
+        if (jobGraph == null) {
+            return Collections.emptyList();
+        }
+        final List<Task> removedTasks = new ArrayList<>();
+        synchronized (jobGraph) {
+            if (!jobGraphs.remove(jobId, jobGraph)) {
+                return Collections.emptyList();
+            }
+            logger.debug("Removing tasks of job {} from memory", jobId);
+            for (Task task : jobGraph.graph.nodes()) {
+                tasks.remove(task.getIdentity());
+                updateStatusIndex(jobGraph, task, null);
+                removedTasks.add(task);
+            }
+        }
+        return removedTasks;
     }
 
     /**
-     * At any point in time a graph should contain all the tasks in a workflow.
-     * Tasks are returned only if the entire workflow(job) it belongs to is complete
-     * and is having `createdAt` older than the `cleanupTimestamp`
+     * verifies all the indexes maintained by the provider against the job graphs and the current status of the tasks.
+     *
+     * @throws IllegalStateException if any of the index is out of sync
      */
-    private Set<Task> getTasksToDelete(Task task, Long cleanupTimestamp) {
-        final Set<Task> tasksToDelete = new HashSet<>();
-        final LinkedList<Task> tasksToValidate = new LinkedList<>();
-        tasksToValidate.add(task);
-        while (!tasksToValidate.isEmpty()) {
-            Task taskToValidate = tasksToValidate.poll();
-            if (taskToValidate != null && taskToValidate.getCreatedAt() < cleanupTimestamp &&
-                    (taskToValidate.getStatus().isFinal())) {
-                Set<Task> predecessorTasks = graph.predecessors(taskToValidate);
-                for (Task predecessorTask : predecessorTasks) {
-                    if (!tasksToDelete.contains(predecessorTask)) {
-                        tasksToValidate.add(predecessorTask);
+    void checkConsistency() {
+        int graphedTasks = 0;
+        int bucketedTasks = 0;
+        for (Map.Entry<JobId, JobGraph> jobGraphEntry : jobGraphs.entrySet()) {
+            final JobGraph jobGraph = jobGraphEntry.getValue();
+            synchronized (jobGraph) {
+                for (Task task : jobGraph.graph.nodes()) {
+                    if (!getJobId(task).equals(jobGraphEntry.getKey())) {
+                        throw new IllegalStateException("task " + task.getIdentity() + " found in graph of job " +
+                                jobGraphEntry.getKey());
+                    }
+                    if (tasks.get(task.getIdentity()) != task) {
+                        throw new IllegalStateException("task " + task.getIdentity() + " is not indexed by its id");
+                    }
+                    final Status status = jobGraph.statuses.get(task.getIdentity());
+                    if (task.getStatus() != status) {
+                        throw new IllegalStateException("task " + task.getIdentity() + " with status " +
+                                task.getStatus() + " is indexed with status " + status);
                     }
+                    if (status != null) {
+                        if (!tasksByStatus.get(status).contains(task)) {
+                            throw new IllegalStateException("task " + task.getIdentity() + " with status " +
+                                    status + " not found in its status bucket");
+                        }
+                        bucketedTasks++;
+                    }
+                }
+                jobGraph.checkConsistency();
+                final long activeTasks = jobGraph.graph.nodes().stream()
+                        .filter(task -> !isFinal(task.getStatus()))
+                        .count();
+                if (activeTasks != jobGraph.activeTasks) {
+                    throw new IllegalStateException("job " + jobGraphEntry.getKey() + " has " + activeTasks +
+                            " active tasks, found " + jobGraph.activeTasks);
                 }
-                Set<Task> successorTasks = graph.successors(taskToValidate);
-                for (Task successorTask : successorTasks) {
-                    if (!tasksToDelete.contains(successorTask)) {
-                        tasksToValidate.add(successorTask);
+                graphedTasks += jobGraph.graph.nodes().size();
+            }
+        }
+        if (graphedTasks != tasks.size()) {
+            throw new IllegalStateException("task id index is out of sync with the job graphs");
+        }
+        if (bucketedTasks != tasksByStatus.values().stream().mapToInt(Set::size).sum()) {
+            throw new IllegalStateException("status buckets contain tasks not present in the job graphs");
+        }
+    }
+
+    private static boolean isFinal(Status status) {
+        return status != null && status.isFinal();
+    }
+
+    static JobId getJobId(TaskId taskId) {
+        return JobId.build(taskId.getNamespace(), taskId.getJob(), taskId.getWorkflow());
+    }
+
+    /**
+     * Dependency graph of the tasks belonging to a job along with the indexes maintained over it.
+     * All the access should be synchronized on the job graph.
+     */
+    private static final class JobGraph {
+        private final MutableGraph<Task> graph = GraphBuilder.directed().build();
+        // number of tasks each task depends on which are yet to complete successfully
+        private final Map<TaskId, Integer> pendingDependencies = new HashMap<>();
+        // tasks waiting for execution with all its dependencies complete, maintained on each status change
+        private final Set<Task> readyTasks = new LinkedHashSet<>();
+        // last known status of each task in graph, maintained on each status change
+        private final Map<TaskId, Status> statuses = new HashMap<>();
+        // context of each successful task flattened along with the context of its upstream tasks
+        private final Map<TaskId, Map<String, Object>> contexts = new HashMap<>();
+        // number of tasks yet to reach final state, the job is complete once it drops to zero
+        private int activeTasks;
+        // length of the longest chain of tasks remaining from each task, computed lazily and reset on graph change
+        private Map<Task, Long> remainingPathLengths;
+
+        /**
+         * For statement A depends on B, A is the dependent and B is the dependee.
+         *
+         * @param dependentTask
+         * @param dependeeTask
+         * @return true if the dependency is added, false if it already exists
+         */
+        private boolean addDependency(Task dependentTask, Task dependeeTask) {
+            return graph.putEdge(dependentTask, dependeeTask);
+        }
+
+        private void updateContext(Task task) {
+            final Map<String, Object> context = new LinkedHashMap<>();
+            if (task.getContext() != null) {
+                task.getContext().forEach((key, value) -> context.put(task.getName() + "." + key, value));
+            }
+            context.putAll(getUpstreamContext(task));
+            contexts.put(task.getIdentity(), context);
+        }
+
+        private Map<String, Object> getUpstreamContext(Task task) {
+            final Map<String, Object> upstreamContext = new LinkedHashMap<>();
+            for (Task dependentTask : graph.predecessors(task)) {
+                final Map<String, Object> context = contexts.get(dependentTask.getIdentity());
+                if (context != null) {
+                    upstreamContext.putAll(context);
+                }
+            }
+            return upstreamContext;
+        }
+
+        private Map<Task, Long> computeRemainingPathLengths(ToLongFunction<Task> durationEstimator) {
+            final Map<Task, Long> pathLengths = new HashMap<>();
+            final Map<Task, Integer> pendingSuccessors = new HashMap<>();
+            final Deque<Task> tasksToVisit = new ArrayDeque<>();
+            for (Task task : graph.nodes()) {
+                final int successorCount = graph.outDegree(task);
+                pendingSuccessors.put(task, successorCount);
+                if (successorCount == 0) {
+                    tasksToVisit.add(task);
+                }
+            }
+            while (!tasksToVisit.isEmpty()) {
+                final Task task = tasksToVisit.poll();
+                long longestSuccessorPath = 0;
+                for (Task successor : graph.successors(task)) {
+                    longestSuccessorPath = Math.max(longestSuccessorPath, pathLengths.get(successor));
+                }
+                pathLengths.put(task, durationEstimator.applyAsLong(task) + longestSuccessorPath);
+                for (Task predecessor : graph.predecessors(task)) {
+                    if (pendingSuccessors.merge(predecessor, -1, Integer::sum) == 0) {
+                        tasksToVisit.add(predecessor);
                     }
                 }
-                tasksToDelete.add(taskToValidate);
+            }
+            return Collections.unmodifiableMap(pathLengths);
+        }
+
+        private void updateReadiness(Task task) {
+            final Status status = statuses.get(task.getIdentity());
+            if (isReady(status, pendingDependencies.getOrDefault(task.getIdentity(), 0))) {
+                readyTasks.add(task);
             } else {
-                return Collections.emptySet();
+                readyTasks.remove(task);
             }
         }
-        return tasksToDelete;
+
+        private boolean isReady(Status status, int pendingDependencyCount) {
+            return (status == WAITING || status == UP_FOR_RETRY) && pendingDependencyCount <= 0;
+        }
+
+        private void checkConsistency() {
+            final Set<Task> readyTasks = new HashSet<>();
+            for (Task task : graph.nodes()) {
+                final int pendingDependencyCount = (int) graph.predecessors(task).stream()
+                        .filter(dependentTask -> dependentTask.getStatus() != SUCCESSFUL)
+                        .count();
+                if (pendingDependencies.get(task.getIdentity()) != pendingDependencyCount) {
+                    throw new IllegalStateException("task " + task.getIdentity() + " has " + pendingDependencyCount +
+                            " pending dependencies, found " + pendingDependencies.get(task.getIdentity()));
+                }
+                if (isReady(task.getStatus(), pendingDependencyCount)) {
+                    readyTasks.add(task);
+                }
+            }
+            if (!readyTasks.equals(this.readyTasks)) {
+                throw new IllegalStateException("ready tasks " + this.readyTasks + " are out of sync, expected " +
+                        readyTasks);
+            }
+        }
+    }
+
+    /**
+     * A job with all its tasks in final state, expires once the retention period has elapsed.
+     */
+    private final class CompletedJob implements Delayed {
+        private final JobId jobId;
+        private final JobGraph jobGraph;
+        private final long expiryTime;
+
+        private CompletedJob(JobId jobId, JobGraph jobGraph) {
+            this.jobId = jobId;
+            this.jobGraph = jobGraph;
+            this.expiryTime = System.nanoTime() + MILLISECONDS.toNanos(completedJobRetentionInMs);
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(expiryTime - System.nanoTime(), NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(getDelay(NANOSECONDS), other.getDelay(NANOSECONDS));
+        }
     }
 }
@@ -17,6 +17,8 @@
 
 package com.cognitree.kronos.scheduler;
 
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
 import com.cognitree.kronos.Service;
 import com.cognitree.kronos.ServiceException;
 import com.cognitree.kronos.ServiceProvider;
@@ -29,21 +31,35 @@ import com.cognitree.kronos.model.TaskId;
 import com.cognitree.kronos.model.TaskStatusUpdate;
 import com.cognitree.kronos.queue.QueueService;
 import com.cognitree.kronos.queue.producer.Producer;
+import com.cognitree.kronos.scheduler.model.ConcurrencyUsage;
+import com.cognitree.kronos.scheduler.model.JobId;
 import com.cognitree.kronos.scheduler.model.Namespace;
+import com.cognitree.kronos.scheduler.model.NamespaceId;
+import com.cognitree.kronos.scheduler.util.PartitionedEventLoop;
+import com.cognitree.kronos.scheduler.util.TimingWheel;
+import com.cognitree.kronos.scheduler.util.TimingWheel.Timeout;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashMap;
-import java.util.LinkedHashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
+import java.util.stream.Collectors;
 
+import static com.codahale.metrics.MetricRegistry.name;
 import static com.cognitree.kronos.model.Messages.ABORTED_DEPENDEE_TASK_MESSAGE;
 import static com.cognitree.kronos.model.Messages.FAILED_DEPENDEE_TASK_MESSAGE;
 import static com.cognitree.kronos.model.Messages.FAILED_TO_RESOLVE_DEPENDENCY_MESSAGE;
@@ -53,16 +69,17 @@ import static com.cognitree.kronos.model.Messages.TIMED_OUT_EXECUTING_TASK_MESSA
 import static com.cognitree.kronos.model.Task.Status.ABORTED;
 import static com.cognitree.kronos.model.Task.Status.CREATED;
 import static com.cognitree.kronos.model.Task.Status.FAILED;
+import static com.cognitree.kronos.model.Task.Status.RUNNING;
 import static com.cognitree.kronos.model.Task.Status.SCHEDULED;
 import static com.cognitree.kronos.model.Task.Status.SKIPPED;
+import static com.cognitree.kronos.model.Task.Status.SUCCESSFUL;
 import static com.cognitree.kronos.model.Task.Status.TIMED_OUT;
 import static com.cognitree.kronos.model.Task.Status.UP_FOR_RETRY;
 import static com.cognitree.kronos.model.Task.Status.WAITING;
 import static com.cognitree.kronos.queue.QueueService.SCHEDULER_QUEUE;
-import static com.cognitree.kronos.scheduler.model.Constants.DYNAMIC_VAR_PREFIX;
-import static com.cognitree.kronos.scheduler.model.Constants.DYNAMIC_VAR_SUFFFIX;
+import static com.cognitree.kronos.scheduler.TaskProvider.getJobId;
 import static java.util.Comparator.comparing;
-import static java.util.concurrent.TimeUnit.HOURS;
+import static java.util.Comparator.comparingLong;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
@@ -73,15 +90,25 @@ import static java.util.concurrent.TimeUnit.SECONDS;
  * A task scheduler service acts as an producer of task to the queue and consumer of task status
  * from the queue
  * </p>
+ * <p>
+ * State of the tasks belonging to a job is changed only by the event loop owning the job, status updates, timeouts,
+ * new tasks and API calls are queued as commands to it. Jobs are partitioned across event loops so tasks of
+ * different jobs are handled in parallel without locks.
+ * </p>
  */
 final class TaskSchedulerService implements Service {
     private static final Logger logger = LoggerFactory.getLogger(TaskSchedulerService.class);
 
-    // Periodically, tasks older than the specified interval and status of workflow (job)
-    // it belongs to in one of the final state are purged from memory to prevent the system from going OOM.
-    // task purge interval in hour
-    private static final int TASK_PURGE_INTERVAL = 1;
+    // jobs with all its tasks in final state are evicted from memory once the configured retention period
+    // has elapsed to prevent the system from going OOM, expired jobs are checked for at this interval
+    private static final long COMPLETED_JOB_EVICTION_INTERVAL_IN_MS = 1000;
     private static final List<Status> NON_FINAL_TASK_STATUS_LIST = new ArrayList<>();
+    // number of buckets in the timing wheel used to time out tasks
+    private static final int TIMEOUT_TICKS_PER_WHEEL = 512;
+    // gauges for number of tasks in memory by status are published as kronos.scheduler.tasks.<status>
+    private static final String TASKS_METRIC_PREFIX = "kronos.scheduler.tasks";
+    // time in milliseconds taken to rebuild the in memory state from store on restart
+    private static final String TASK_PROVIDER_INIT_TIME_METRIC = "kronos.scheduler.restart.time";
 
     static {
         for (Status status : Status.values()) {
@@ -91,16 +118,36 @@ final class TaskSchedulerService implements Service {
         }
     }
 
-    private final Map<TaskId, ScheduledFuture<?>> taskTimeoutHandlersMap = new HashMap<>();
-    // used by internal tasks for printing the dag/ delete stale tasks/ executing timeout tasks
+    private final Map<TaskId, Timeout> taskTimeoutHandlersMap = new ConcurrentHashMap<>();
+    // tasks waiting on the timing wheel for their retry delay to elapse before being scheduled again
+    private final Map<TaskId, Timeout> delayedRetriesMap = new ConcurrentHashMap<>();
+    // status changes and scheduling of tasks are serialized per job, tasks of different jobs are handled in parallel
+    private final PartitionedEventLoop jobEventLoop =
+            new PartitionedEventLoop("task-scheduler", Runtime.getRuntime().availableProcessors());
+    // used by internal tasks for consuming task status updates/ evicting completed jobs/ executing timeout tasks
     private final ScheduledExecutorService scheduledExecutorService =
             Executors.newScheduledThreadPool(Runtime.getRuntime().availableProcessors());
     private final long pollIntervalInMs;
-
-    private final TaskProvider taskProvider = new TaskProvider();
-
-    public TaskSchedulerService(long pollIntervalInMs) {
+    private final TimingWheel timeoutTimingWheel;
+
+    private final TaskProvider taskProvider;
+    private final ConcurrencyLimiter concurrencyLimiter;
+    private final TaskDurationEstimator taskDurationEstimator = new TaskDurationEstimator();
+    // jobs having ready tasks held back on reaching the concurrency limits, rescheduled once a slot is released
+    private final Set<JobId> throttledJobs = ConcurrentHashMap.newKeySet();
+    // passes of namespaces and workflows across dispatch rounds, guarded by itself
+    private final FairShareQueue<JobId> fairShareQueue = new FairShareQueue<>();
+    // time taken to rebuild the task provider from store on start
+    private volatile long taskProviderInitTimeInMs;
+    private final PartitionHandler partitionHandler = new PartitionHandler();
+
+    public TaskSchedulerService(long pollIntervalInMs, long timeoutTickDurationInMs, long completedJobRetentionInMs,
+                                ConcurrencyConfig concurrencyConfig) {
         this.pollIntervalInMs = pollIntervalInMs;
+        this.taskProvider = new TaskProvider(completedJobRetentionInMs);
+        this.concurrencyLimiter = new ConcurrencyLimiter(concurrencyConfig);
+        this.timeoutTimingWheel = new TimingWheel("task-timeout-timer", timeoutTickDurationInMs,
+                TIMEOUT_TICKS_PER_WHEEL, scheduledExecutorService);
     }
 
     public static TaskSchedulerService getService() {
@@ -116,8 +163,8 @@ final class TaskSchedulerService implements Service {
      * Task scheduler service is started in an order to get back to the last known state
      * Initialization order:
      * <pre>
-     * 1) Initialize task provider
-     * 2) Subscribe for task status update
+     * 1) Initialize task provider with the tasks of the workflows owned by the node
+     * 2) Subscribe for task status update and change in ownership of the workflows
      * 3) Initialize configured timeout policies
      * 4) Initialize timeout task for all the active tasks
      * 5) Schedule tasks ready for execution
@@ -126,15 +173,31 @@ final class TaskSchedulerService implements Service {
     @Override
     public void start() throws Exception {
         logger.info("Starting task scheduler service");
+        jobEventLoop.start();
         reInitTaskProvider();
+        taskProvider.getTasks(Arrays.asList(SCHEDULED, RUNNING)).forEach(concurrencyLimiter::acquire);
+        ShardService.getService().registerListener(partitionHandler);
         startConsumer();
+        timeoutTimingWheel.start();
         startTimeoutTasks();
         resolveCreatedTasks();
-        scheduledExecutorService.scheduleAtFixedRate(this::deleteStaleTasks, TASK_PURGE_INTERVAL, TASK_PURGE_INTERVAL, HOURS);
+        scheduledExecutorService.scheduleWithFixedDelay(taskProvider::removeCompletedJobs,
+                COMPLETED_JOB_EVICTION_INTERVAL_IN_MS, COMPLETED_JOB_EVICTION_INTERVAL_IN_MS, MILLISECONDS);
+        registerMetrics();
         ServiceProvider.registerService(this);
         scheduleReadyTasks();
     }
 
+    /**
+     * returns the number of tasks in flight against the configured concurrency limits in a namespace
+     *
+     * @param namespace namespace name
+     * @return concurrency usage of the namespace
+     */
+    public ConcurrencyUsage getConcurrencyUsage(String namespace) {
+        return concurrencyLimiter.getUsage(namespace);
+    }
+
     /**
      * abort a task
      *
@@ -150,21 +213,47 @@ final class TaskSchedulerService implements Service {
             controlMessage.setAction(Action.ABORT);
             QueueService.getService(SCHEDULER_QUEUE).send(controlMessage);
         }
-        updateStatus(task.getIdentity(), ABORTED, Messages.TASK_ABORTED_MESSAGE);
+        runOnJobEventLoop(getJobId(task), () ->
+                updateStatus(task.getIdentity(), ABORTED, Messages.TASK_ABORTED_MESSAGE));
     }
 
-    private void reInitTaskProvider() throws ServiceException, ValidationException {
+    /**
+     * loads the tasks yet to reach final state of the workflows owned by the node from the store, namespaces are loaded and added to the
+     * task provider in parallel
+     */
+    private void reInitTaskProvider() throws ServiceException, ValidationException, InterruptedException {
         logger.info("Initializing task provider from task store");
+        final long startTime = System.currentTimeMillis();
         final List<Namespace> namespaces = NamespaceService.getService().get();
-        final List<Task> tasks = new ArrayList<>();
-        for (Namespace namespace : namespaces) {
-            tasks.addAll(TaskService.getService().get(namespace.getName(), NON_FINAL_TASK_STATUS_LIST));
-        }
-        if (!tasks.isEmpty()) {
-            tasks.sort(Comparator.comparing(Task::getCreatedAt));
-            tasks.forEach(taskProvider::add);
-            tasks.forEach(taskProvider::resolve);
+        final ShardService shardService = ShardService.getService();
+        if (!namespaces.isEmpty()) {
+            final ExecutorService executorService = Executors.newFixedThreadPool(
+                    Math.min(namespaces.size(), Runtime.getRuntime().availableProcessors()));
+            try {
+                final List<Future<?>> futures = new ArrayList<>();
+                for (Namespace namespace : namespaces) {
+                    futures.add(executorService.submit(() -> {
+                        taskProvider.addAll(TaskService.getService().load(namespace.getName(),
+                                NON_FINAL_TASK_STATUS_LIST).stream()
+                                .filter(task -> shardService.owns(task.getNamespace(), task.getWorkflow()))
+                                .collect(Collectors.toList()));
+                        return null;
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof ValidationException) {
+                    throw (ValidationException) e.getCause();
+                }
+                throw new ServiceException("unable to initialize task provider from task store", e.getCause());
+            } finally {
+                executorService.shutdownNow();
+            }
         }
+        taskProviderInitTimeInMs = System.currentTimeMillis() - startTime;
+        logger.info("Initialized task provider from task store in {} ms", taskProviderInitTimeInMs);
     }
 
     private void startConsumer() {
@@ -198,22 +287,23 @@ final class TaskSchedulerService implements Service {
             scheduledExecutorService.submit(timeoutTask);
         } else {
             logger.info("Initializing timeout task for task {}, scheduled at {}", task.getIdentity(), timeoutTaskTime);
-            final ScheduledFuture<?> timeoutTaskFuture =
-                    scheduledExecutorService.schedule(timeoutTask, timeoutTaskTime - currentTimeMillis, MILLISECONDS);
-            taskTimeoutHandlersMap.put(task.getIdentity(), timeoutTaskFuture);
+            final Timeout timeout =
+                    timeoutTimingWheel.schedule(timeoutTask, timeoutTaskTime - currentTimeMillis, MILLISECONDS);
+            taskTimeoutHandlersMap.put(task.getIdentity(), timeout);
         }
     }
 
     private void resolveCreatedTasks() {
         final List<Task> tasks = taskProvider.getTasks(Collections.singletonList(CREATED));
         tasks.sort(comparing(Task::getCreatedAt));
-        tasks.forEach(this::resolve);
+        tasks.forEach(task -> runOnJobEventLoop(getJobId(task), () -> resolve(task)));
     }
 
     private void consumeTaskStatusUpdates() {
         final List<TaskStatusUpdate> taskStatusUpdates;
         try {
-            taskStatusUpdates = QueueService.getService(SCHEDULER_QUEUE).consumeTaskStatusUpdates();
+            taskStatusUpdates = QueueService.getService(SCHEDULER_QUEUE)
+                    .consumeTaskStatusUpdates(ShardService.getService().getOwnedPartitions());
         } catch (ServiceException e) {
             logger.error("Error consuming task status updates", e);
             return;
@@ -225,17 +315,116 @@ final class TaskSchedulerService implements Service {
     }
 
     /**
-     * deletes all the stale tasks from memory older than task purge interval
+     * loads the tasks yet to reach final state of the workflows belonging to the partitions taken over from the store
+     * and resumes them as on restart
+     */
+    private void takeOver(Set<Integer> partitions) {
+        logger.info("Taking over tasks of partitions {}", partitions);
+        final ShardService shardService = ShardService.getService();
+        final Map<JobId, List<Task>> tasksByJob = new HashMap<>();
+        try {
+            for (Namespace namespace : NamespaceService.getService().get()) {
+                for (Task task : TaskService.getService().load(namespace.getName(), NON_FINAL_TASK_STATUS_LIST)) {
+                    if (partitions.contains(shardService.getPartition(task.getNamespace(), task.getWorkflow()))) {
+                        tasksByJob.computeIfAbsent(getJobId(task), jobId -> new ArrayList<>()).add(task);
+                    }
+                }
+            }
+        } catch (ServiceException e) {
+            logger.error("Error loading tasks of partitions {} from store", partitions, e);
+            return;
+        }
+        tasksByJob.forEach((jobId, tasks) -> runOnJobEventLoop(jobId, () -> {
+            final List<Task> addedTasks = taskProvider.addAll(jobId, tasks);
+            for (Task task : addedTasks) {
+                if (task.getStatus() == SCHEDULED || task.getStatus() == RUNNING) {
+                    concurrencyLimiter.acquire(task);
+                }
+                if (task.getStatus() == RUNNING) {
+                    createTimeoutTask(task);
+                }
+            }
+            addedTasks.stream()
+                    .filter(task -> task.getStatus() == CREATED)
+                    .sorted(comparing(Task::getCreatedAt))
+                    .forEach(this::resolve);
+            scheduleReadyTasks(jobId);
+        }));
+    }
+
+    /**
+     * removes the tasks of the workflows belonging to the partitions given up along with their timeouts, the
+     * concurrency slots and the job task counters held by them, each job is handed off on its event loop
      */
-    private void deleteStaleTasks() {
-        taskProvider.removeStaleTasks(HOURS.toMillis(TASK_PURGE_INTERVAL));
+    private void handOff(Set<Integer> partitions) {
+        logger.info("Handing off tasks of partitions {}", partitions);
+        final ShardService shardService = ShardService.getService();
+        final List<JobId> jobIds = taskProvider.getJobIds(jobId ->
+                partitions.contains(shardService.getPartition(jobId.getNamespace(), jobId.getWorkflow())));
+        for (JobId jobId : jobIds) {
+            jobEventLoop.execute(jobId, () -> {
+                for (Task task : taskProvider.removeJob(jobId)) {
+                    final Timeout timeout = taskTimeoutHandlersMap.remove(task.getIdentity());
+                    if (timeout != null) {
+                        timeout.cancel();
+                    }
+                    final Timeout delayedRetry = delayedRetriesMap.remove(task.getIdentity());
+                    if (delayedRetry != null) {
+                        delayedRetry.cancel();
+                    }
+                    concurrencyLimiter.release(task);
+                }
+                throttledJobs.remove(jobId);
+                TaskService.getService().evictJobTaskCounters(jobId);
+            });
+        }
     }
 
-    synchronized void schedule(Task task) {
-        logger.info("Received request to schedule task: {}", task.getIdentity());
-        final boolean isAdded = taskProvider.add(task);
-        if (isAdded) {
-            resolve(task);
+    private void registerMetrics() {
+        final MetricRegistry metricRegistry = SchedulerMetrics.getRegistry();
+        for (Status status : Status.values()) {
+            metricRegistry.register(name(TASKS_METRIC_PREFIX, status.name().toLowerCase()),
+                    (Gauge<Integer>) () -> taskProvider.size(status));
+        }
+        metricRegistry.register(TASK_PROVIDER_INIT_TIME_METRIC, (Gauge<Long>) () -> taskProviderInitTimeInMs);
+    }
+
+    /**
+     * schedules all the tasks of a newly created job, the tasks along with the dependencies among them are added to
+     * the provider in one go
+     *
+     * @param jobId id of the job
+     * @param tasks tasks of the job
+     */
+    void scheduleAll(JobId jobId, List<Task> tasks) {
+        logger.info("Received request to schedule {} tasks of job {}", tasks.size(), jobId);
+        runOnJobEventLoop(jobId, () -> {
+            final Set<String> taskNames = new HashSet<>();
+            tasks.forEach(task -> taskNames.add(task.getName()));
+            for (Task task : taskProvider.addAll(jobId, tasks)) {
+                if (task.getDependsOn() == null || taskNames.containsAll(task.getDependsOn())) {
+                    updateStatus(task.getIdentity(), WAITING, null);
+                } else {
+                    logger.error("Unable to resolve dependency for task {}, marking it as {}",
+                            task.getIdentity(), FAILED);
+                    updateStatus(task.getIdentity(), FAILED, FAILED_TO_RESOLVE_DEPENDENCY_MESSAGE);
+                }
+            }
+        });
+    }
+
+    /**
+     * runs the command on the event loop owning the job and waits for it to complete, unless called from an event
+     * loop in which case the command is queued to avoid event loops waiting on each other
+     */
+    private void runOnJobEventLoop(JobId jobId, Runnable command) {
+        if (jobEventLoop.inEventLoop()) {
+            jobEventLoop.execute(jobId, command);
+        } else {
+            jobEventLoop.call(jobId, () -> {
+                command.run();
+                return null;
+            });
         }
     }
 
@@ -257,23 +446,42 @@ final class TaskSchedulerService implements Service {
                               Map<String, Object> context) {
         logger.info("Received request to update status of task {} to {} with status message {}",
                 taskId, status, statusMessage);
-        final Task task = taskProvider.getTask(taskId);
-        if (task == null) {
-            logger.error("No task found with id {}", taskId);
-            return;
-        }
-        try {
-            boolean statusUpdated = TaskService.getService().updateStatus(task, status, statusMessage, context);
-            if (statusUpdated) {
-                handleTaskStatusChange(task);
+        jobEventLoop.execute(getJobId(taskId), () -> {
+            final Task task = taskProvider.getTask(taskId);
+            if (task == null) {
+                logger.error("No task found with id {}", taskId);
+                return;
             }
+            updateStatus(task, status, statusMessage, context);
+        });
+    }
+
+    private void updateStatus(Task task, Status status, String statusMessage, Map<String, Object> context) {
+        final boolean statusUpdated;
+        try {
+            statusUpdated = TaskService.getService().updateStatus(task, status, statusMessage, context);
         } catch (ServiceException e) {
             logger.error("Error updating status of task {} to {} with status message {}",
                     task.getIdentity(), status, statusMessage, e);
+            return;
+        } finally {
+            // task status is updated in place, keep the provider indexes in sync even if the update failed midway
+            taskProvider.statusChanged(task);
+        }
+        if (statusUpdated) {
+            handleTaskStatusChange(task);
         }
     }
 
     private void handleTaskStatusChange(Task task) {
+        if (task.getStatus() != SCHEDULED && task.getStatus() != RUNNING && concurrencyLimiter.release(task)
+                && !throttledJobs.isEmpty()) {
+            // scheduled on a separate thread as the event loop of this job can not wait on the event loops of others
+            scheduledExecutorService.submit(this::scheduleThrottledJobs);
+        }
+        if (task.getStatus() == SUCCESSFUL) {
+            taskDurationEstimator.record(task);
+        }
         switch (task.getStatus()) {
             case CREATED:
                 break;
@@ -286,17 +494,21 @@ final class TaskSchedulerService implements Service {
             case TIMED_OUT:
             case FAILED:
             case ABORTED:
+                final Timeout delayedRetry = delayedRetriesMap.remove(task.getIdentity());
+                if (delayedRetry != null) {
+                    delayedRetry.cancel();
+                }
                 markDependentTasksAsSkipped(task);
                 // do not break
             case SUCCESSFUL:
             case UP_FOR_RETRY:
-                final ScheduledFuture<?> taskTimeoutFuture = taskTimeoutHandlersMap.remove(task.getIdentity());
-                if (taskTimeoutFuture != null) {
-                    taskTimeoutFuture.cancel(false);
+                final Timeout timeout = taskTimeoutHandlersMap.remove(task.getIdentity());
+                if (timeout != null) {
+                    timeout.cancel();
                 }
                 // If the task is finished (reached terminal state), proceed to schedule the next set of tasks
             case WAITING:
-                scheduleReadyTasks();
+                scheduleReadyTasks(getJobId(task));
                 break;
         }
     }
@@ -323,25 +535,179 @@ final class TaskSchedulerService implements Service {
     }
 
     /**
-     * submit tasks ready for execution to queue
+     * submit tasks ready for execution across all the jobs to queue
      */
-    private synchronized void scheduleReadyTasks() {
-        final List<Task> readyTasks = taskProvider.getReadyTasks();
-        for (Task task : readyTasks) {
-            logger.info("Scheduling task {} for execution", task);
-            try {
-                // update dynamic task properties from the tasks it depends on before scheduling
-                // only if the task is not being retried
-                if (task.getStatus() != UP_FOR_RETRY) {
-                    updateTaskProperties(task);
+    private void scheduleReadyTasks() {
+        scheduleReadyTasks(taskProvider.getReadyTasks().stream()
+                .map(TaskProvider::getJobId)
+                .distinct()
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * submit tasks held back on reaching the concurrency limits to queue
+     */
+    private void scheduleThrottledJobs() {
+        final List<JobId> jobIds = new ArrayList<>();
+        for (JobId jobId : throttledJobs) {
+            if (throttledJobs.remove(jobId)) {
+                jobIds.add(jobId);
+            }
+        }
+        scheduleReadyTasks(jobIds);
+    }
+
+    /**
+     * submit tasks ready for execution belonging to the given jobs to queue one task at a time in a weighted fair
+     * share across namespaces and then across workflows, so that a namespace with a wide job does not starve
+     * the others of the slots left within the concurrency limits.
+     * <p>
+     * The fair share queue is kept across rounds, when a shared limit is saturated each freed slot starts a new round
+     * and the slot goes to the namespace furthest behind its share.
+     * </p>
+     */
+    private void scheduleReadyTasks(Collection<JobId> jobIds) {
+        final Map<String, Integer> namespaceWeights = new HashMap<>();
+        synchronized (fairShareQueue) {
+            for (JobId jobId : jobIds) {
+                fairShareQueue.add(jobId.getNamespace(), getNamespaceWeight(jobId.getNamespace(), namespaceWeights),
+                        jobId.getWorkflow(), jobId);
+            }
+            final Map<JobId, Iterator<Task>> readyTasksByJob = new HashMap<>();
+            while (!fairShareQueue.isEmpty()) {
+                final JobId jobId = fairShareQueue.poll(id -> scheduleNextReadyTask(id,
+                        readyTasksByJob.computeIfAbsent(id, key -> getReadyTasks(key).iterator())));
+                if (readyTasksByJob.get(jobId).hasNext() && !throttledJobs.contains(jobId)) {
+                    fairShareQueue.add(jobId.getNamespace(), namespaceWeights.get(jobId.getNamespace()),
+                            jobId.getWorkflow(), jobId);
                 }
-                QueueService.getService(SCHEDULER_QUEUE).send(task);
-                updateStatus(task.getIdentity(), SCHEDULED, null);
+            }
+        }
+    }
+
+    private int getNamespaceWeight(String name, Map<String, Integer> namespaceWeights) {
+        return namespaceWeights.computeIfAbsent(name, key -> {
+            try {
+                final Namespace namespace = NamespaceService.getService().get(NamespaceId.build(name));
+                return namespace == null ? 1 : namespace.getWeight();
             } catch (ServiceException e) {
-                logger.error("Error scheduling task {} for execution", task.getIdentity(), e);
-                updateStatus(task.getIdentity(), FAILED, TASK_SCHEDULING_FAILED_MESSAGE);
+                logger.error("Error retrieving namespace {}, assuming default weight", name, e);
+                return 1;
+            }
+        });
+    }
+
+    /**
+     * submit the next task ready for execution belonging to the given job to queue
+     *
+     * @return true if a task was submitted
+     */
+    private boolean scheduleNextReadyTask(JobId jobId, Iterator<Task> readyTasks) {
+        return jobEventLoop.call(jobId, () -> {
+            while (readyTasks.hasNext()) {
+                if (scheduleReadyTask(readyTasks.next())) {
+                    return true;
+                }
+                if (throttledJobs.contains(jobId)) {
+                    return false;
+                }
+            }
+            return false;
+        });
+    }
+
+    /**
+     * submit tasks ready for execution belonging to the given job to queue
+     */
+    private void scheduleReadyTasks(JobId jobId) {
+        if (!throttledJobs.isEmpty()) {
+            // other jobs are waiting for a slot, let the fair share dispatch decide who gets the next one
+            throttledJobs.add(jobId);
+            scheduledExecutorService.submit(this::scheduleThrottledJobs);
+            return;
+        }
+        jobEventLoop.execute(jobId, () -> {
+            for (Task task : getReadyTasks(jobId)) {
+                scheduleReadyTask(task);
             }
+        });
+    }
+
+    /**
+     * return tasks ready for execution belonging to the given job, longest remaining critical path first.
+     * <p>
+     * Length of the remaining critical path is set as the task priority so that executors pick the tasks which
+     * stretch the job the most first.
+     * </p>
+     */
+    private List<Task> getReadyTasks(JobId jobId) {
+        final List<Task> readyTasks = taskProvider.getReadyTasks(jobId);
+        if (readyTasks.isEmpty()) {
+            return readyTasks;
         }
+        final Map<Task, Long> remainingPathLengths =
+                taskProvider.getRemainingPathLengths(jobId, taskDurationEstimator::estimate);
+        readyTasks.forEach(task -> task.setPriority(remainingPathLengths.getOrDefault(task, 0L)));
+        readyTasks.sort(comparingLong(Task::getPriority).reversed());
+        return readyTasks;
+    }
+
+    /**
+     * submit the task to queue if it is ready for execution
+     *
+     * @return true if the task was submitted or failed to be submitted
+     */
+    private boolean scheduleReadyTask(Task task) {
+        // task might have been scheduled by a nested status change while iterating the ready tasks
+        if (task.getStatus() != WAITING && task.getStatus() != UP_FOR_RETRY) {
+            return false;
+        }
+        if (task.getStatus() == UP_FOR_RETRY && isRetryDelayed(task)) {
+            return false;
+        }
+        if (!concurrencyLimiter.tryAcquire(task)) {
+            logger.debug("Concurrency limit reached, holding back task {}", task.getIdentity());
+            throttledJobs.add(getJobId(task));
+            return false;
+        }
+        logger.info("Scheduling task {} for execution", task);
+        try {
+            // update dynamic task properties from the tasks it depends on before scheduling
+            // only if the task is not being retried
+            if (task.getStatus() != UP_FOR_RETRY) {
+                updateTaskProperties(task);
+            }
+            QueueService.getService(SCHEDULER_QUEUE).send(task);
+            updateStatus(task, SCHEDULED, null, null);
+        } catch (ServiceException e) {
+            logger.error("Error scheduling task {} for execution", task.getIdentity(), e);
+            updateStatus(task, FAILED, TASK_SCHEDULING_FAILED_MESSAGE, null);
+        }
+        return true;
+    }
+
+    /**
+     * checks if the retry delay of the task is yet to elapse, in which case the task is parked on the timing wheel
+     * and the job is rescheduled once the delay elapses instead of blocking the dispatch of other tasks
+     *
+     * @param task
+     * @return
+     */
+    private boolean isRetryDelayed(Task task) {
+        final Long retryAt = task.getRetryAt();
+        final long delay = retryAt == null ? 0 : retryAt - System.currentTimeMillis();
+        if (delay <= 0) {
+            delayedRetriesMap.remove(task.getIdentity());
+            return false;
+        }
+        delayedRetriesMap.computeIfAbsent(task.getIdentity(), taskId -> {
+            logger.info("Delaying retry of task {} by {} ms", taskId, delay);
+            return timeoutTimingWheel.schedule(() -> {
+                delayedRetriesMap.remove(taskId);
+                scheduleReadyTasks(getJobId(task));
+            }, delay, MILLISECONDS);
+        });
+        return true;
     }
 
     /**
@@ -356,27 +722,10 @@ final class TaskSchedulerService implements Service {
      * @param task
      */
     private void updateTaskProperties(Task task) {
-        final Map<String, Object> dependentTaskContext = getDependentTaskContext(task);
+        final Map<String, Object> dependentTaskContext = taskProvider.getUpstreamContext(task);
         updateTaskProperties(task, dependentTaskContext);
     }
 
-    private Map<String, Object> getDependentTaskContext(Task task) {
-        final List<String> dependsOn = task.getDependsOn();
-        final Map<String, Object> dependentTaskContext = new LinkedHashMap<>();
-        for (String dependentTaskName : dependsOn) {
-            TaskId dependentTaskId = TaskId.build(task.getNamespace(), dependentTaskName, task.getJob(), task.getWorkflow());
-            Task dependentTask = taskProvider.getTask(dependentTaskId);
-            if (dependentTask != null) {
-                if (dependentTask.getContext() != null && !dependentTask.getContext().isEmpty()) {
-                    dependentTask.getContext().forEach((key, value) ->
-                            dependentTaskContext.put(dependentTask.getName() + "." + key, value));
-                }
-                dependentTaskContext.putAll(getDependentTaskContext(dependentTask));
-            }
-        }
-        return dependentTaskContext;
-    }
-
     /**
      * update task properties from the dependent task context
      * <p>
@@ -391,47 +740,44 @@ final class TaskSchedulerService implements Service {
         if (dependentTaskContext == null || dependentTaskContext.isEmpty()) {
             return;
         }
-        final Map<String, Object> modifiedTaskProperties =
-                modifyAndGetTaskProperties(task.getProperties(), dependentTaskContext);
-        task.setProperties(modifiedTaskProperties);
-    }
-
-    private HashMap<String, Object> modifyAndGetTaskProperties(Map<String, Object> taskProperties,
-                                                               Map<String, Object> dependentTaskContext) {
-        final HashMap<String, Object> modifiedTaskProperties = new HashMap<>();
-        taskProperties.forEach((key, value) -> {
-            if (value instanceof String &&
-                    ((String) value).startsWith(DYNAMIC_VAR_PREFIX) &&
-                    ((String) value).endsWith(DYNAMIC_VAR_SUFFFIX)) {
-                final String valueToReplace = ((String) value).substring(DYNAMIC_VAR_PREFIX.length(),
-                        ((String) value).length() - DYNAMIC_VAR_SUFFFIX.length()).trim();
-                if (dependentTaskContext.containsKey(valueToReplace)) {
-                    modifiedTaskProperties.put(key, dependentTaskContext.get(valueToReplace));
-                } else {
-                    // no dynamic property found to replace, setting it to null
-                    logger.warn("No dynamic property found in dependent task context to replace key: {}," +
-                            " setting it to null", key);
-                    modifiedTaskProperties.put(key, null);
-                }
-            } else if (value instanceof Map) {
-                modifiedTaskProperties.put(key, modifyAndGetTaskProperties((Map<String, Object>) value, dependentTaskContext));
-            } else {
-                // copy the remaining key value pair as it is from current task properties
-                modifiedTaskProperties.put(key, value);
-            }
-        });
-        return modifiedTaskProperties;
+        // template of the latest plan is reused only if the task is created from the same version of the workflow
+        PropertyTemplate propertyTemplate = WorkflowService.getService().getPropertyTemplate(task.getNamespace(),
+                task.getWorkflow(), task.getName(), task.getPlanVersion());
+        if (propertyTemplate == null) {
+            propertyTemplate = PropertyTemplate.compile(task.getProperties());
+        }
+        task.setProperties(propertyTemplate.bindContext(task.getProperties(), dependentTaskContext));
     }
 
     @Override
     public void stop() {
         logger.info("Stopping task scheduler service");
+        if (ShardService.getService() != null) {
+            ShardService.getService().deregisterListener(partitionHandler);
+        }
+        SchedulerMetrics.getRegistry().removeMatching((name, metric) ->
+                name.startsWith(TASKS_METRIC_PREFIX) || name.equals(TASK_PROVIDER_INIT_TIME_METRIC));
+        timeoutTimingWheel.stop();
         try {
             scheduledExecutorService.shutdown();
             scheduledExecutorService.awaitTermination(10, SECONDS);
         } catch (InterruptedException e) {
             logger.error("Error stopping thread pool", e);
         }
+        jobEventLoop.stop();
+    }
+
+    private class PartitionHandler implements PartitionChangeListener {
+
+        @Override
+        public void partitionsAssigned(Set<Integer> partitions) {
+            takeOver(partitions);
+        }
+
+        @Override
+        public void partitionsRevoked(Set<Integer> partitions) {
+            handOff(partitions);
+        }
     }
 
     private class TimeoutTask implements Runnable {
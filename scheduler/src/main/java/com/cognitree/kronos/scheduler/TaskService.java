@@ -25,6 +25,8 @@ import com.cognitree.kronos.model.RetryPolicy;
 import com.cognitree.kronos.model.Task;
 import com.cognitree.kronos.model.Task.Status;
 import com.cognitree.kronos.model.TaskId;
+import com.cognitree.kronos.scheduler.ListenerConfig.OverflowPolicy;
+import com.cognitree.kronos.scheduler.model.ConcurrencyUsage;
 import com.cognitree.kronos.scheduler.model.Job;
 import com.cognitree.kronos.scheduler.model.JobId;
 import com.cognitree.kronos.scheduler.model.Namespace;
@@ -38,14 +40,13 @@ import com.cognitree.kronos.scheduler.store.TaskStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
-import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
 
 import static com.cognitree.kronos.model.Task.Status.ABORTED;
 import static com.cognitree.kronos.model.Task.Status.CREATED;
@@ -61,16 +62,19 @@ import static com.cognitree.kronos.scheduler.ValidationError.JOB_NOT_FOUND;
 import static com.cognitree.kronos.scheduler.ValidationError.NAMESPACE_NOT_FOUND;
 import static com.cognitree.kronos.scheduler.ValidationError.TASK_NOT_FOUND;
 import static com.cognitree.kronos.scheduler.ValidationError.WORKFLOW_NOT_FOUND;
-import static com.cognitree.kronos.scheduler.model.Constants.DYNAMIC_VAR_PREFIX;
-import static com.cognitree.kronos.scheduler.model.Constants.DYNAMIC_VAR_SUFFFIX;
-import static com.cognitree.kronos.scheduler.model.Constants.WORKFLOW_NAMESPACE_PREFIX;
 
 public class TaskService implements Service {
     private static final Logger logger = LoggerFactory.getLogger(TaskService.class);
 
-    private final Set<TaskStatusChangeListener> statusChangeListeners = new HashSet<>();
+    private final ListenerEventBus<TaskStatusChangeListener> statusChangeEventBus;
+    // task counters of the jobs with tasks not yet in final state, loaded from store on first access for a job
+    private final Map<JobId, JobTaskCounters> jobTaskCountersMap = new ConcurrentHashMap<>();
     private TaskStore taskStore;
 
+    public TaskService(ListenerConfig listenerConfig) {
+        statusChangeEventBus = new ListenerEventBus<>("task-status-change", listenerConfig);
+    }
+
     public static TaskService getService() {
         return (TaskService) ServiceProvider.getService(TaskService.class.getSimpleName());
     }
@@ -92,7 +96,18 @@ public class TaskService implements Service {
      * @param statusChangeListener
      */
     public void registerListener(TaskStatusChangeListener statusChangeListener) {
-        statusChangeListeners.add(statusChangeListener);
+        statusChangeEventBus.register(statusChangeListener);
+    }
+
+    /**
+     * register a listener to receive task status change notifications, notifications overflowing the listener queue
+     * are handled as per the given policy instead of the configured one
+     *
+     * @param statusChangeListener
+     * @param overflowPolicy
+     */
+    public void registerListener(TaskStatusChangeListener statusChangeListener, OverflowPolicy overflowPolicy) {
+        statusChangeEventBus.register(statusChangeListener, overflowPolicy);
     }
 
     /**
@@ -101,80 +116,67 @@ public class TaskService implements Service {
      * @param statusChangeListener
      */
     public void deRegisterListener(TaskStatusChangeListener statusChangeListener) {
-        statusChangeListeners.remove(statusChangeListener);
+        statusChangeEventBus.deregister(statusChangeListener);
     }
 
     /**
-     * creates a task instance from workflow task.
+     * creates the task instances of a job from the plans of the workflow tasks and stores them in one batch.
+     * Internal entry point for the scheduler, the job is expected to exist and is not validated.
      *
-     * @param namespace          namespace of the task
-     * @param workflowTask       task definition
-     * @param jobId              id of the job task belongs to
-     * @param workflowName       name of the workflow task belongs to
-     * @param workflowProperties workflow properties to be updated in task
-     * @return
+     * @param namespace          namespace of the tasks
+     * @param workflowPlan       plan of the workflow to create the tasks from
+     * @param jobId              id of the job tasks belongs to
+     * @param workflowName       name of the workflow tasks belongs to
+     * @param workflowProperties workflow properties to be updated in tasks
+     * @return tasks created in the order of the task plans
      * @throws ServiceException
-     * @throws ValidationException
      */
-    Task create(String namespace, WorkflowTask workflowTask, String jobId, String workflowName,
-                Map<String, Object> workflowProperties)
-            throws ServiceException, ValidationException {
-        logger.info("Received request to create task from workflow task {} for job {}, workflow {} under namespace {}",
-                workflowTask, jobId, workflowName, namespace);
-        validateJob(namespace, jobId, workflowName);
-        Task task = new Task();
-        task.setName(UUID.randomUUID().toString());
+    List<Task> createAll(String namespace, WorkflowPlan workflowPlan, String jobId, String workflowName,
+                         Map<String, Object> workflowProperties) throws ServiceException {
+        final List<WorkflowPlan.TaskPlan> taskPlans = workflowPlan.getTaskPlans();
+        logger.info("Received request to create {} tasks for job {}, workflow {} under namespace {}",
+                taskPlans.size(), jobId, workflowName, namespace);
+        final long createdAt = System.currentTimeMillis();
+        final List<Task> tasks = new ArrayList<>(taskPlans.size());
+        for (WorkflowPlan.TaskPlan taskPlan : taskPlans) {
+            final Task task = buildTask(namespace, taskPlan, jobId, workflowName, workflowProperties, createdAt);
+            task.setPlanVersion(workflowPlan.getVersion());
+            tasks.add(task);
+        }
+        try {
+            taskStore.storeAll(tasks);
+        } catch (StoreException e) {
+            logger.error("unable to add tasks for job {}, workflow {} under namespace {}",
+                    jobId, workflowName, namespace, e);
+            throw new ServiceException(e.getMessage(), e.getCause());
+        }
+        // the job is new, its counters start from the tasks just created instead of being loaded from store
+        final JobTaskCounters jobTaskCounters = new JobTaskCounters();
+        tasks.forEach(task -> jobTaskCounters.taskAdded(task.getStatus()));
+        jobTaskCountersMap.put(JobId.build(namespace, jobId, workflowName), jobTaskCounters);
+        return tasks;
+    }
+
+    private Task buildTask(String namespace, WorkflowPlan.TaskPlan taskPlan, String jobId, String workflowName,
+                           Map<String, Object> workflowProperties, long createdAt) {
+        final WorkflowTask workflowTask = taskPlan.getWorkflowTask();
+        final Task task = new Task();
         task.setJob(jobId);
         task.setWorkflow(workflowName);
         task.setName(workflowTask.getName());
         task.setNamespace(namespace);
         task.setType(workflowTask.getType());
-        task.setPolicies(workflowTask.getPolicies());
+        // the workflow task is shared by all the jobs created from the plan
+        task.setPolicies(workflowTask.getPolicies() == null ?
+                new ArrayList<>() : new ArrayList<>(workflowTask.getPolicies()));
         task.setMaxExecutionTimeInMs(workflowTask.getMaxExecutionTimeInMs());
-        task.setDependsOn(workflowTask.getDependsOn());
-        final Map<String, Object> taskProperties = modifyAndGetTaskProperties(workflowTask.getProperties(), workflowProperties);
-        task.setProperties(taskProperties);
-        task.setCreatedAt(System.currentTimeMillis());
-        try {
-            taskStore.store(task);
-        } catch (StoreException e) {
-            logger.error("unable to add task {}", task.getIdentity(), e);
-            throw new ServiceException(e.getMessage(), e.getCause());
-        }
+        task.setDependsOn(workflowTask.getDependsOn() == null ?
+                new ArrayList<>() : new ArrayList<>(workflowTask.getDependsOn()));
+        task.setProperties(taskPlan.getPropertyTemplate().bindWorkflowProperties(workflowProperties));
+        task.setCreatedAt(createdAt);
         return task;
     }
 
-    /**
-     * Updates dynamic workflow task property defined at a workflow level as ${workflow.prop_name}
-     *
-     * @param taskProperties
-     * @param propertiesToOverride
-     * @return
-     */
-    private Map<String, Object> modifyAndGetTaskProperties(Map<String, Object> taskProperties,
-                                                           Map<String, Object> propertiesToOverride) {
-        final HashMap<String, Object> modifiedTaskProperties = new HashMap<>();
-        for (Map.Entry<String, Object> entry : taskProperties.entrySet()) {
-            final Object value = entry.getValue();
-            if (value instanceof String &&
-                    ((String) value).startsWith(DYNAMIC_VAR_PREFIX) &&
-                    ((String) value).endsWith(DYNAMIC_VAR_SUFFFIX) &&
-                    ((String) value).contains(WORKFLOW_NAMESPACE_PREFIX)) {
-                String valueToReplace = ((String) value).substring(DYNAMIC_VAR_PREFIX.length(),
-                        ((String) value).length() - DYNAMIC_VAR_SUFFFIX.length()).trim();
-                valueToReplace = valueToReplace.substring(WORKFLOW_NAMESPACE_PREFIX.length());
-                modifiedTaskProperties.put(entry.getKey(), propertiesToOverride.get(valueToReplace));
-            } else if (value instanceof Map) {
-                final Map<String, Object> nestedProperties =
-                        modifyAndGetTaskProperties((Map<String, Object>) value, propertiesToOverride);
-                modifiedTaskProperties.put(entry.getKey(), nestedProperties);
-            } else {
-                modifiedTaskProperties.put(entry.getKey(), value);
-            }
-        }
-        return modifiedTaskProperties;
-    }
-
     public List<Task> get(String namespace) throws ServiceException, ValidationException {
         logger.debug("Received request to get all tasks under namespace {}", namespace);
         validateNamespace(namespace);
@@ -190,6 +192,14 @@ public class TaskService implements Service {
     public Task get(TaskId taskId) throws ServiceException, ValidationException {
         logger.debug("Received request to get task {}", taskId);
         validateJob(taskId.getNamespace(), taskId.getJob(), taskId.getWorkflow());
+        return load(taskId);
+    }
+
+    /**
+     * loads the task skipping the validation of its namespace, workflow and job. Internal entry point for the
+     * scheduler and the listeners handling ids known to exist.
+     */
+    Task load(TaskId taskId) throws ServiceException {
         try {
             return taskStore.load(taskId);
         } catch (StoreException e) {
@@ -202,6 +212,14 @@ public class TaskService implements Service {
         logger.debug("Received request to get all tasks with job id {} for workflow {} under namespace {}",
                 jobId, workflowName, namespace);
         validateJob(namespace, jobId, workflowName);
+        return load(namespace, jobId, workflowName);
+    }
+
+    /**
+     * loads all the tasks of the job skipping the validation of its namespace, workflow and job. Internal entry point
+     * for the scheduler and the listeners handling ids known to exist.
+     */
+    List<Task> load(String namespace, String jobId, String workflowName) throws ServiceException {
         try {
             final List<Task> tasks = taskStore.loadByJobIdAndWorkflowName(namespace, jobId, workflowName);
             return tasks == null ? Collections.emptyList() : tasks;
@@ -216,6 +234,14 @@ public class TaskService implements Service {
         logger.debug("Received request to get all tasks having status in {} under namespace {}",
                 statuses, namespace);
         validateNamespace(namespace);
+        return load(namespace, statuses);
+    }
+
+    /**
+     * loads all the tasks under the namespace having status in the given list skipping the validation of the
+     * namespace. Internal entry point for the scheduler.
+     */
+    List<Task> load(String namespace, List<Status> statuses) throws ServiceException {
         try {
             final List<Task> tasks = taskStore.loadByStatus(namespace, statuses);
             return tasks == null ? Collections.emptyList() : tasks;
@@ -240,6 +266,14 @@ public class TaskService implements Service {
             throw TASK_NOT_FOUND.createException(taskId.getName(), taskId.getJob(),
                     taskId.getWorkflow(), taskId.getNamespace());
         }
+        abort(task);
+    }
+
+    /**
+     * aborts the task skipping the validation of its namespace, workflow and job. Internal entry point for the
+     * scheduler.
+     */
+    void abort(Task task) throws ServiceException, ValidationException {
         if (task.getStatus().isFinal()) {
             logger.warn("Task {} is already in its final state {}", task.getIdentity(), task.getStatus());
             return;
@@ -250,6 +284,12 @@ public class TaskService implements Service {
         TaskSchedulerService.getService().abort(task);
     }
 
+    public ConcurrencyUsage getConcurrencyUsage(String namespace) throws ServiceException, ValidationException {
+        logger.debug("Received request to get concurrency usage under namespace {}", namespace);
+        validateNamespace(namespace);
+        return TaskSchedulerService.getService().getConcurrencyUsage(namespace);
+    }
+
     public Map<Status, Integer> countByStatus(String namespace, long createdAfter, long createdBefore)
             throws ServiceException, ValidationException {
         logger.debug("Received request to count tasks by status under namespace {} created between {} to {}",
@@ -296,12 +336,18 @@ public class TaskService implements Service {
                 return updateStatus(task, UP_FOR_RETRY, null, context);
             }
 
+            // counters are loaded before the task is updated in store so that the update is not counted twice
+            final JobTaskCounters jobTaskCounters =
+                    getJobTaskCounters(JobId.build(task.getNamespace(), task.getJob(), task.getWorkflow()));
             task.setStatus(status);
             task.setStatusMessage(statusMessage);
             task.setContext(context);
             switch (status) {
                 case UP_FOR_RETRY:
                     task.setRetryCount(task.getRetryCount() + 1);
+                    final long retryDelay = getRetryPolicy(task)
+                            .map(retryPolicy -> getRetryDelay(retryPolicy, task.getRetryCount())).orElse(0L);
+                    task.setRetryAt(System.currentTimeMillis() + retryDelay);
                     break;
                 case RUNNING:
                     // reset the submitted time on retry
@@ -316,6 +362,7 @@ public class TaskService implements Service {
                     break;
             }
             taskStore.update(task);
+            jobTaskCounters.statusChanged(currentStatus, status);
             notifyListeners(task, currentStatus, status);
         } catch (StoreException e) {
             logger.error("unable to update task {} status to {} with status message {}",
@@ -359,10 +406,9 @@ public class TaskService implements Service {
      */
     private boolean isRetryEnabled(Task task, Status desiredStatus) {
         /* Also ensure that the retry count is less than max retry count */
-        Optional<Policy> retryPolicyOpt = task.getPolicies().stream()
-                .filter(t -> t.getType() == Policy.Type.retry).findFirst();
+        Optional<RetryPolicy> retryPolicyOpt = getRetryPolicy(task);
         if (retryPolicyOpt.isPresent()) {
-            RetryPolicy retryPolicy = (RetryPolicy) retryPolicyOpt.get();
+            RetryPolicy retryPolicy = retryPolicyOpt.get();
             if ((desiredStatus == FAILED && retryPolicy.isRetryOnFailure())
                     || (desiredStatus == TIMED_OUT && retryPolicy.isRetryOnTimeout())) {
                 int maxRetryCount = retryPolicy.getMaxRetryCount();
@@ -373,8 +419,74 @@ public class TaskService implements Service {
         return false;
     }
 
+    /**
+     * computes the delay in ms before the given retry of a task, grows exponentially with the retry count up to the
+     * max retry delay and is reduced by a random jitter so that tasks failing together are not retried together.
+     */
+    static long getRetryDelay(RetryPolicy retryPolicy, int retryCount) {
+        if (retryPolicy.getRetryDelayInMs() <= 0) {
+            return 0;
+        }
+        double delay = retryPolicy.getRetryDelayInMs() *
+                Math.pow(retryPolicy.getBackoffMultiplier(), Math.max(0, retryCount - 1));
+        if (retryPolicy.getMaxRetryDelayInMs() != -1) {
+            delay = Math.min(delay, retryPolicy.getMaxRetryDelayInMs());
+        }
+        if (retryPolicy.getJitterFactor() > 0) {
+            delay -= delay * retryPolicy.getJitterFactor() * ThreadLocalRandom.current().nextDouble();
+        }
+        return (long) Math.min(delay, Long.MAX_VALUE / 2);
+    }
+
+    private Optional<RetryPolicy> getRetryPolicy(Task task) {
+        return task.getPolicies().stream()
+                .filter(t -> t.getType() == Policy.Type.retry)
+                .map(t -> (RetryPolicy) t)
+                .findFirst();
+    }
+
+    /**
+     * removes and returns the task counters of the job if all its tasks are in final state, of the concurrent
+     * callers only one gets the counters of a completed job.
+     *
+     * @param jobId id of the job
+     * @return task counters of the job if complete, null otherwise
+     */
+    JobTaskCounters removeIfComplete(JobId jobId) {
+        final JobTaskCounters jobTaskCounters = jobTaskCountersMap.get(jobId);
+        if (jobTaskCounters != null && jobTaskCounters.isComplete() &&
+                jobTaskCountersMap.remove(jobId, jobTaskCounters)) {
+            return jobTaskCounters;
+        }
+        return null;
+    }
+
+    /**
+     * discards the task counters of the job kept in memory, they are loaded again from the store on next status change
+     *
+     * @param jobId id of the job
+     */
+    void evictJobTaskCounters(JobId jobId) {
+        jobTaskCountersMap.remove(jobId);
+    }
+
+    private JobTaskCounters getJobTaskCounters(JobId jobId) throws StoreException {
+        final JobTaskCounters jobTaskCounters = jobTaskCountersMap.get(jobId);
+        if (jobTaskCounters != null) {
+            return jobTaskCounters;
+        }
+        final JobTaskCounters loadedJobTaskCounters = new JobTaskCounters();
+        final List<Task> tasks =
+                taskStore.loadByJobIdAndWorkflowName(jobId.getNamespace(), jobId.getId(), jobId.getWorkflow());
+        if (tasks != null) {
+            tasks.forEach(task -> loadedJobTaskCounters.taskAdded(task.getStatus()));
+        }
+        final JobTaskCounters existingJobTaskCounters = jobTaskCountersMap.putIfAbsent(jobId, loadedJobTaskCounters);
+        return existingJobTaskCounters != null ? existingJobTaskCounters : loadedJobTaskCounters;
+    }
+
     private void notifyListeners(Task task, Status from, Status to) {
-        statusChangeListeners.forEach(listener -> {
+        statusChangeEventBus.publish(task.getJob(), listener -> {
             try {
                 listener.statusChanged(task, from, to);
             } catch (Exception e) {
@@ -392,6 +504,7 @@ public class TaskService implements Service {
                 throw TASK_NOT_FOUND.createException(taskId.getName(), taskId.getJob(), taskId.getWorkflow(), taskId.getNamespace());
             }
             taskStore.delete(taskId);
+            jobTaskCountersMap.remove(JobId.build(taskId.getNamespace(), taskId.getJob(), taskId.getWorkflow()));
         } catch (StoreException e) {
             logger.error("unable to delete task {}", taskId, e);
             throw new ServiceException(e.getMessage(), e.getCause());
@@ -403,6 +516,8 @@ public class TaskService implements Service {
         validateWorkflow(namespace, workflowName);
         try {
             taskStore.deleteByWorkflowName(namespace, workflowName);
+            jobTaskCountersMap.keySet().removeIf(jobId ->
+                    jobId.getNamespace().equals(namespace) && jobId.getWorkflow().equals(workflowName));
         } catch (StoreException e) {
             logger.error("unable to delete tasks for workflow {} in namespace {}", workflowName, namespace, e);
             throw new ServiceException(e.getMessage(), e.getCause());
@@ -434,5 +549,6 @@ public class TaskService implements Service {
 
     public void stop() {
         logger.info("Stopping task service");
+        statusChangeEventBus.stop();
     }
 }
@@ -20,6 +20,7 @@ package com.cognitree.kronos.scheduler;
 public enum ValidationError {
     NAMESPACE_NOT_FOUND(1001, "namespace_not_found", 404),
     NAMESPACE_ALREADY_EXISTS(1002, "namespace_already_exists", 409),
+    INVALID_NAMESPACE(1003, "invalid_namespace", 400),
 
     WORKFLOW_NOT_FOUND(2001, "workflow_not_found", 404),
     WORKFLOW_ALREADY_EXISTS(2002, "workflow_already_exists", 409),
@@ -27,6 +28,7 @@ public enum ValidationError {
     MISSING_PARAM_IN_WORKFLOW(2004, "missing_param_in_workflow", 400),
     CYCLIC_DEPENDENCY_IN_WORKFLOW(2005, "cyclic_dependency_in_workflow", 400),
     DUPLICATE_POLICY_OF_SAME_TYPE(2006, "duplicate_policy_of_same_type", 400),
+    INVALID_RETRY_POLICY(2007, "invalid_retry_policy", 400),
 
     WORKFLOW_TRIGGER_NOT_FOUND(3001, "workflow_trigger_not_found", 404),
     INVALID_WORKFLOW_TRIGGER(3002, "invalid_workflow_trigger", 400),
@@ -36,7 +38,9 @@ public enum ValidationError {
     CANNOT_ABORT_JOB_WITH_SCHEDULED_TASK(4002, "cannot_abort_job_with_scheduled_task", 400),
 
     TASK_NOT_FOUND(5001, "task_not_found", 404),
-    CANNOT_ABORT_TASK_IN_SCHEDULED_STATE(5002, "cannot_abort_task_in_scheduled_state", 400);
+    CANNOT_ABORT_TASK_IN_SCHEDULED_STATE(5002, "cannot_abort_task_in_scheduled_state", 400),
+
+    INVALID_FORECAST_WINDOW(6001, "invalid_forecast_window", 400);
 
     private int errorCode;
     private String errorMsg;
@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cognitree.kronos.scheduler;
+
+import com.cognitree.kronos.scheduler.graph.TopologicalSort;
+import com.cognitree.kronos.scheduler.model.Workflow;
+import com.cognitree.kronos.scheduler.model.Workflow.WorkflowTask;
+import com.cognitree.kronos.scheduler.model.WorkflowId;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.google.common.hash.Hashing;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable execution plan compiled from a version of a workflow, holding everything needed to instantiate a
+ * job of the workflow: the enabled workflow tasks in topological order along with their compiled property
+ * templates.
+ * <p>
+ * Plans are compiled by {@link WorkflowService} when a workflow is added or updated and are shared by all the jobs
+ * created from that version of the workflow.
+ * </p>
+ * <p>
+ * Version of the plan is a fingerprint of the workflow definition it is compiled from, plans compiled from the same
+ * definition have the same version across restarts of the scheduler.
+ * </p>
+ */
+final class WorkflowPlan {
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+
+    private final WorkflowId workflowId;
+    private final long version;
+    private final Map<String, Object> properties;
+    private final List<TaskPlan> taskPlans;
+    private final Map<String, TaskPlan> taskPlansByName;
+
+    private WorkflowPlan(WorkflowId workflowId, long version, Map<String, Object> properties,
+                         List<TaskPlan> taskPlans) {
+        this.workflowId = workflowId;
+        this.version = version;
+        this.properties = properties;
+        this.taskPlans = Collections.unmodifiableList(taskPlans);
+        final Map<String, TaskPlan> taskPlansByName = new HashMap<>();
+        taskPlans.forEach(taskPlan -> taskPlansByName.put(taskPlan.getWorkflowTask().getName(), taskPlan));
+        this.taskPlansByName = Collections.unmodifiableMap(taskPlansByName);
+    }
+
+    /**
+     * compiles the plan for a validated workflow
+     *
+     * @param workflow workflow to compile
+     * @return compiled plan
+     */
+    static WorkflowPlan compile(Workflow workflow) {
+        final List<TaskPlan> taskPlans = new ArrayList<>();
+        for (WorkflowTask workflowTask : orderWorkflowTasks(workflow.getTasks())) {
+            if (workflowTask.isEnabled()) {
+                taskPlans.add(new TaskPlan(workflowTask, PropertyTemplate.compile(workflowTask.getProperties())));
+            }
+        }
+        final Map<String, Object> properties = workflow.getProperties() == null ? null :
+                Collections.unmodifiableMap(new HashMap<>(workflow.getProperties()));
+        return new WorkflowPlan(workflow.getIdentity(), getVersion(workflow), properties, taskPlans);
+    }
+
+    private static long getVersion(Workflow workflow) {
+        final String definition;
+        try {
+            definition = MAPPER.writeValueAsString(Arrays.asList(workflow.getTasks(), workflow.getProperties()));
+        } catch (JsonProcessingException e) {
+            // the workflow is read from its serialized form and is expected to be serializable
+            throw new IllegalStateException("unable to serialize workflow " + workflow.getIdentity(), e);
+        }
+        return Hashing.murmur3_128().hashString(definition, StandardCharsets.UTF_8).asLong();
+    }
+
+    /**
+     * sorts the workflow tasks in a topological order based on task dependency
+     */
+    static List<WorkflowTask> orderWorkflowTasks(List<WorkflowTask> workflowTasks) {
+        final HashMap<String, WorkflowTask> workflowTaskMap = new HashMap<>();
+        final TopologicalSort<WorkflowTask> topologicalSort = new TopologicalSort<>();
+        workflowTasks.forEach(workflowTask -> {
+            workflowTaskMap.put(workflowTask.getName(), workflowTask);
+            topologicalSort.add(workflowTask);
+        });
+
+        for (WorkflowTask workflowTask : workflowTasks) {
+            final List<String> dependsOn = workflowTask.getDependsOn();
+            if (dependsOn != null && !dependsOn.isEmpty()) {
+                dependsOn.forEach(dependentTask ->
+                        topologicalSort.add(workflowTaskMap.get(dependentTask), workflowTask));
+            }
+        }
+        return topologicalSort.sort();
+    }
+
+    WorkflowId getWorkflowId() {
+        return workflowId;
+    }
+
+    /**
+     * @return fingerprint of the workflow definition the plan is compiled from
+     */
+    long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return workflow properties
+     */
+    Map<String, Object> getProperties() {
+        return properties;
+    }
+
+    /**
+     * @return plans of the enabled workflow tasks in topological order
+     */
+    List<TaskPlan> getTaskPlans() {
+        return taskPlans;
+    }
+
+    /**
+     * @return plan of the workflow task with the given name, null if the task is not part of the plan
+     */
+    TaskPlan getTaskPlan(String workflowTaskName) {
+        return taskPlansByName.get(workflowTaskName);
+    }
+
+    @Override
+    public String toString() {
+        return "WorkflowPlan{" +
+                "workflowId=" + workflowId +
+                ", version=" + version +
+                ", tasks=" + taskPlansByName.keySet() +
+                '}';
+    }
+
+    /**
+     * plan of a workflow task, the workflow task definition along with its compiled property template
+     */
+    static final class TaskPlan {
+        private final WorkflowTask workflowTask;
+        private final PropertyTemplate propertyTemplate;
+
+        private TaskPlan(WorkflowTask workflowTask, PropertyTemplate propertyTemplate) {
+            this.workflowTask = workflowTask;
+            this.propertyTemplate = propertyTemplate;
+        }
+
+        WorkflowTask getWorkflowTask() {
+            return workflowTask;
+        }
+
+        PropertyTemplate getPropertyTemplate() {
+            return propertyTemplate;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cognitree.kronos.scheduler;
+
+import org.quartz.simpl.SimpleThreadPool;
+
+import java.util.Objects;
+
+/**
+ * defines configurations for {@link WorkflowSchedulerService} firing the workflow triggers.
+ */
+public class WorkflowSchedulerConfig {
+
+    /**
+     * coalesce cron triggers having identical schedule and no end time into a shared quartz trigger which fans out
+     * to all the subscribed workflows when fired
+     */
+    private boolean coalesceCronTriggers = true;
+
+    /**
+     * max workflows submitted for execution at once on fan out of a shared trigger, the next batch is submitted once
+     * the previous batch has been executed
+     */
+    private int fanOutBatchSize = 100;
+
+    /**
+     * number of threads executing the workflows on fan out of a shared trigger
+     */
+    private int fanOutThreads = 4;
+
+    /**
+     * fully qualified class name of the quartz {@link org.quartz.spi.ThreadPool} firing the triggers, the pool is
+     * instantiated with its no argument constructor and only a {@link SimpleThreadPool} is sized by {@link #threadCount}
+     */
+    private String threadPoolClass = SimpleThreadPool.class.getName();
+
+    /**
+     * number of threads in the quartz thread pool, applicable only to {@link SimpleThreadPool}, any other
+     * {@link #threadPoolClass} ignores it with a warning and sizes itself
+     */
+    private int threadCount = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * max triggers acquired by quartz at once for firing
+     */
+    private int maxBatchSize = 1;
+
+    /**
+     * time window in which triggers due to fire are acquired in a batch ahead of their fire time
+     */
+    private long batchTimeWindowInMs = 0;
+
+    /**
+     * time by which a trigger has to miss its fire time to be considered misfired
+     */
+    private long misfireThresholdInMs = 60000;
+
+    /**
+     * max missed firings replayed per trigger after downtime, applicable to triggers replaying all the missed firings.
+     * Only the latest missed firings are replayed, -1 to replay all of them
+     */
+    private int maxCatchUpFirings = -1;
+
+    public boolean isCoalesceCronTriggers() {
+        return coalesceCronTriggers;
+    }
+
+    public void setCoalesceCronTriggers(boolean coalesceCronTriggers) {
+        this.coalesceCronTriggers = coalesceCronTriggers;
+    }
+
+    public int getFanOutBatchSize() {
+        return fanOutBatchSize;
+    }
+
+    public void setFanOutBatchSize(int fanOutBatchSize) {
+        this.fanOutBatchSize = fanOutBatchSize;
+    }
+
+    public int getFanOutThreads() {
+        return fanOutThreads;
+    }
+
+    public void setFanOutThreads(int fanOutThreads) {
+        this.fanOutThreads = fanOutThreads;
+    }
+
+    public String getThreadPoolClass() {
+        return threadPoolClass;
+    }
+
+    public void setThreadPoolClass(String threadPoolClass) {
+        this.threadPoolClass = threadPoolClass;
+    }
+
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    public void setThreadCount(int threadCount) {
+        this.threadCount = threadCount;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public long getBatchTimeWindowInMs() {
+        return batchTimeWindowInMs;
+    }
+
+    public void setBatchTimeWindowInMs(long batchTimeWindowInMs) {
+        this.batchTimeWindowInMs = batchTimeWindowInMs;
+    }
+
+    public long getMisfireThresholdInMs() {
+        return misfireThresholdInMs;
+    }
+
+    public void setMisfireThresholdInMs(long misfireThresholdInMs) {
+        this.misfireThresholdInMs = misfireThresholdInMs;
+    }
+
+    public int getMaxCatchUpFirings() {
+        return maxCatchUpFirings;
+    }
+
+    public void setMaxCatchUpFirings(int maxCatchUpFirings) {
+        this.maxCatchUpFirings = maxCatchUpFirings;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof WorkflowSchedulerConfig)) return false;
+        WorkflowSchedulerConfig that = (WorkflowSchedulerConfig) o;
+        return coalesceCronTriggers == that.coalesceCronTriggers &&
+                fanOutBatchSize == that.fanOutBatchSize &&
+                fanOutThreads == that.fanOutThreads &&
+                threadCount == that.threadCount &&
+                maxBatchSize == that.maxBatchSize &&
+                batchTimeWindowInMs == that.batchTimeWindowInMs &&
+                misfireThresholdInMs == that.misfireThresholdInMs &&
+                maxCatchUpFirings == that.maxCatchUpFirings &&
+                Objects.equals(threadPoolClass, that.threadPoolClass);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(coalesceCronTriggers, fanOutBatchSize, fanOutThreads, threadPoolClass, threadCount,
+                maxBatchSize, batchTimeWindowInMs, misfireThresholdInMs, maxCatchUpFirings);
+    }
+
+    @Override
+    public String toString() {
+        return "WorkflowSchedulerConfig{" +
+                "coalesceCronTriggers=" + coalesceCronTriggers +
+                ", fanOutBatchSize=" + fanOutBatchSize +
+                ", fanOutThreads=" + fanOutThreads +
+                ", threadPoolClass='" + threadPoolClass + '\'' +
+                ", threadCount=" + threadCount +
+                ", maxBatchSize=" + maxBatchSize +
+                ", batchTimeWindowInMs=" + batchTimeWindowInMs +
+                ", misfireThresholdInMs=" + misfireThresholdInMs +
+                ", maxCatchUpFirings=" + maxCatchUpFirings +
+                '}';
+    }
+}
@@ -17,47 +17,65 @@
 
 package com.cognitree.kronos.scheduler;
 
+import com.codahale.metrics.Histogram;
 import com.cognitree.kronos.Service;
 import com.cognitree.kronos.ServiceException;
 import com.cognitree.kronos.ServiceProvider;
 import com.cognitree.kronos.model.Task;
 import com.cognitree.kronos.model.TaskId;
-import com.cognitree.kronos.scheduler.graph.TopologicalSort;
+import com.cognitree.kronos.scheduler.ListenerConfig.OverflowPolicy;
+import com.cognitree.kronos.scheduler.model.CronSchedule;
+import com.cognitree.kronos.scheduler.model.ExecutionForecast;
 import com.cognitree.kronos.scheduler.model.FixedDelaySchedule;
 import com.cognitree.kronos.scheduler.model.Job;
 import com.cognitree.kronos.scheduler.model.JobId;
 import com.cognitree.kronos.scheduler.model.Schedule;
 import com.cognitree.kronos.scheduler.model.Workflow;
-import com.cognitree.kronos.scheduler.model.Workflow.WorkflowTask;
 import com.cognitree.kronos.scheduler.model.WorkflowId;
 import com.cognitree.kronos.scheduler.model.WorkflowTrigger;
 import com.cognitree.kronos.scheduler.model.WorkflowTriggerId;
 import com.cognitree.kronos.scheduler.store.StoreService;
+import com.cognitree.kronos.scheduler.util.FixedDelayTrigger;
 import com.cognitree.kronos.scheduler.util.TriggerHelper;
 import org.quartz.JobDataMap;
 import org.quartz.JobDetail;
 import org.quartz.JobExecutionContext;
+import org.quartz.JobPersistenceException;
 import org.quartz.JobKey;
 import org.quartz.Scheduler;
 import org.quartz.SchedulerException;
 import org.quartz.Trigger;
 import org.quartz.TriggerKey;
+import org.quartz.impl.DefaultThreadExecutor;
 import org.quartz.impl.DirectSchedulerFactory;
+import org.quartz.impl.jdbcjobstore.JobStoreSupport;
 import org.quartz.listeners.SchedulerListenerSupport;
+import org.quartz.simpl.RAMJobStore;
 import org.quartz.simpl.SimpleThreadPool;
 import org.quartz.spi.JobStore;
+import org.quartz.spi.ThreadPool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.text.ParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static com.cognitree.kronos.scheduler.ValidationError.INVALID_FORECAST_WINDOW;
+import static com.cognitree.kronos.scheduler.model.Job.Status.CREATED;
 import static com.cognitree.kronos.scheduler.model.Job.Status.FAILED;
 import static com.cognitree.kronos.scheduler.model.Job.Status.RUNNING;
 import static com.cognitree.kronos.scheduler.model.Job.Status.SUCCESSFUL;
+import static java.util.concurrent.TimeUnit.DAYS;
+import static java.util.concurrent.TimeUnit.MINUTES;
 import static org.quartz.JobBuilder.newJob;
 import static org.quartz.impl.DirectSchedulerFactory.DEFAULT_INSTANCE_ID;
 import static org.quartz.impl.DirectSchedulerFactory.DEFAULT_SCHEDULER_NAME;
@@ -71,10 +89,30 @@ public final class WorkflowSchedulerService implements Service {
     private static final String NAMESPACE = "namespace";
     private static final String WORKFLOW_NAME = "workflowName";
     private static final String TRIGGER_NAME = "triggerName";
+    // group of the quartz jobs and triggers shared by the workflow triggers having identical cron schedule
+    private static final String COALESCED_GROUP = "coalesced";
+    private static final String TRIGGERS_METRIC_PREFIX = "kronos.scheduler.triggers";
+    // delay between the fire time of a trigger and the creation of its job
+    private static final String TRIGGER_FIRE_OFFSET_METRIC = name(TRIGGERS_METRIC_PREFIX, "fire", "offset");
+    // missed firings skipped on catch up after downtime
+    private static final String TRIGGER_CATCH_UP_SKIPPED_METRIC = name(TRIGGERS_METRIC_PREFIX, "catchup", "skipped");
+    private static final long FORECAST_SLOT_DURATION_IN_MS = MINUTES.toMillis(1);
+    // completed jobs considered to estimate the duration of the upcoming jobs of a workflow
+    private static final long FORECAST_HISTORY_IN_MS = DAYS.toMillis(7);
+    // duration assumed for the jobs of a workflow with no completed job
+    private static final long DEFAULT_JOB_DURATION_IN_MS = MINUTES.toMillis(1);
 
     // any CRUD operation on scheduler should be synchronized to avoid issues while pausing and resuming a workflow
-    // applicable mostly for fixed delay schedule as it deletes the old trigger and creates a new one for each run.
+    // applicable mostly for fixed delay schedule as its trigger is rescheduled on completion of each run.
     private Scheduler scheduler;
+    private ExecutorService fanOutExecutor;
+    private Histogram fireOffsetHistogram;
+
+    private final WorkflowSchedulerConfig workflowSchedulerConfig;
+
+    public WorkflowSchedulerService(WorkflowSchedulerConfig workflowSchedulerConfig) {
+        this.workflowSchedulerConfig = workflowSchedulerConfig;
+    }
 
     public static WorkflowSchedulerService getService() {
         return (WorkflowSchedulerService) ServiceProvider.getService(WorkflowSchedulerService.class.getSimpleName());
@@ -90,18 +128,56 @@ public final class WorkflowSchedulerService implements Service {
         logger.info("Starting workflow scheduler service");
         StoreService storeService = (StoreService) ServiceProvider.getService(StoreService.class.getSimpleName());
         JobStore jobStore = storeService.getQuartzJobStore();
-        SimpleThreadPool threadPool = new SimpleThreadPool(Runtime.getRuntime().availableProcessors(),
-                Thread.NORM_PRIORITY);
-        threadPool.setInstanceName(DEFAULT_SCHEDULER_NAME);
+        setMisfireThreshold(jobStore, workflowSchedulerConfig.getMisfireThresholdInMs());
         DirectSchedulerFactory.getInstance().createScheduler(DEFAULT_SCHEDULER_NAME, DEFAULT_INSTANCE_ID,
-                threadPool, jobStore);
+                createThreadPool(), new DefaultThreadExecutor(), jobStore, null, null, 0, -1, -1, false, null,
+                workflowSchedulerConfig.getMaxBatchSize(), workflowSchedulerConfig.getBatchTimeWindowInMs());
         scheduler = DirectSchedulerFactory.getInstance().getScheduler(DEFAULT_SCHEDULER_NAME);
+        if (workflowSchedulerConfig.getMaxCatchUpFirings() >= 0) {
+            scheduler.getListenerManager().addTriggerListener(new CatchUpTriggerListener(
+                    workflowSchedulerConfig.getMaxCatchUpFirings(), workflowSchedulerConfig.getMisfireThresholdInMs(),
+                    SchedulerMetrics.getRegistry().meter(TRIGGER_CATCH_UP_SKIPPED_METRIC)));
+        }
+        fanOutExecutor = Executors.newFixedThreadPool(workflowSchedulerConfig.getFanOutThreads());
+        fireOffsetHistogram = SchedulerMetrics.getRegistry().histogram(TRIGGER_FIRE_OFFSET_METRIC);
         scheduler.getListenerManager().addSchedulerListener(new QuartzSchedulerListener());
         // TODO: FIXME service needs to be registered with provider before scheduler is started
         // as above listener might call WorkflowTriggerService to delete trigger which again call WorkflowSchedulerService
         ServiceProvider.registerService(this);
         scheduler.start();
-        TaskService.getService().registerListener(new WorkflowLifecycleHandler());
+        registerWorkflowLifecycleHandler(TaskService.getService());
+    }
+
+    /**
+     * registers the handler updating the job status on the status changes of its tasks
+     */
+    static void registerWorkflowLifecycleHandler(TaskService taskService) {
+        // a dropped notification would leave the job incomplete, so the handler never drops them on overflow
+        taskService.registerListener(new WorkflowLifecycleHandler(), OverflowPolicy.BLOCK);
+    }
+
+    private ThreadPool createThreadPool() throws ReflectiveOperationException {
+        final ThreadPool threadPool = (ThreadPool) Class.forName(workflowSchedulerConfig.getThreadPoolClass())
+                .getConstructor().newInstance();
+        if (threadPool instanceof SimpleThreadPool) {
+            ((SimpleThreadPool) threadPool).setThreadCount(workflowSchedulerConfig.getThreadCount());
+            ((SimpleThreadPool) threadPool).setThreadPriority(Thread.NORM_PRIORITY);
+        } else {
+            logger.warn("Unable to set thread count {} on quartz thread pool {}, the pool uses its own size",
+                    workflowSchedulerConfig.getThreadCount(), threadPool.getClass().getName());
+        }
+        threadPool.setInstanceName(DEFAULT_SCHEDULER_NAME);
+        return threadPool;
+    }
+
+    private void setMisfireThreshold(JobStore jobStore, long misfireThresholdInMs) {
+        if (jobStore instanceof RAMJobStore) {
+            ((RAMJobStore) jobStore).setMisfireThreshold(misfireThresholdInMs);
+        } else if (jobStore instanceof JobStoreSupport) {
+            ((JobStoreSupport) jobStore).setMisfireThreshold(misfireThresholdInMs);
+        } else {
+            logger.warn("Unable to set misfire threshold on quartz job store {}", jobStore.getClass().getName());
+        }
     }
 
     void add(Workflow workflow) throws SchedulerException {
@@ -126,6 +202,10 @@ public final class WorkflowSchedulerService implements Service {
 
     synchronized void add(WorkflowTrigger workflowTrigger)
             throws SchedulerException, ParseException {
+        if (isCoalesced(workflowTrigger)) {
+            subscribe(workflowTrigger);
+            return;
+        }
         JobDataMap jobDataMap = new JobDataMap();
         jobDataMap.put(TRIGGER_NAME, workflowTrigger.getName());
         WorkflowId workflowId = WorkflowId.build(workflowTrigger.getNamespace(), workflowTrigger.getWorkflow());
@@ -134,9 +214,156 @@ public final class WorkflowSchedulerService implements Service {
         scheduler.scheduleJob(trigger);
     }
 
-    synchronized void resume(WorkflowTrigger workflowTrigger) throws SchedulerException {
+    /**
+     * cron triggers without an end time are coalesced into a quartz trigger shared by all the workflow triggers with
+     * identical schedule. A coalesced workflow trigger is paused and resumed by its enabled flag, checked on fan out.
+     * Triggers with a jitter window fire at their own offset and are never coalesced.
+     */
+    private boolean isCoalesced(WorkflowTrigger workflowTrigger) {
+        return workflowSchedulerConfig.isCoalesceCronTriggers() &&
+                workflowTrigger.getSchedule().getType() == Schedule.Type.cron && workflowTrigger.getEndAt() == null &&
+                workflowTrigger.getSchedule().getJitterWindowInMs() == 0;
+    }
+
+    private void subscribe(WorkflowTrigger workflowTrigger) throws SchedulerException, ParseException {
+        final JobKey workflowJobKey =
+                getJobKey(WorkflowId.build(workflowTrigger.getNamespace(), workflowTrigger.getWorkflow()));
+        if (!scheduler.checkExists(workflowJobKey)) {
+            throw new JobPersistenceException("The job (" + workflowJobKey + ") referenced by the trigger does not exist.");
+        }
+        final JobKey sharedJobKey = getSharedJobKey((CronSchedule) workflowTrigger.getSchedule());
+        logger.info("Subscribing workflow trigger {} to shared trigger {}", workflowTrigger.getIdentity(), sharedJobKey);
+        final JobDetail sharedJobDetail = scheduler.getJobDetail(sharedJobKey);
+        final JobDataMap subscribers = sharedJobDetail == null ? new JobDataMap() : sharedJobDetail.getJobDataMap();
+        subscribers.put(getTriggerKey(workflowTrigger).toString(), new ArrayList<>(Arrays.asList(
+                workflowTrigger.getNamespace(), workflowTrigger.getWorkflow(), workflowTrigger.getName())));
+        storeSubscribers(sharedJobKey, subscribers);
+        final TriggerKey sharedTriggerKey = new TriggerKey(sharedJobKey.getName(), sharedJobKey.getGroup());
+        if (!scheduler.checkExists(sharedTriggerKey)) {
+            scheduler.scheduleJob(TriggerHelper.buildSharedTrigger(workflowTrigger.getSchedule(),
+                    sharedTriggerKey, sharedJobKey));
+        }
+    }
+
+    private void unsubscribe(WorkflowTriggerId workflowTriggerId) throws SchedulerException {
+        final WorkflowTrigger workflowTrigger;
+        try {
+            workflowTrigger = WorkflowTriggerService.getService().load(workflowTriggerId);
+        } catch (ServiceException e) {
+            throw new SchedulerException("unable to load workflow trigger " + workflowTriggerId, e);
+        }
+        if (workflowTrigger == null || workflowTrigger.getSchedule().getType() != Schedule.Type.cron) {
+            return;
+        }
+        final JobKey sharedJobKey = getSharedJobKey((CronSchedule) workflowTrigger.getSchedule());
+        final JobDetail sharedJobDetail = scheduler.getJobDetail(sharedJobKey);
+        if (sharedJobDetail == null) {
+            return;
+        }
+        final JobDataMap subscribers = sharedJobDetail.getJobDataMap();
+        if (subscribers.remove(getTriggerKey(workflowTriggerId).toString()) == null) {
+            return;
+        }
+        logger.info("Unsubscribed workflow trigger {} from shared trigger {}", workflowTriggerId, sharedJobKey);
+        if (subscribers.isEmpty()) {
+            scheduler.deleteJob(sharedJobKey);
+        } else {
+            storeSubscribers(sharedJobKey, subscribers);
+        }
+    }
+
+    private void storeSubscribers(JobKey sharedJobKey, JobDataMap subscribers) throws SchedulerException {
+        JobDetail jobDetail = newJob(CoalescedTriggerJob.class)
+                .withIdentity(sharedJobKey)
+                .storeDurably()
+                .usingJobData(subscribers)
+                .build();
+        scheduler.addJob(jobDetail, true);
+    }
+
+    private JobKey getSharedJobKey(CronSchedule cronSchedule) {
+        return new JobKey(cronSchedule.getCronExpression() + "|" + cronSchedule.getTimezone() + "|" +
+                cronSchedule.getMisfireInstruction(), COALESCED_GROUP);
+    }
+
+    /**
+     * executes the workflows subscribed to the shared trigger in batches of bounded size
+     */
+    private void fanOut(List<WorkflowTriggerId> subscribers, long fireTime) {
+        logger.info("Fanning out shared trigger fired at {} to {} workflow triggers", fireTime, subscribers.size());
+        final int batchSize = Math.max(1, workflowSchedulerConfig.getFanOutBatchSize());
+        for (int i = 0; i < subscribers.size(); i += batchSize) {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (WorkflowTriggerId workflowTriggerId : subscribers.subList(i, Math.min(i + batchSize, subscribers.size()))) {
+                futures.add(fanOutExecutor.submit(() -> fire(workflowTriggerId, fireTime)));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (InterruptedException e) {
+                    logger.warn("Interrupted while fanning out shared trigger fired at {}", fireTime);
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (ExecutionException e) {
+                    logger.error("Error fanning out shared trigger fired at {}", fireTime, e);
+                }
+            }
+        }
+    }
+
+    private void fire(WorkflowTriggerId workflowTriggerId, long fireTime) {
+        final WorkflowTrigger workflowTrigger;
+        try {
+            workflowTrigger = WorkflowTriggerService.getService().load(workflowTriggerId);
+        } catch (ServiceException e) {
+            logger.error("Error executing workflow trigger {}", workflowTriggerId, e);
+            return;
+        }
+        // trigger might have been deleted post firing, skip the paused ones and the ones yet to start
+        if (workflowTrigger == null || !workflowTrigger.isEnabled() ||
+                (workflowTrigger.getStartAt() != null && fireTime < workflowTrigger.getStartAt())) {
+            return;
+        }
+        execute(workflowTrigger, fireTime);
+    }
+
+    /**
+     * executes the workflow fired at the given time, if owned by the node
+     */
+    private void execute(WorkflowTrigger workflowTrigger, long fireTime) {
+        // triggers are fired on all the nodes, the workflow is executed only by the node owning it
+        if (!ShardService.getService().owns(workflowTrigger.getNamespace(), workflowTrigger.getWorkflow())) {
+            logger.debug("Skipping execution of workflow trigger {} owned by another node",
+                    workflowTrigger.getIdentity());
+            if (workflowTrigger.getSchedule().getType() == Schedule.Type.fixed) {
+                // keeps the fixed delay trigger running to fire on taking over the workflow
+                reschedule(workflowTrigger);
+            }
+            return;
+        }
+        fireOffsetHistogram.update(System.currentTimeMillis() - fireTime);
+        try {
+            execute(workflowTrigger);
+        } catch (ServiceException | ValidationException e) {
+            logger.error("Error executing workflow {} for trigger {}", workflowTrigger.getWorkflow(),
+                    workflowTrigger.getName(), e);
+        }
+    }
+
+    synchronized void resume(WorkflowTrigger workflowTrigger) throws SchedulerException, ServiceException {
         logger.info("Received request to resume workflow trigger {}", workflowTrigger);
-        scheduler.resumeTrigger(getTriggerKey(workflowTrigger));
+        final TriggerKey triggerKey = getTriggerKey(workflowTrigger);
+        scheduler.resumeTrigger(triggerKey);
+        // a fixed delay trigger whose job completed while paused is left parked, reschedule it now
+        final Trigger trigger = scheduler.getTrigger(triggerKey);
+        if (trigger instanceof FixedDelayTrigger && ((FixedDelayTrigger) trigger).isParked()) {
+            final List<Job> activeJobs = JobService.getService().load(workflowTrigger.getNamespace(),
+                    workflowTrigger.getWorkflow(), workflowTrigger.getName(), Arrays.asList(CREATED, RUNNING),
+                    trigger.getPreviousFireTime().getTime(), System.currentTimeMillis());
+            if (activeJobs.isEmpty()) {
+                reschedule(workflowTrigger);
+            }
+        }
     }
 
     synchronized void pause(WorkflowTrigger workflowTrigger) throws SchedulerException {
@@ -144,34 +371,121 @@ public final class WorkflowSchedulerService implements Service {
         scheduler.pauseTrigger(getTriggerKey(workflowTrigger));
     }
 
-    private void execute(String workflowName, String triggerName, String namespace)
+    /**
+     * forecasts the jobs and tasks expected to run concurrently in a namespace for each minute of the window.
+     * <p>
+     * Each enabled trigger is expected to run a job at each of its fire times within the window for the average
+     * duration of the jobs of the workflow completed over the last {@link #FORECAST_HISTORY_IN_MS}.
+     * </p>
+     *
+     * @param namespace namespace to forecast
+     * @param from      start of the window (inclusive)
+     * @param to        end of the window (exclusive)
+     * @return forecast of the namespace
+     * @throws ServiceException
+     * @throws ValidationException
+     */
+    public ExecutionForecast getForecast(String namespace, long from, long to)
+            throws ServiceException, ValidationException {
+        logger.debug("Received request to forecast executions under namespace {} from {} to {}", namespace, from, to);
+        if (to <= from) {
+            throw INVALID_FORECAST_WINDOW.createException(from, to);
+        }
+        final List<WorkflowTrigger> workflowTriggers = WorkflowTriggerService.getService().get(namespace);
+        final long currentTimeMillis = System.currentTimeMillis();
+        final Map<String, Long> jobDurations = getAverageJobDurations(namespace,
+                currentTimeMillis - FORECAST_HISTORY_IN_MS, currentTimeMillis);
+        final Map<String, Integer> tasksPerJob = new HashMap<>();
+        final ExecutionForecaster executionForecaster = new ExecutionForecaster(from, to, FORECAST_SLOT_DURATION_IN_MS);
+        for (WorkflowTrigger workflowTrigger : workflowTriggers) {
+            if (!workflowTrigger.isEnabled()) {
+                continue;
+            }
+            final String workflowName = workflowTrigger.getWorkflow();
+            if (!tasksPerJob.containsKey(workflowName)) {
+                final WorkflowPlan workflowPlan = WorkflowService.getService()
+                        .getPlan(WorkflowId.build(namespace, workflowName));
+                tasksPerJob.put(workflowName, workflowPlan == null ? 0 : workflowPlan.getTaskPlans().size());
+            }
+            final long jobDurationInMs = jobDurations.getOrDefault(workflowName, DEFAULT_JOB_DURATION_IN_MS);
+            try {
+                // coalesced triggers do not have a dedicated quartz trigger, build one to compute the fire times
+                Trigger trigger = scheduler.getTrigger(getTriggerKey(workflowTrigger));
+                if (trigger == null) {
+                    trigger = TriggerHelper.buildTrigger(workflowTrigger);
+                }
+                if (trigger instanceof FixedDelayTrigger) {
+                    final FixedDelayTrigger fixedDelayTrigger = (FixedDelayTrigger) trigger;
+                    final long intervalInMs = fixedDelayTrigger.getRepeatInterval();
+                    // a parked trigger is rescheduled on completion of its running job
+                    final long nextFireTime = fixedDelayTrigger.isParked() ?
+                            Math.max(currentTimeMillis, fixedDelayTrigger.getPreviousFireTime().getTime()
+                                    + jobDurationInMs) + intervalInMs :
+                            fixedDelayTrigger.getNextFireTime().getTime();
+                    executionForecaster.addFixedDelay(nextFireTime, intervalInMs, jobDurationInMs,
+                            tasksPerJob.get(workflowName));
+                } else {
+                    executionForecaster.add(trigger, jobDurationInMs, tasksPerJob.get(workflowName));
+                }
+            } catch (SchedulerException | ParseException e) {
+                logger.error("Error computing fire times of workflow trigger {}", workflowTrigger.getIdentity(), e);
+                throw new ServiceException(e.getMessage(), e.getCause());
+            }
+        }
+        final ExecutionForecast executionForecast = executionForecaster.forecast();
+        executionForecast.setNamespace(namespace);
+        return executionForecast;
+    }
+
+    private Map<String, Long> getAverageJobDurations(String namespace, long createdAfter, long createdBefore)
             throws ServiceException, ValidationException {
+        final Map<String, long[]> durations = new HashMap<>();
+        for (Job job : JobService.getService().get(namespace, Arrays.asList(SUCCESSFUL, FAILED),
+                createdAfter, createdBefore)) {
+            if (job.getCreatedAt() == null || job.getCompletedAt() == null) {
+                continue;
+            }
+            final long[] totalAndCount = durations.computeIfAbsent(job.getWorkflow(), workflow -> new long[2]);
+            totalAndCount[0] += job.getCompletedAt() - job.getCreatedAt();
+            totalAndCount[1]++;
+        }
+        final Map<String, Long> averageDurations = new HashMap<>();
+        durations.forEach((workflow, totalAndCount) -> averageDurations.put(workflow, totalAndCount[0] / totalAndCount[1]));
+        return averageDurations;
+    }
+
+    private void execute(String workflowName, String triggerName, String namespace, long fireTime)
+            throws ServiceException {
         logger.info("Received request to execute workflow {} by trigger {} under namespace {}",
                 workflowName, triggerName, namespace);
-        final Workflow workflow = WorkflowService.getService().get(WorkflowId.build(namespace, workflowName));
         final WorkflowTrigger workflowTrigger = WorkflowTriggerService.getService()
-                .get(WorkflowTriggerId.build(namespace, triggerName, workflowName));
-        // it might happen than user deleted the workflow trigger post scheduling of job by quartz, ignore silently
+                .load(WorkflowTriggerId.build(namespace, triggerName, workflowName));
+        // it might happen than user deleted the trigger post scheduling of job by quartz, ignore silently
         if (workflowTrigger == null) {
             logger.error("Unable to execute the workflow {} under namespace {}, trigger {} is missing",
                     workflowName, namespace, triggerName);
             return;
         }
-        final Job job = JobService.getService().create(workflow.getNamespace(), workflow.getName(), triggerName);
-        logger.debug("Executing workflow job {}", job);
-        final List<WorkflowTask> workflowTasks = orderWorkflowTasks(workflow.getTasks());
-        final Map<String, Object> updatedWorkflowProperties =
-                overrideWorkflowProperties(workflow.getProperties(), workflowTrigger.getProperties());
-        final List<Task> tasks = new ArrayList<>();
-        for (WorkflowTask workflowTask : workflowTasks) {
-            if (!workflowTask.isEnabled()) {
-                logger.warn("Workflow task {} is disabled from scheduling", workflowTask);
-                continue;
-            }
-            tasks.add(TaskService.getService().create(job.getNamespace(), workflowTask, job.getId(),
-                    job.getWorkflow(), updatedWorkflowProperties));
+        execute(workflowTrigger, fireTime);
+    }
+
+    private void execute(WorkflowTrigger workflowTrigger) throws ServiceException, ValidationException {
+        final String namespace = workflowTrigger.getNamespace();
+        final String workflowName = workflowTrigger.getWorkflow();
+        final WorkflowPlan workflowPlan = WorkflowService.getService().getPlan(WorkflowId.build(namespace, workflowName));
+        // it might happen than user deleted the workflow post scheduling of job by quartz, ignore silently
+        if (workflowPlan == null) {
+            logger.error("Unable to execute the workflow {} under namespace {}, workflow is missing",
+                    workflowName, namespace);
+            return;
         }
-        tasks.forEach(task -> TaskSchedulerService.getService().schedule(task));
+        final Job job = JobService.getService().create(namespace, workflowName, workflowTrigger.getName());
+        logger.debug("Executing workflow job {} from plan {}", job, workflowPlan);
+        final Map<String, Object> updatedWorkflowProperties =
+                overrideWorkflowProperties(workflowPlan.getProperties(), workflowTrigger.getProperties());
+        final List<Task> tasks = TaskService.getService().createAll(job.getNamespace(), workflowPlan,
+                job.getId(), job.getWorkflow(), updatedWorkflowProperties);
+        TaskSchedulerService.getService().scheduleAll(job.getIdentity(), tasks);
         JobService.getService().updateStatus(job.getIdentity(), RUNNING);
     }
 
@@ -201,30 +515,6 @@ public final class WorkflowSchedulerService implements Service {
         return updatedProperties;
     }
 
-    /**
-     * sorts the workflow tasks in a topological order based on task dependency
-     *
-     * @param workflowTasks
-     * @return
-     */
-    List<WorkflowTask> orderWorkflowTasks(List<WorkflowTask> workflowTasks) {
-        final HashMap<String, WorkflowTask> workflowTaskMap = new HashMap<>();
-        final TopologicalSort<WorkflowTask> topologicalSort = new TopologicalSort<>();
-        workflowTasks.forEach(workflowTask -> {
-            workflowTaskMap.put(workflowTask.getName(), workflowTask);
-            topologicalSort.add(workflowTask);
-        });
-
-        for (WorkflowTask workflowTask : workflowTasks) {
-            final List<String> dependsOn = workflowTask.getDependsOn();
-            if (dependsOn != null && !dependsOn.isEmpty()) {
-                dependsOn.forEach(dependentTask ->
-                        topologicalSort.add(workflowTaskMap.get(dependentTask), workflowTask));
-            }
-        }
-        return topologicalSort.sort();
-    }
-
     synchronized void delete(WorkflowId workflowId) throws SchedulerException {
         logger.info("Received request to delete quartz job for workflow {}", workflowId);
         final JobKey jobKey = getJobKey(workflowId);
@@ -240,6 +530,8 @@ public final class WorkflowSchedulerService implements Service {
         if (!scheduler.isInStandbyMode() && scheduler.checkExists(triggerKey)) {
             logger.info("Delete quartz trigger with key {}", triggerKey);
             scheduler.unscheduleJob(triggerKey);
+        } else {
+            unsubscribe(workflowTriggerId);
         }
     }
 
@@ -269,23 +561,29 @@ public final class WorkflowSchedulerService implements Service {
         return false;
     }
 
+    /**
+     * reschedules the parked fixed delay trigger in place to fire after the delay from now. A paused trigger is left
+     * parked and rescheduled on resume, a trigger past its end time is deleted.
+     */
     private synchronized void reschedule(WorkflowTrigger workflowTrigger) {
-        if (workflowTrigger.getSchedule().getType().equals(Schedule.Type.fixed)) {
-            try {
-                workflowTrigger = WorkflowTriggerService.getService().get(workflowTrigger);
-                if (!workflowTrigger.isEnabled()) {
-                    scheduler.standby();
-                    WorkflowSchedulerService.getService().delete(workflowTrigger);
-                    WorkflowSchedulerService.getService().add(workflowTrigger);
-                    WorkflowSchedulerService.getService().pause(workflowTrigger);
-                    scheduler.start();
-                } else {
-                    WorkflowSchedulerService.getService().delete(workflowTrigger);
-                    WorkflowSchedulerService.getService().add(workflowTrigger);
-                }
-            } catch (SchedulerException | ParseException | ServiceException | ValidationException e) {
-                logger.error("Error rescheduling trigger {} ", workflowTrigger.getIdentity(), e);
+        final TriggerKey triggerKey = getTriggerKey(workflowTrigger);
+        try {
+            final Trigger trigger = scheduler.getTrigger(triggerKey);
+            if (!(trigger instanceof FixedDelayTrigger) || !((FixedDelayTrigger) trigger).isParked()) {
+                return;
+            }
+            if (!shouldReschedule(workflowTrigger)) {
+                logger.info("Fixed delay trigger {} has completed execution, deleting it from store",
+                        workflowTrigger.getIdentity());
+                WorkflowTriggerService.getService().delete(workflowTrigger);
+                return;
+            }
+            if (scheduler.getTriggerState(triggerKey) == Trigger.TriggerState.PAUSED) {
+                return;
             }
+            scheduler.rescheduleJob(triggerKey, ((FixedDelayTrigger) trigger).next(System.currentTimeMillis()));
+        } catch (SchedulerException | ServiceException | ValidationException e) {
+            logger.error("Error rescheduling trigger {} ", workflowTrigger.getIdentity(), e);
         }
     }
 
@@ -299,6 +597,11 @@ public final class WorkflowSchedulerService implements Service {
         } catch (Exception e) {
             logger.error("Error stopping quartz scheduler...", e);
         }
+        if (fanOutExecutor != null) {
+            fanOutExecutor.shutdown();
+        }
+        SchedulerMetrics.getRegistry().removeMatching((name, metric) ->
+                name.startsWith(TRIGGERS_METRIC_PREFIX + "."));
     }
 
     /**
@@ -313,13 +616,31 @@ public final class WorkflowSchedulerService implements Service {
             final String workflowName = jobDataMap.getString(WORKFLOW_NAME);
             final String triggerName = jobDataMap.getString(TRIGGER_NAME);
             try {
-                WorkflowSchedulerService.getService().execute(workflowName, triggerName, namespace);
-            } catch (ServiceException | ValidationException e) {
+                WorkflowSchedulerService.getService().execute(workflowName, triggerName, namespace,
+                        jobExecutionContext.getScheduledFireTime().getTime());
+            } catch (ServiceException e) {
                 logger.error("Error executing workflow {} for trigger {}", workflowName, triggerName, e);
             }
         }
     }
 
+    /**
+     * quartz job scheduled per shared trigger and submits all the subscribed workflows for execution
+     */
+    public static final class CoalescedTriggerJob implements org.quartz.Job {
+        @Override
+        @SuppressWarnings("unchecked")
+        public void execute(JobExecutionContext jobExecutionContext) {
+            final List<WorkflowTriggerId> subscribers = new ArrayList<>();
+            for (Object subscriber : jobExecutionContext.getJobDetail().getJobDataMap().values()) {
+                final List<String> triggerId = (List<String>) subscriber;
+                subscribers.add(WorkflowTriggerId.build(triggerId.get(0), triggerId.get(2), triggerId.get(1)));
+            }
+            WorkflowSchedulerService.getService()
+                    .fanOut(subscribers, jobExecutionContext.getScheduledFireTime().getTime());
+        }
+    }
+
     public static final class WorkflowLifecycleHandler implements TaskStatusChangeListener {
         @Override
         public void statusChanged(TaskId taskId, Task.Status from, Task.Status to) {
@@ -327,29 +648,20 @@ public final class WorkflowSchedulerService implements Service {
             if (!to.isFinal()) {
                 return;
             }
-            final String jobId = taskId.getJob();
-            final String workflow = taskId.getWorkflow();
             final String namespace = taskId.getNamespace();
+            final JobId jobId = JobId.build(namespace, taskId.getJob(), taskId.getWorkflow());
+            // task counters are handed over once, when the last task of the job reaches final state
+            final JobTaskCounters jobTaskCounters = TaskService.getService().removeIfComplete(jobId);
+            if (jobTaskCounters == null) {
+                return;
+            }
             try {
-                final List<Task> tasks = TaskService.getService().get(namespace, jobId, workflow);
-                if (tasks.isEmpty()) {
-                    return;
-                }
-                final boolean isWorkflowComplete = tasks.stream()
-                        .allMatch(workflowTask -> workflowTask.getStatus().isFinal());
-
-                if (isWorkflowComplete) {
-                    final boolean isSuccessful = tasks.stream()
-                            .allMatch(workflowTask -> workflowTask.getStatus() == Task.Status.SUCCESSFUL);
-                    final Job.Status status = isSuccessful ? SUCCESSFUL : FAILED;
-                    JobService.getService().updateStatus(JobId.build(namespace, jobId, workflow), status);
-                    Job job = JobService.getService().get(JobId.build(namespace, jobId, workflow));
-                    WorkflowTrigger workflowTrigger = WorkflowTriggerService.getService()
-                            .get(WorkflowTriggerId.build(namespace, job.getTrigger(), job.getWorkflow()));
-                    if (workflowTrigger != null &&
-                            WorkflowSchedulerService.getService().shouldReschedule(workflowTrigger)) {
-                        WorkflowSchedulerService.getService().reschedule(workflowTrigger);
-                    }
+                final Job.Status status = jobTaskCounters.isSuccessful() ? SUCCESSFUL : FAILED;
+                final Job job = JobService.getService().updateStatus(jobId, status);
+                WorkflowTrigger workflowTrigger = WorkflowTriggerService.getService()
+                        .load(WorkflowTriggerId.build(namespace, job.getTrigger(), job.getWorkflow()));
+                if (workflowTrigger != null && workflowTrigger.getSchedule().getType() == Schedule.Type.fixed) {
+                    WorkflowSchedulerService.getService().reschedule(workflowTrigger);
                 }
             } catch (ServiceException | ValidationException e) {
                 logger.error("Error handling status change for task {}, from {} to {}", taskId, from, to, e);
@@ -360,6 +672,9 @@ public final class WorkflowSchedulerService implements Service {
     public final class QuartzSchedulerListener extends SchedulerListenerSupport {
         @Override
         public void triggerFinalized(Trigger trigger) {
+            if (COALESCED_GROUP.equals(trigger.getKey().getGroup())) {
+                return;
+            }
             try {
                 final JobDataMap workflowDataMap = scheduler.getJobDetail(trigger.getJobKey()).getJobDataMap();
                 final String namespace = workflowDataMap.getString(NAMESPACE);
@@ -21,6 +21,7 @@ import com.cognitree.kronos.Service;
 import com.cognitree.kronos.ServiceException;
 import com.cognitree.kronos.ServiceProvider;
 import com.cognitree.kronos.model.Policy;
+import com.cognitree.kronos.model.RetryPolicy;
 import com.cognitree.kronos.model.Task;
 import com.cognitree.kronos.scheduler.graph.TopologicalSort;
 import com.cognitree.kronos.scheduler.model.Job;
@@ -44,9 +45,11 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static com.cognitree.kronos.scheduler.ValidationError.CYCLIC_DEPENDENCY_IN_WORKFLOW;
 import static com.cognitree.kronos.scheduler.ValidationError.DUPLICATE_POLICY_OF_SAME_TYPE;
+import static com.cognitree.kronos.scheduler.ValidationError.INVALID_RETRY_POLICY;
 import static com.cognitree.kronos.scheduler.ValidationError.MISSING_PARAM_IN_WORKFLOW;
 import static com.cognitree.kronos.scheduler.ValidationError.MISSING_TASK_IN_WORKFLOW;
 import static com.cognitree.kronos.scheduler.ValidationError.NAMESPACE_NOT_FOUND;
@@ -75,6 +78,8 @@ public class WorkflowService implements Service {
         }
     }
 
+    // plan compiled from the latest version of the workflow keyed by workflow id
+    private final Map<WorkflowId, WorkflowPlan> workflowPlans = new ConcurrentHashMap<>();
     private WorkflowStore workflowStore;
 
     public static WorkflowService getService() {
@@ -104,6 +109,7 @@ public class WorkflowService implements Service {
             }
             WorkflowSchedulerService.getService().add(workflow);
             workflowStore.store(workflow);
+            compilePlan(workflow);
         } catch (StoreException | SchedulerException e) {
             logger.error("unable to add workflow {}", workflow, e);
             throw new ServiceException(e.getMessage(), e.getCause());
@@ -125,6 +131,14 @@ public class WorkflowService implements Service {
     public Workflow get(WorkflowId workflowId) throws ServiceException, ValidationException {
         logger.debug("Received request to get workflow {}", workflowId);
         validateNamespace(workflowId.getNamespace());
+        return load(workflowId);
+    }
+
+    /**
+     * loads the workflow skipping the validation of its namespace. Internal entry point for the scheduler and the
+     * listeners handling ids known to exist.
+     */
+    Workflow load(WorkflowId workflowId) throws ServiceException {
         try {
             return workflowStore.load(workflowId);
         } catch (StoreException e) {
@@ -203,6 +217,7 @@ public class WorkflowService implements Service {
             }
             WorkflowSchedulerService.getService().update(workflow);
             workflowStore.update(workflow);
+            compilePlan(workflow);
         } catch (StoreException | SchedulerException e) {
             logger.error("unable to update workflow {}", workflow, e);
             throw new ServiceException(e.getMessage(), e.getCause());
@@ -226,6 +241,7 @@ public class WorkflowService implements Service {
             JobService.getService().delete(workflowId.getNamespace(), workflowId.getName());
             WorkflowSchedulerService.getService().delete(workflowId);
             workflowStore.delete(workflowId);
+            workflowPlans.remove(WorkflowId.build(workflowId.getNamespace(), workflowId.getName()));
         } catch (StoreException e) {
             logger.error("unable to delete workflow {}", workflowId, e);
             throw new ServiceException(e.getMessage(), e.getCause());
@@ -233,6 +249,47 @@ public class WorkflowService implements Service {
 
     }
 
+    private void compilePlan(Workflow workflow) {
+        final WorkflowId workflowId = WorkflowId.build(workflow.getNamespace(), workflow.getName());
+        final WorkflowPlan workflowPlan = WorkflowPlan.compile(workflow);
+        logger.debug("Compiled plan {}", workflowPlan);
+        workflowPlans.put(workflowId, workflowPlan);
+    }
+
+    /**
+     * returns the plan compiled from the latest version of the workflow, the plan is compiled and cached if not
+     * available. Internal entry point for the scheduler, the namespace is not validated.
+     *
+     * @param workflowId id of the workflow
+     * @return compiled plan, null if the workflow does not exist
+     */
+    WorkflowPlan getPlan(WorkflowId workflowId) throws ServiceException {
+        final WorkflowPlan workflowPlan = workflowPlans.get(workflowId);
+        if (workflowPlan != null) {
+            return workflowPlan;
+        }
+        final Workflow workflow = load(workflowId);
+        if (workflow == null) {
+            return null;
+        }
+        // a plan compiled from a newer version of the workflow by a concurrent update takes precedence
+        return workflowPlans.computeIfAbsent(workflowId, id -> WorkflowPlan.compile(workflow));
+    }
+
+    /**
+     * returns the compiled property template for the workflow task from the latest plan of the workflow if
+     * available and of the given version, null otherwise
+     */
+    PropertyTemplate getPropertyTemplate(String namespace, String workflowName, String workflowTaskName,
+                                         Long planVersion) {
+        final WorkflowPlan workflowPlan = workflowPlans.get(WorkflowId.build(namespace, workflowName));
+        if (workflowPlan == null || planVersion == null || workflowPlan.getVersion() != planVersion) {
+            return null;
+        }
+        final WorkflowPlan.TaskPlan taskPlan = workflowPlan.getTaskPlan(workflowTaskName);
+        return taskPlan == null ? null : taskPlan.getPropertyTemplate();
+    }
+
     private void validateNamespace(String name) throws ValidationException, ServiceException {
         final Namespace namespace = NamespaceService.getService().get(NamespaceId.build(name));
         if (namespace == null) {
@@ -303,6 +360,9 @@ public class WorkflowService implements Service {
     private void validateWorkflowTaskPolicies(String workflowTask, List<Policy> policies) throws ValidationException {
         Map<Policy.Type, List<Policy>> policyTypeMap = new HashMap<>();
         for (Policy policy : policies) {
+            if (policy instanceof RetryPolicy) {
+                validateRetryPolicy(workflowTask, (RetryPolicy) policy);
+            }
             List<Policy> policyTypeList =
                     policyTypeMap.computeIfAbsent(policy.getType(), k -> new ArrayList<>());
             policyTypeList.add(policy);
@@ -316,6 +376,21 @@ public class WorkflowService implements Service {
         }
     }
 
+    private void validateRetryPolicy(String workflowTask, RetryPolicy retryPolicy) throws ValidationException {
+        if (retryPolicy.getRetryDelayInMs() < 0) {
+            throw INVALID_RETRY_POLICY.createException(workflowTask, "retry delay can not be negative");
+        }
+        if (retryPolicy.getBackoffMultiplier() < 1) {
+            throw INVALID_RETRY_POLICY.createException(workflowTask, "backoff multiplier can not be less than 1");
+        }
+        if (retryPolicy.getMaxRetryDelayInMs() < -1) {
+            throw INVALID_RETRY_POLICY.createException(workflowTask, "max retry delay can either be -1 or positive");
+        }
+        if (retryPolicy.getJitterFactor() < 0 || retryPolicy.getJitterFactor() > 1) {
+            throw INVALID_RETRY_POLICY.createException(workflowTask, "jitter factor should be between 0 and 1");
+        }
+    }
+
     @Override
     public void stop() {
         logger.info("Stopping workflow service");
@@ -168,6 +168,14 @@ public class WorkflowTriggerService implements Service {
     public WorkflowTrigger get(WorkflowTriggerId workflowTriggerId) throws ServiceException, ValidationException {
         logger.debug("Received request to get workflow trigger with id {}", workflowTriggerId);
         validateWorkflow(workflowTriggerId.getNamespace(), workflowTriggerId.getWorkflow());
+        return load(workflowTriggerId);
+    }
+
+    /**
+     * loads the workflow trigger skipping the validation of its namespace and workflow. Internal entry point for the
+     * scheduler and the listeners handling ids known to exist.
+     */
+    WorkflowTrigger load(WorkflowTriggerId workflowTriggerId) throws ServiceException {
         try {
             return workflowTriggerStore.load(workflowTriggerId);
         } catch (StoreException e) {
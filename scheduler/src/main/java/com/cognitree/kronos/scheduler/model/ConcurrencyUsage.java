@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cognitree.kronos.scheduler.model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * number of tasks in flight (scheduled or running) against the configured concurrency limits in a namespace
+ */
+public class ConcurrencyUsage {
+    private Usage namespace;
+    private Map<String, Usage> workflows = new HashMap<>();
+    private Map<String, Usage> taskTypes = new HashMap<>();
+
+    public Usage getNamespace() {
+        return namespace;
+    }
+
+    public void setNamespace(Usage namespace) {
+        this.namespace = namespace;
+    }
+
+    public Map<String, Usage> getWorkflows() {
+        return workflows;
+    }
+
+    public void setWorkflows(Map<String, Usage> workflows) {
+        this.workflows = workflows;
+    }
+
+    public Map<String, Usage> getTaskTypes() {
+        return taskTypes;
+    }
+
+    public void setTaskTypes(Map<String, Usage> taskTypes) {
+        this.taskTypes = taskTypes;
+    }
+
+    @Override
+    public String toString() {
+        return "ConcurrencyUsage{" +
+                "namespace=" + namespace +
+                ", workflows=" + workflows +
+                ", taskTypes=" + taskTypes +
+                '}';
+    }
+
+    public static class Usage {
+        private int inFlight;
+        private int limit;
+
+        public static Usage build(int inFlight, int limit) {
+            final Usage usage = new Usage();
+            usage.setInFlight(inFlight);
+            usage.setLimit(limit);
+            return usage;
+        }
+
+        public int getInFlight() {
+            return inFlight;
+        }
+
+        public void setInFlight(int inFlight) {
+            this.inFlight = inFlight;
+        }
+
+        public int getLimit() {
+            return limit;
+        }
+
+        public void setLimit(int limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public String toString() {
+            return "Usage{" +
+                    "inFlight=" + inFlight +
+                    ", limit=" + limit +
+                    '}';
+        }
+    }
+}
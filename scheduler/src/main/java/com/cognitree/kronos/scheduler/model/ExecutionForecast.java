@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cognitree.kronos.scheduler.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * expected number of jobs and tasks running concurrently in a namespace, forecast from the upcoming fire times of its
+ * workflow triggers and the historical durations of the workflow jobs
+ */
+public class ExecutionForecast {
+    private String namespace;
+    private long from;
+    private long to;
+    private long slotDurationInMs;
+    private List<Slot> slots = new ArrayList<>();
+
+    public String getNamespace() {
+        return namespace;
+    }
+
+    public void setNamespace(String namespace) {
+        this.namespace = namespace;
+    }
+
+    public long getFrom() {
+        return from;
+    }
+
+    public void setFrom(long from) {
+        this.from = from;
+    }
+
+    public long getTo() {
+        return to;
+    }
+
+    public void setTo(long to) {
+        this.to = to;
+    }
+
+    public long getSlotDurationInMs() {
+        return slotDurationInMs;
+    }
+
+    public void setSlotDurationInMs(long slotDurationInMs) {
+        this.slotDurationInMs = slotDurationInMs;
+    }
+
+    public List<Slot> getSlots() {
+        return slots;
+    }
+
+    public void setSlots(List<Slot> slots) {
+        this.slots = slots;
+    }
+
+    @Override
+    public String toString() {
+        return "ExecutionForecast{" +
+                "namespace='" + namespace + '\'' +
+                ", from=" + from +
+                ", to=" + to +
+                ", slotDurationInMs=" + slotDurationInMs +
+                ", slots=" + slots +
+                '}';
+    }
+
+    /**
+     * jobs expected to be running at some point within the slot and the tasks belonging to them
+     */
+    public static class Slot {
+        private long startAt;
+        private int jobs;
+        private int tasks;
+
+        public static Slot build(long startAt, int jobs, int tasks) {
+            final Slot slot = new Slot();
+            slot.setStartAt(startAt);
+            slot.setJobs(jobs);
+            slot.setTasks(tasks);
+            return slot;
+        }
+
+        public long getStartAt() {
+            return startAt;
+        }
+
+        public void setStartAt(long startAt) {
+            this.startAt = startAt;
+        }
+
+        public int getJobs() {
+            return jobs;
+        }
+
+        public void setJobs(int jobs) {
+            this.jobs = jobs;
+        }
+
+        public int getTasks() {
+            return tasks;
+        }
+
+        public void setTasks(int tasks) {
+            this.tasks = tasks;
+        }
+
+        @Override
+        public String toString() {
+            return "Slot{" +
+                    "startAt=" + startAt +
+                    ", jobs=" + jobs +
+                    ", tasks=" + tasks +
+                    '}';
+        }
+    }
+}
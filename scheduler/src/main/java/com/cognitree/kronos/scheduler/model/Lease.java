@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cognitree.kronos.scheduler.model;
+
+import java.util.Objects;
+
+/**
+ * a time bound claim of a scheduler node over a named resource, used to coordinate the ownership of partitions
+ * among the scheduler nodes
+ */
+public class Lease {
+    private String name;
+    private String owner;
+    private long expiresAt;
+
+    public static Lease build(String name, String owner, long expiresAt) {
+        final Lease lease = new Lease();
+        lease.setName(name);
+        lease.setOwner(owner);
+        lease.setExpiresAt(expiresAt);
+        return lease;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(long expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Lease)) return false;
+        Lease lease = (Lease) o;
+        return expiresAt == lease.expiresAt &&
+                Objects.equals(name, lease.name) &&
+                Objects.equals(owner, lease.owner);
+    }
+
+    @Override
+    public int hashCode() {
+
+        return Objects.hash(name, owner, expiresAt);
+    }
+
+    @Override
+    public String toString() {
+        return "Lease{" +
+                "name='" + name + '\'' +
+                ", owner='" + owner + '\'' +
+                ", expiresAt=" + expiresAt +
+                '}';
+    }
+}
@@ -28,6 +28,10 @@ import org.bson.codecs.pojo.annotations.BsonIgnore;
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public class Namespace extends NamespaceId {
     private String description;
+    /**
+     * share of the scheduler dispatch given to the namespace relative to other namespaces with tasks ready
+     */
+    private int weight = 1;
 
     public String getDescription() {
         return description;
@@ -37,6 +41,14 @@ public class Namespace extends NamespaceId {
         this.description = description;
     }
 
+    public int getWeight() {
+        return weight;
+    }
+
+    public void setWeight(int weight) {
+        this.weight = weight;
+    }
+
     @JsonIgnore
     @BsonIgnore
     public NamespaceId getIdentity() {
@@ -57,6 +69,7 @@ public class Namespace extends NamespaceId {
     public String toString() {
         return "Namespace{" +
                 "description='" + description + '\'' +
+                ", weight=" + weight +
                 "} " + super.toString();
     }
 }
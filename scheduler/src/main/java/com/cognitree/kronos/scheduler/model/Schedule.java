@@ -36,6 +36,7 @@ import java.util.Objects;
 public abstract class Schedule {
     private Type type;
     private int misfireInstruction = Trigger.MISFIRE_INSTRUCTION_SMART_POLICY;
+    private long jitterWindowInMs;
 
     public Schedule(Type type) {
         this.type = type;
@@ -53,19 +54,34 @@ public abstract class Schedule {
         this.misfireInstruction = misfireInstruction;
     }
 
+    /**
+     * window within which the executions of the trigger are spread, the fire times of the trigger are delayed from
+     * its schedule by an offset derived from the hash of the trigger identity so that triggers with the same schedule
+     * do not create their jobs at once. A fixed delay trigger delays its first execution only, the next ones follow
+     * the completion of the previous. Defaults to 0, no jitter.
+     */
+    public long getJitterWindowInMs() {
+        return jitterWindowInMs;
+    }
+
+    public void setJitterWindowInMs(long jitterWindowInMs) {
+        this.jitterWindowInMs = jitterWindowInMs;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof Schedule)) return false;
         Schedule schedule = (Schedule) o;
         return misfireInstruction == schedule.misfireInstruction &&
+                jitterWindowInMs == schedule.jitterWindowInMs &&
                 type == schedule.type;
     }
 
     @Override
     public int hashCode() {
 
-        return Objects.hash(type, misfireInstruction);
+        return Objects.hash(type, misfireInstruction, jitterWindowInMs);
     }
 
     @Override
@@ -73,6 +89,7 @@ public abstract class Schedule {
         return "Schedule{" +
                 "type=" + type +
                 ", misfireInstruction=" + misfireInstruction +
+                ", jitterWindowInMs=" + jitterWindowInMs +
                 '}';
     }
 
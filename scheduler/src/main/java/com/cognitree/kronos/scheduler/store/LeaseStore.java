@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cognitree.kronos.scheduler.store;
+
+import com.cognitree.kronos.scheduler.model.Lease;
+
+import java.util.List;
+
+/**
+ * An interface exposing API's to provide {@link Lease} persistence.
+ * <p>
+ * Leases are shared by all the scheduler nodes, a lease is held by at most one owner at a time. Implementations are
+ * expected to acquire a lease atomically, e.g. by a conditional insert or update of a lease table, and to evaluate
+ * the expiry against a single clock.
+ * </p>
+ */
+public interface LeaseStore {
+
+    /**
+     * acquires the lease if it is not held, has expired or is already held by the owner, in which case it is renewed
+     *
+     * @param name              name of the lease
+     * @param owner             owner acquiring the lease
+     * @param leaseDurationInMs duration for which the lease is held unless renewed
+     * @return true if the lease is held by the owner
+     * @throws StoreException
+     */
+    boolean acquire(String name, String owner, long leaseDurationInMs) throws StoreException;
+
+    /**
+     * releases the lease if held by the owner
+     *
+     * @param name  name of the lease
+     * @param owner owner releasing the lease
+     * @throws StoreException
+     */
+    void release(String name, String owner) throws StoreException;
+
+    /**
+     * @return all the leases yet to expire
+     * @throws StoreException
+     */
+    List<Lease> load() throws StoreException;
+}
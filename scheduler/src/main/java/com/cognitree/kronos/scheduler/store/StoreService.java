@@ -51,6 +51,8 @@ public abstract class StoreService implements Service {
 
     public abstract org.quartz.spi.JobStore getQuartzJobStore();
 
+    public abstract LeaseStore getLeaseStore();
+
     /**
      * return true is store is persistent, false if the store is in memory store
      *
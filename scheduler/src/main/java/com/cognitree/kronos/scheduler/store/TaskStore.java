@@ -29,6 +29,18 @@ import java.util.Map;
  */
 public interface TaskStore extends Store<Task, TaskId> {
 
+    /**
+     * stores all the tasks, stores supporting batch writes should override it to persist the tasks in one round trip
+     *
+     * @param tasks tasks to store
+     * @throws StoreException
+     */
+    default void storeAll(List<Task> tasks) throws StoreException {
+        for (Task task : tasks) {
+            store(task);
+        }
+    }
+
     List<Task> load(String namespace) throws StoreException;
 
     List<Task> loadByJobIdAndWorkflowName(String namespace, String jobId, String workflowName) throws StoreException;
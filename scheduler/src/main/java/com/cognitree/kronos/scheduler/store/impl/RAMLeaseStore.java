@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cognitree.kronos.scheduler.store.impl;
+
+import com.cognitree.kronos.scheduler.model.Lease;
+import com.cognitree.kronos.scheduler.store.LeaseStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+public class RAMLeaseStore implements LeaseStore {
+    private static final Logger logger = LoggerFactory.getLogger(RAMLeaseStore.class);
+
+    private final Map<String, Lease> leases = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean acquire(String name, String owner, long leaseDurationInMs) {
+        logger.debug("Received request to acquire lease {} by owner {}", name, owner);
+        final long currentTimeMillis = System.currentTimeMillis();
+        final Lease lease = leases.compute(name, (leaseName, currentLease) -> {
+            if (currentLease == null || currentLease.getExpiresAt() <= currentTimeMillis
+                    || currentLease.getOwner().equals(owner)) {
+                return Lease.build(leaseName, owner, currentTimeMillis + leaseDurationInMs);
+            }
+            return currentLease;
+        });
+        return lease.getOwner().equals(owner);
+    }
+
+    @Override
+    public void release(String name, String owner) {
+        logger.debug("Received request to release lease {} by owner {}", name, owner);
+        leases.computeIfPresent(name, (leaseName, currentLease) ->
+                currentLease.getOwner().equals(owner) ? null : currentLease);
+    }
+
+    @Override
+    public List<Lease> load() {
+        logger.debug("Received request to get all leases");
+        final long currentTimeMillis = System.currentTimeMillis();
+        return leases.values().stream()
+                .filter(lease -> lease.getExpiresAt() > currentTimeMillis)
+                .collect(Collectors.toList());
+    }
+}
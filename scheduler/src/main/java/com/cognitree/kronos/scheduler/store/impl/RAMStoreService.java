@@ -18,6 +18,7 @@
 package com.cognitree.kronos.scheduler.store.impl;
 
 import com.cognitree.kronos.scheduler.store.JobStore;
+import com.cognitree.kronos.scheduler.store.LeaseStore;
 import com.cognitree.kronos.scheduler.store.NamespaceStore;
 import com.cognitree.kronos.scheduler.store.StoreService;
 import com.cognitree.kronos.scheduler.store.TaskStore;
@@ -36,6 +37,7 @@ public class RAMStoreService extends StoreService {
     private JobStore jobStore;
     private TaskStore taskStore;
     private org.quartz.spi.JobStore quartzJobStore;
+    private LeaseStore leaseStore;
 
     public RAMStoreService(ObjectNode config) {
         super(config);
@@ -50,6 +52,7 @@ public class RAMStoreService extends StoreService {
         jobStore = new RAMJobStore();
         taskStore = new RAMTaskStore();
         quartzJobStore = new org.quartz.simpl.RAMJobStore();
+        leaseStore = new RAMLeaseStore();
     }
 
     @Override
@@ -87,6 +90,11 @@ public class RAMStoreService extends StoreService {
         return quartzJobStore;
     }
 
+    @Override
+    public LeaseStore getLeaseStore() {
+        return leaseStore;
+    }
+
     @Override
     public boolean isPersistent() {
         return false;
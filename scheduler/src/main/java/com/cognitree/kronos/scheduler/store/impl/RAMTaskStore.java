@@ -46,6 +46,19 @@ public class RAMTaskStore implements TaskStore {
         tasks.put(taskId, task);
     }
 
+    @Override
+    public void storeAll(List<Task> tasks) throws StoreException {
+        logger.debug("Received request to store {} tasks", tasks.size());
+        final Map<TaskId, Task> tasksById = new HashMap<>();
+        for (Task task : tasks) {
+            final TaskId taskId = TaskId.build(task.getNamespace(), task.getName(), task.getJob(), task.getWorkflow());
+            if (this.tasks.containsKey(taskId) || tasksById.put(taskId, task) != null) {
+                throw new StoreException("task with id " + taskId + " already exists");
+            }
+        }
+        this.tasks.putAll(tasksById);
+    }
+
     @Override
     public List<Task> load(String namespace) {
         logger.debug("Received request to get all tasks under namespace {}", namespace);
@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cognitree.kronos.scheduler.util;
+
+import org.quartz.ScheduleBuilder;
+import org.quartz.SimpleTrigger;
+import org.quartz.spi.MutableTrigger;
+
+import static org.quartz.SimpleTrigger.MISFIRE_INSTRUCTION_FIRE_NOW;
+import static org.quartz.SimpleTrigger.REPEAT_INDEFINITELY;
+
+/**
+ * builds a {@link FixedDelayTrigger} firing at a fixed delay from the completion of the previous execution
+ */
+public class FixedDelayScheduleBuilder extends ScheduleBuilder<SimpleTrigger> {
+
+    private final long intervalInMs;
+
+    private FixedDelayScheduleBuilder(long intervalInMs) {
+        this.intervalInMs = intervalInMs;
+    }
+
+    public static FixedDelayScheduleBuilder fixedDelaySchedule(long intervalInMs) {
+        return new FixedDelayScheduleBuilder(intervalInMs);
+    }
+
+    @Override
+    protected MutableTrigger build() {
+        final FixedDelayTrigger trigger = new FixedDelayTrigger();
+        trigger.setRepeatInterval(intervalInMs);
+        trigger.setRepeatCount(REPEAT_INDEFINITELY);
+        // a misfired trigger fires as soon as possible, the delay is honoured from the completion of that execution
+        trigger.setMisfireInstruction(MISFIRE_INSTRUCTION_FIRE_NOW);
+        return trigger;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cognitree.kronos.scheduler.util;
+
+import org.quartz.Calendar;
+import org.quartz.ScheduleBuilder;
+import org.quartz.SimpleTrigger;
+import org.quartz.impl.triggers.SimpleTriggerImpl;
+
+import java.util.Date;
+
+/**
+ * A quartz trigger to schedule workflow at a fixed delay.
+ * <p>
+ * Once fired the trigger is parked, its next fire time is held at {@link #PARKED_FIRE_TIME} so that it neither
+ * fires again nor gets finalized by quartz while the job is running. On job completion the trigger is rescheduled
+ * in place to fire after the delay with {@link #next(long)}.
+ * </p>
+ */
+public class FixedDelayTrigger extends SimpleTriggerImpl {
+
+    static final Date PARKED_FIRE_TIME = new Date(Long.MAX_VALUE);
+
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public void triggered(Calendar calendar) {
+        setTimesTriggered(getTimesTriggered() + 1);
+        setPreviousFireTime(getNextFireTime());
+        setNextFireTime(PARKED_FIRE_TIME);
+    }
+
+    @Override
+    public boolean mayFireAgain() {
+        return true;
+    }
+
+    /**
+     * @return true if the trigger has fired and is waiting for the job to complete to be rescheduled
+     */
+    public boolean isParked() {
+        return PARKED_FIRE_TIME.equals(getNextFireTime());
+    }
+
+    /**
+     * builds a copy of this trigger, retaining its key, job and job data, which fires once the delay elapses
+     *
+     * @param currentTimeInMs time to compute the next fire time from
+     * @return trigger to reschedule this trigger with
+     */
+    public FixedDelayTrigger next(long currentTimeInMs) {
+        return (FixedDelayTrigger) getTriggerBuilder()
+                .startAt(new Date(currentTimeInMs + getRepeatInterval()))
+                .build();
+    }
+
+    @Override
+    public ScheduleBuilder<SimpleTrigger> getScheduleBuilder() {
+        return FixedDelayScheduleBuilder.fixedDelaySchedule(getRepeatInterval());
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cognitree.kronos.scheduler.util;
+
+import org.quartz.ScheduleBuilder;
+import org.quartz.Trigger;
+import org.quartz.impl.triggers.CronTriggerImpl;
+import org.quartz.impl.triggers.DailyTimeIntervalTriggerImpl;
+import org.quartz.spi.MutableTrigger;
+
+import static org.quartz.TriggerBuilder.newTrigger;
+
+/**
+ * builds the trigger of the wrapped schedule with each of its fire times shifted by a jitter offset.
+ * <p>
+ * Only cron and daily time interval schedules are supported, their fire times are not relative to the start time of
+ * the trigger. The fire times of the other schedules are shifted by delaying the start time instead.
+ * </p>
+ */
+public class JitterScheduleBuilder<T extends Trigger> extends ScheduleBuilder<T> {
+
+    private final ScheduleBuilder<T> scheduleBuilder;
+    private final long jitterOffset;
+
+    private JitterScheduleBuilder(ScheduleBuilder<T> scheduleBuilder, long jitterOffset) {
+        this.scheduleBuilder = scheduleBuilder;
+        this.jitterOffset = jitterOffset;
+    }
+
+    public static <T extends Trigger> JitterScheduleBuilder<T> jitterSchedule(ScheduleBuilder<T> scheduleBuilder,
+                                                                             long jitterOffset) {
+        return new JitterScheduleBuilder<>(scheduleBuilder, jitterOffset);
+    }
+
+    @Override
+    protected MutableTrigger build() {
+        final Trigger trigger = newTrigger().withSchedule(scheduleBuilder).build();
+        if (trigger instanceof CronTriggerImpl) {
+            return new JitteredCronTrigger((CronTriggerImpl) trigger, jitterOffset);
+        }
+        if (trigger instanceof DailyTimeIntervalTriggerImpl) {
+            return new JitteredDailyTimeIntervalTrigger((DailyTimeIntervalTriggerImpl) trigger, jitterOffset);
+        }
+        throw new IllegalArgumentException("jitter is not supported for trigger " + trigger.getClass().getName());
+    }
+}
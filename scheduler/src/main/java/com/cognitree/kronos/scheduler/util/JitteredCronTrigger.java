@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cognitree.kronos.scheduler.util;
+
+import org.quartz.CronExpression;
+import org.quartz.CronTrigger;
+import org.quartz.ScheduleBuilder;
+import org.quartz.impl.triggers.CronTriggerImpl;
+
+import java.text.ParseException;
+import java.util.Date;
+
+/**
+ * A quartz cron trigger firing at each time matched by its cron expression delayed by a jitter offset.
+ * <p>
+ * The offset is applied to the fire times computed by quartz, so the delayed fire times are the ones stored in the job
+ * store and subject to misfire handling.
+ * </p>
+ */
+public class JitteredCronTrigger extends CronTriggerImpl {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long jitterOffset;
+
+    JitteredCronTrigger(CronTriggerImpl cronTrigger, long jitterOffset) {
+        try {
+            setCronExpression(new CronExpression(cronTrigger.getCronExpression()));
+        } catch (ParseException e) {
+            // already parsed by the trigger being copied
+            throw new IllegalArgumentException(e);
+        }
+        setTimeZone(cronTrigger.getTimeZone());
+        setMisfireInstruction(cronTrigger.getMisfireInstruction());
+        this.jitterOffset = jitterOffset;
+    }
+
+    public long getJitterOffset() {
+        return jitterOffset;
+    }
+
+    @Override
+    public Date getFireTimeAfter(Date afterTime) {
+        final long after = afterTime == null ? System.currentTimeMillis() : afterTime.getTime();
+        final Date fireTime = super.getFireTimeAfter(new Date(after - jitterOffset));
+        return fireTime == null ? null : new Date(fireTime.getTime() + jitterOffset);
+    }
+
+    @Override
+    public ScheduleBuilder<CronTrigger> getScheduleBuilder() {
+        return JitterScheduleBuilder.jitterSchedule(super.getScheduleBuilder(), jitterOffset);
+    }
+}
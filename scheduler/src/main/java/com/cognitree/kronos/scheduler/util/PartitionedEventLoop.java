@@ -0,0 +1,248 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cognitree.kronos.scheduler.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * A set of single threaded event loops, each owning a partition of keys. Commands for a key are always run by the
+ * event loop owning the key, so the state belonging to a key has a single writer and needs no locking.
+ * <p>
+ * Each event loop is fed by a lock-free multi producer single consumer queue and drains the commands queued in
+ * batches, parking when there is nothing to run. Commands submitted from outside the event loop are run in the order
+ * they were submitted. Commands submitted from the event loop owning the key are run inline as part of the command
+ * submitting them, ahead of the commands already queued for the key.
+ * </p>
+ * <p>
+ * Commands submitted once the event loop is stopped are rejected.
+ * </p>
+ */
+public final class PartitionedEventLoop {
+    private static final Logger logger = LoggerFactory.getLogger(PartitionedEventLoop.class);
+
+    // max commands run in one pass before checking whether the event loop is stopped
+    private static final int MAX_BATCH_SIZE = 1024;
+
+    private final EventLoop[] eventLoops;
+    private volatile boolean running;
+
+    /**
+     * @param name       prefix of the name of the event loop threads
+     * @param partitions number of event loops
+     */
+    public PartitionedEventLoop(String name, int partitions) {
+        if (partitions <= 0) {
+            throw new IllegalArgumentException("partitions must be greater than 0: " + partitions);
+        }
+        eventLoops = new EventLoop[partitions];
+        for (int i = 0; i < partitions; i++) {
+            eventLoops[i] = new EventLoop(name + "-" + i);
+        }
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        for (EventLoop eventLoop : eventLoops) {
+            eventLoop.thread.start();
+        }
+    }
+
+    /**
+     * runs the command asynchronously on the event loop owning the key, inline if called from the same event loop.
+     * The command is dropped if the event loop is stopped.
+     *
+     * @param key     key the command belongs to
+     * @param command command to run
+     */
+    public void execute(Object key, Runnable command) {
+        final EventLoop eventLoop = getEventLoop(key);
+        if (Thread.currentThread() == eventLoop.thread) {
+            eventLoop.run(command);
+        } else if (!eventLoop.submit(command)) {
+            logger.error("Event loop {} is stopped, dropping command", eventLoop.thread.getName());
+        }
+    }
+
+    /**
+     * runs the command on the event loop owning the key and waits for its result, inline if called from the same
+     * event loop.
+     * <p>
+     * Must not be called from an event loop for a key owned by another event loop as the two event loops could end
+     * up waiting on each other.
+     * </p>
+     *
+     * @param key     key the command belongs to
+     * @param command command to run
+     * @return result of the command
+     * @throws IllegalStateException if the event loop is not running
+     */
+    public <T> T call(Object key, Supplier<T> command) {
+        final EventLoop eventLoop = getEventLoop(key);
+        if (Thread.currentThread() == eventLoop.thread) {
+            return command.get();
+        }
+        if (!running) {
+            throw new IllegalStateException("event loop is not running");
+        }
+        if (inEventLoop()) {
+            throw new IllegalStateException("can not wait on another event loop from event loop " +
+                    Thread.currentThread().getName());
+        }
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        final boolean submitted = eventLoop.submit(() -> {
+            try {
+                future.complete(command.get());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        });
+        if (!submitted) {
+            // stopped after the running check, the command would never complete
+            throw new IllegalStateException("event loop is not running");
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted waiting on event loop " + eventLoop.thread.getName(), e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * @return true if the current thread is one of the event loops
+     */
+    public boolean inEventLoop() {
+        final Thread currentThread = Thread.currentThread();
+        for (EventLoop eventLoop : eventLoops) {
+            if (eventLoop.thread == currentThread) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * stops the event loops once the commands already queued are run
+     */
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        for (EventLoop eventLoop : eventLoops) {
+            LockSupport.unpark(eventLoop.thread);
+        }
+        for (EventLoop eventLoop : eventLoops) {
+            try {
+                eventLoop.thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                logger.error("Interrupted waiting for event loop {} to stop", eventLoop.thread.getName());
+                return;
+            }
+        }
+    }
+
+    private EventLoop getEventLoop(Object key) {
+        final int hash = key.hashCode();
+        return eventLoops[((hash ^ (hash >>> 16)) & Integer.MAX_VALUE) % eventLoops.length];
+    }
+
+    private final class EventLoop implements Runnable {
+        private final Queue<Runnable> commands = new ConcurrentLinkedQueue<>();
+        // set by the event loop before parking so that producers unpark it only when needed
+        private final AtomicBoolean parked = new AtomicBoolean();
+        private final Thread thread;
+        // set by the event loop before its last drain, commands queued after that are never run
+        private volatile boolean terminated;
+
+        private EventLoop(String name) {
+            thread = new Thread(this, name);
+            thread.setDaemon(true);
+        }
+
+        /**
+         * @return false if the event loop has terminated and will not run the command
+         */
+        private boolean submit(Runnable command) {
+            commands.add(command);
+            // either the last drain of the event loop sees the command or the command is withdrawn here
+            if (terminated && commands.remove(command)) {
+                return false;
+            }
+            if (parked.compareAndSet(true, false)) {
+                LockSupport.unpark(thread);
+            }
+            return true;
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                int batchSize = 0;
+                Runnable command;
+                while (batchSize < MAX_BATCH_SIZE && (command = commands.poll()) != null) {
+                    run(command);
+                    batchSize++;
+                }
+                if (batchSize > 0) {
+                    continue;
+                }
+                if (!running) {
+                    terminated = true;
+                    Runnable remaining;
+                    while ((remaining = commands.poll()) != null) {
+                        run(remaining);
+                    }
+                    return;
+                }
+                parked.set(true);
+                // a command might have been queued before the flag was set
+                if (commands.isEmpty() && running) {
+                    LockSupport.park(this);
+                }
+                parked.set(false);
+            }
+        }
+
+        private void run(Runnable command) {
+            try {
+                command.run();
+            } catch (Throwable t) {
+                logger.error("Error running command on event loop {}", thread.getName(), t);
+            }
+        }
+    }
+}
@@ -0,0 +1,293 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cognitree.kronos.scheduler.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A hashed timing wheel to run a large number of delayed tasks which are mostly cancelled before they expire,
+ * e.g. task execution timeouts.
+ * <p>
+ * Scheduling and cancelling a task is O(1) and safe to be called from any thread. Timeouts are bucketed by the
+ * tick they expire in and a single worker thread advances the wheel every tick, handing over the expired tasks to the
+ * given executor. A task is run within one tick after its delay has elapsed.
+ * </p>
+ */
+public final class TimingWheel {
+    private static final Logger logger = LoggerFactory.getLogger(TimingWheel.class);
+
+    private static final int STATE_INIT = 0;
+    private static final int STATE_CANCELLED = 1;
+    private static final int STATE_EXPIRED = 2;
+
+    private final long tickDurationInMs;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Executor executor;
+    private final Thread workerThread;
+    // timeouts are added to and removed from the wheel only by the worker thread
+    private final Queue<Timeout> pendingTimeouts = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelledTimeouts = new ConcurrentLinkedQueue<>();
+
+    private volatile boolean running;
+    private volatile long startTime;
+    private long tick;
+
+    /**
+     * @param name             name of the worker thread advancing the wheel
+     * @param tickDurationInMs duration of each tick in milliseconds, the precision of the timing wheel
+     * @param ticksPerWheel    number of buckets in the wheel, rounded up to the next power of two
+     * @param executor         executor to run the expired tasks
+     */
+    public TimingWheel(String name, long tickDurationInMs, int ticksPerWheel, Executor executor) {
+        if (tickDurationInMs <= 0) {
+            throw new IllegalArgumentException("tick duration must be greater than 0: " + tickDurationInMs);
+        }
+        if (ticksPerWheel <= 0) {
+            throw new IllegalArgumentException("ticks per wheel must be greater than 0: " + ticksPerWheel);
+        }
+        this.tickDurationInMs = tickDurationInMs;
+        int wheelSize = 1;
+        while (wheelSize < ticksPerWheel) {
+            wheelSize <<= 1;
+        }
+        this.wheel = new Bucket[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = wheelSize - 1;
+        this.executor = executor;
+        this.workerThread = new Thread(this::advance, name);
+        this.workerThread.setDaemon(true);
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        startTime = System.nanoTime();
+        running = true;
+        workerThread.start();
+    }
+
+    /**
+     * schedules the task to run after the given delay.
+     *
+     * @param task  task to run
+     * @param delay delay after which the task is run
+     * @param unit  unit of delay
+     * @return handle to cancel the task
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        if (!running) {
+            throw new IllegalStateException("timing wheel is not running");
+        }
+        final long deadline = elapsedTimeInMs() + Math.max(unit.toMillis(delay), 0);
+        final Timeout timeout = new Timeout(task, deadline);
+        pendingTimeouts.add(timeout);
+        return timeout;
+    }
+
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        workerThread.interrupt();
+        try {
+            workerThread.join();
+        } catch (InterruptedException e) {
+            logger.error("Interrupted while waiting for timing wheel worker to stop", e);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void advance() {
+        while (running) {
+            final long deadline = waitForNextTick();
+            if (deadline < 0) {
+                break;
+            }
+            removeCancelledTimeouts();
+            transferPendingTimeouts();
+            wheel[(int) (tick & mask)].expireTimeouts(deadline);
+            tick++;
+        }
+    }
+
+    /**
+     * waits for the current tick to elapse
+     *
+     * @return elapsed time since start or -1 if the timing wheel is stopped while waiting
+     */
+    private long waitForNextTick() {
+        final long deadline = tickDurationInMs * (tick + 1);
+        while (true) {
+            final long currentTime = elapsedTimeInMs();
+            final long sleepTimeInMs = deadline - currentTime;
+            if (sleepTimeInMs <= 0) {
+                return currentTime;
+            }
+            try {
+                Thread.sleep(sleepTimeInMs);
+            } catch (InterruptedException e) {
+                if (!running) {
+                    return -1;
+                }
+            }
+        }
+    }
+
+    private void removeCancelledTimeouts() {
+        Timeout timeout;
+        while ((timeout = cancelledTimeouts.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    private void transferPendingTimeouts() {
+        Timeout timeout;
+        while ((timeout = pendingTimeouts.poll()) != null) {
+            if (timeout.state.get() != STATE_INIT) {
+                continue;
+            }
+            final long expiryTick = timeout.deadline / tickDurationInMs;
+            timeout.remainingRounds = (expiryTick - tick) / wheel.length;
+            // timeouts with deadline already passed are expired in the current tick
+            final long ticks = Math.max(expiryTick, tick);
+            wheel[(int) (ticks & mask)].add(timeout);
+        }
+    }
+
+    private long elapsedTimeInMs() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+    }
+
+    /**
+     * A handle to a task scheduled with the timing wheel.
+     */
+    public final class Timeout {
+        private final Runnable task;
+        // time in milliseconds since start of the timing wheel at which the task should run
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(STATE_INIT);
+
+        private long remainingRounds;
+        private Bucket bucket;
+        private Timeout next;
+        private Timeout prev;
+
+        private Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * cancels the task if it has not yet expired.
+         *
+         * @return true if the task is cancelled, false if it has already expired or cancelled
+         */
+        public boolean cancel() {
+            if (!state.compareAndSet(STATE_INIT, STATE_CANCELLED)) {
+                return false;
+            }
+            cancelledTimeouts.add(this);
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return state.get() == STATE_CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return state.get() == STATE_EXPIRED;
+        }
+
+        private void expire() {
+            if (!state.compareAndSet(STATE_INIT, STATE_EXPIRED)) {
+                return;
+            }
+            try {
+                executor.execute(task);
+            } catch (Exception e) {
+                logger.error("Error running expired task {}", task, e);
+            }
+        }
+    }
+
+    /**
+     * A doubly linked list of timeouts expiring in the same tick of a wheel round.
+     */
+    private static final class Bucket {
+        private Timeout head;
+        private Timeout tail;
+
+        private void add(Timeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        private void remove(Timeout timeout) {
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            }
+            if (timeout == head) {
+                head = timeout.next;
+            }
+            if (timeout == tail) {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+
+        private void expireTimeouts(long deadline) {
+            Timeout timeout = head;
+            while (timeout != null) {
+                final Timeout next = timeout.next;
+                if (timeout.remainingRounds <= 0 && timeout.deadline <= deadline) {
+                    remove(timeout);
+                    timeout.expire();
+                } else if (timeout.isCancelled()) {
+                    remove(timeout);
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+    }
+}
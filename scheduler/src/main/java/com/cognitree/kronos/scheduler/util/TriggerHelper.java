@@ -24,6 +24,7 @@ import com.cognitree.kronos.scheduler.model.FixedDelaySchedule;
 import com.cognitree.kronos.scheduler.model.Schedule;
 import com.cognitree.kronos.scheduler.model.SimpleSchedule;
 import com.cognitree.kronos.scheduler.model.WorkflowTrigger;
+import com.google.common.hash.Hashing;
 import org.quartz.CalendarIntervalScheduleBuilder;
 import org.quartz.CalendarIntervalTrigger;
 import org.quartz.CronExpression;
@@ -45,6 +46,7 @@ import java.text.ParseException;
 import java.util.Date;
 import java.util.TimeZone;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.TimeZone.getTimeZone;
 import static org.quartz.CalendarIntervalScheduleBuilder.calendarIntervalSchedule;
 import static org.quartz.CronScheduleBuilder.cronSchedule;
@@ -60,7 +62,16 @@ public class TriggerHelper {
 
     public static Trigger buildTrigger(WorkflowTrigger workflowTrigger, JobDataMap jobDataMap,
                                        TriggerKey triggerKey, JobKey jobKey) throws ParseException {
-        final ScheduleBuilder scheduleBuilder = buildSchedulerBuilder(workflowTrigger.getSchedule());
+        final Schedule.Type scheduleType = workflowTrigger.getSchedule().getType();
+        final long jitterOffset = getJitterOffset(workflowTrigger);
+        ScheduleBuilder scheduleBuilder = buildSchedulerBuilder(workflowTrigger.getSchedule());
+        // fire times of cron and daily time schedules are not relative to the start time, they are shifted by the
+        // trigger itself. The fire times of the other schedules are shifted by delaying the start time.
+        long startOffset = jitterOffset;
+        if (jitterOffset > 0 && (scheduleType == Schedule.Type.cron || scheduleType == Schedule.Type.daily_time)) {
+            scheduleBuilder = JitterScheduleBuilder.jitterSchedule(scheduleBuilder, jitterOffset);
+            startOffset = 0;
+        }
         TriggerBuilder triggerBuilder = newTrigger()
                 .withSchedule(scheduleBuilder)
                 .startNow()
@@ -71,7 +82,7 @@ public class TriggerHelper {
             triggerBuilder.usingJobData(jobDataMap);
         }
 
-        if (workflowTrigger.getSchedule().getType().equals(Schedule.Type.fixed)) {
+        if (scheduleType == Schedule.Type.fixed) {
             long currentTimeMillis = System.currentTimeMillis();
             long startAt = workflowTrigger.getStartAt() == null ? currentTimeMillis : workflowTrigger.getStartAt();
             long interval = ((FixedDelaySchedule) workflowTrigger.getSchedule()).getIntervalInMs();
@@ -84,11 +95,14 @@ public class TriggerHelper {
                 }
                 triggerStartTime = new Date(startAt);
             }
-            triggerBuilder.startAt(triggerStartTime);
+            // only the first execution is delayed, the next ones follow the completion of the previous by the delay
+            triggerBuilder.startAt(new Date(triggerStartTime.getTime() + startOffset));
         } else {
             // Set Start Date
             if (workflowTrigger.getStartAt() != null) {
-                triggerBuilder.startAt(new Date(workflowTrigger.getStartAt()));
+                triggerBuilder.startAt(new Date(workflowTrigger.getStartAt() + startOffset));
+            } else if (startOffset > 0) {
+                triggerBuilder.startAt(new Date(System.currentTimeMillis() + startOffset));
             }
         }
 
@@ -100,6 +114,43 @@ public class TriggerHelper {
         return triggerBuilder.build();
     }
 
+    /**
+     * computes the offset by which the fire times of the workflow trigger are delayed from its schedule. The offset is
+     * derived from the hash of the trigger identity so it is the same across restarts and scheduler nodes.
+     *
+     * @param workflowTrigger workflow trigger
+     * @return offset in ms within the jitter window of the trigger schedule, 0 if no jitter window is defined
+     */
+    public static long getJitterOffset(WorkflowTrigger workflowTrigger) {
+        final long jitterWindowInMs = workflowTrigger.getSchedule().getJitterWindowInMs();
+        if (jitterWindowInMs < 0) {
+            throw new IllegalArgumentException("jitter window can not be negative");
+        }
+        if (jitterWindowInMs == 0) {
+            return 0;
+        }
+        final long hash = Hashing.murmur3_128().newHasher()
+                .putString(workflowTrigger.getNamespace(), UTF_8)
+                .putString(workflowTrigger.getWorkflow(), UTF_8)
+                .putString(workflowTrigger.getName(), UTF_8)
+                .hash().asLong();
+        return Math.floorMod(hash, jitterWindowInMs);
+    }
+
+    /**
+     * builds a trigger firing as per the schedule without any start and end time, shared by all the workflow triggers
+     * having an identical schedule
+     */
+    public static Trigger buildSharedTrigger(Schedule schedule, TriggerKey triggerKey, JobKey jobKey)
+            throws ParseException {
+        return newTrigger()
+                .withSchedule(buildSchedulerBuilder(schedule))
+                .startNow()
+                .forJob(jobKey)
+                .withIdentity(triggerKey)
+                .build();
+    }
+
     private static ScheduleBuilder buildSchedulerBuilder(Schedule schedule) throws ParseException {
         ScheduleBuilder scheduleBuilder = null;
         switch (schedule.getType()) {
@@ -175,9 +226,7 @@ public class TriggerHelper {
     }
 
     private static ScheduleBuilder buildDelayFixedScheduleBuilder(FixedDelaySchedule fixedDelaySchedule) {
-        // Fixme: workaround to enable fix delay scheduling
-        // Ideally we should create custom trigger in quartz
-        return simpleSchedule();
+        return FixedDelayScheduleBuilder.fixedDelaySchedule(fixedDelaySchedule.getIntervalInMs());
     }
 
     private static ScheduleBuilder buildDailyTimeScheduleBuilder(DailyTimeIntervalSchedule dailyTimeIntervalSchedule) {
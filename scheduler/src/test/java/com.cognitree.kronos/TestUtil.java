@@ -39,6 +39,8 @@ import org.quartz.TriggerKey;
 import java.io.IOException;
 import java.io.InputStream;
 import java.text.ParseException;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
@@ -64,6 +66,19 @@ public class TestUtil {
         return configUpdate;
     }
 
+    public static Task createTask(String namespace, String workflow, String job, String name, String type,
+                                  String... dependsOn) {
+        final Task task = new Task();
+        task.setNamespace(namespace);
+        task.setWorkflow(workflow);
+        task.setJob(job);
+        task.setName(name);
+        task.setType(type);
+        task.setCreatedAt(System.currentTimeMillis());
+        task.setDependsOn(dependsOn.length == 0 ? Collections.emptyList() : Arrays.asList(dependsOn));
+        return task;
+    }
+
     public static Namespace createNamespace(String name) {
         Namespace namespace = new Namespace();
         namespace.setName(name);
@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cognitree.kronos.scheduler;
+
+import com.cognitree.kronos.scheduler.model.FixedDelaySchedule;
+import com.cognitree.kronos.scheduler.model.WorkflowTrigger;
+import com.cognitree.kronos.scheduler.util.TriggerHelper;
+import com.codahale.metrics.Meter;
+import org.junit.Assert;
+import org.junit.Test;
+import org.quartz.JobDetail;
+import org.quartz.JobExecutionContext;
+import org.quartz.impl.JobExecutionContextImpl;
+import org.quartz.spi.OperableTrigger;
+import org.quartz.spi.TriggerFiredBundle;
+
+import java.util.Date;
+
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.quartz.CronScheduleBuilder.cronSchedule;
+import static org.quartz.JobBuilder.newJob;
+import static org.quartz.TriggerBuilder.newTrigger;
+
+public class CatchUpTriggerListenerTest {
+
+    private static final JobDetail JOB_DETAIL = newJob(WorkflowSchedulerService.WorkflowSchedulerJob.class)
+            .withIdentity("job").build();
+
+    @Test
+    public void testVetoMissedFirings() {
+        final Meter skippedFirings = new Meter();
+        final CatchUpTriggerListener listener = new CatchUpTriggerListener(3, SECONDS.toMillis(5), skippedFirings);
+        // trigger firing every minute
+        final OperableTrigger trigger = (OperableTrigger) newTrigger().withIdentity("trigger")
+                .withSchedule(cronSchedule("0 * * * * ?")).startAt(new Date(0)).build();
+        final long currentTimeMillis = System.currentTimeMillis();
+        final long lastFireTime = currentTimeMillis - currentTimeMillis % MINUTES.toMillis(1);
+
+        // firings missed more than 3 minutes back are skipped
+        Assert.assertTrue(listener.vetoJobExecution(trigger,
+                createContext(trigger, lastFireTime - MINUTES.toMillis(10))));
+        Assert.assertTrue(listener.vetoJobExecution(trigger,
+                createContext(trigger, lastFireTime - MINUTES.toMillis(3))));
+        Assert.assertEquals(2, skippedFirings.getCount());
+
+        // the latest 3 missed firings are replayed
+        Assert.assertFalse(listener.vetoJobExecution(trigger,
+                createContext(trigger, lastFireTime - MINUTES.toMillis(2))));
+        Assert.assertFalse(listener.vetoJobExecution(trigger,
+                createContext(trigger, lastFireTime - MINUTES.toMillis(1))));
+        // firing on time
+        Assert.assertFalse(listener.vetoJobExecution(trigger, createContext(trigger, currentTimeMillis)));
+        Assert.assertEquals(2, skippedFirings.getCount());
+    }
+
+    @Test
+    public void testNoVetoForFixedDelayTrigger() throws Exception {
+        final CatchUpTriggerListener listener = new CatchUpTriggerListener(0, SECONDS.toMillis(5), new Meter());
+        final FixedDelaySchedule schedule = new FixedDelaySchedule();
+        schedule.setIntervalInMs(1000);
+        final WorkflowTrigger workflowTrigger = new WorkflowTrigger();
+        workflowTrigger.setSchedule(schedule);
+        final OperableTrigger trigger = (OperableTrigger) TriggerHelper.buildTrigger(workflowTrigger);
+        Assert.assertFalse(listener.vetoJobExecution(trigger,
+                createContext(trigger, System.currentTimeMillis() - MINUTES.toMillis(10))));
+    }
+
+    private JobExecutionContext createContext(OperableTrigger trigger, long scheduledFireTime) {
+        final TriggerFiredBundle firedBundle = new TriggerFiredBundle(JOB_DETAIL, trigger, null, false,
+                new Date(), new Date(scheduledFireTime), null, null);
+        return new JobExecutionContextImpl(null, firedBundle, null);
+    }
+}
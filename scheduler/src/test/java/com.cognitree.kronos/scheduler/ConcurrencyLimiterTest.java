@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cognitree.kronos.scheduler;
+
+import com.cognitree.kronos.model.Task;
+import com.cognitree.kronos.scheduler.model.ConcurrencyUsage;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.UUID;
+
+import static com.cognitree.kronos.TestUtil.createTask;
+
+public class ConcurrencyLimiterTest {
+
+    @Test
+    public void testNamespaceLimit() {
+        final ConcurrencyConfig concurrencyConfig = new ConcurrencyConfig();
+        concurrencyConfig.setMaxTasksPerNamespace(2);
+        concurrencyConfig.setNamespaces(Collections.singletonMap("namespaceTwo", 1));
+        final ConcurrencyLimiter concurrencyLimiter = new ConcurrencyLimiter(concurrencyConfig);
+
+        final Task taskOne = createTask("namespaceOne", "workflowOne", UUID.randomUUID().toString(),
+                UUID.randomUUID().toString(), "typeOne");
+        final Task taskTwo = createTask("namespaceOne", "workflowTwo", UUID.randomUUID().toString(),
+                UUID.randomUUID().toString(), "typeOne");
+        final Task taskThree = createTask("namespaceOne", "workflowOne", UUID.randomUUID().toString(),
+                UUID.randomUUID().toString(), "typeTwo");
+        Assert.assertTrue(concurrencyLimiter.tryAcquire(taskOne));
+        Assert.assertTrue(concurrencyLimiter.tryAcquire(taskTwo));
+        Assert.assertFalse(concurrencyLimiter.tryAcquire(taskThree));
+
+        final Task taskFour = createTask("namespaceTwo", "workflowOne", UUID.randomUUID().toString(),
+                UUID.randomUUID().toString(), "typeOne");
+        final Task taskFive = createTask("namespaceTwo", "workflowOne", UUID.randomUUID().toString(),
+                UUID.randomUUID().toString(), "typeOne");
+        Assert.assertTrue(concurrencyLimiter.tryAcquire(taskFour));
+        Assert.assertFalse(concurrencyLimiter.tryAcquire(taskFive));
+
+        Assert.assertTrue(concurrencyLimiter.release(taskOne));
+        Assert.assertTrue(concurrencyLimiter.tryAcquire(taskThree));
+    }
+
+    @Test
+    public void testWorkflowAndTaskTypeLimit() {
+        final ConcurrencyConfig concurrencyConfig = new ConcurrencyConfig();
+        concurrencyConfig.setWorkflows(Collections.singletonMap("namespace",
+                Collections.singletonMap("workflowOne", 1)));
+        concurrencyConfig.setMaxTasksPerTaskType(2);
+        final ConcurrencyLimiter concurrencyLimiter = new ConcurrencyLimiter(concurrencyConfig);
+
+        final Task taskOne = createTask("namespace", "workflowOne", UUID.randomUUID().toString(),
+                UUID.randomUUID().toString(), "typeOne");
+        final Task taskTwo = createTask("namespace", "workflowOne", UUID.randomUUID().toString(),
+                UUID.randomUUID().toString(), "typeOne");
+        final Task taskThree = createTask("namespace", "workflowTwo", UUID.randomUUID().toString(),
+                UUID.randomUUID().toString(), "typeOne");
+        final Task taskFour = createTask("namespace", "workflowTwo", UUID.randomUUID().toString(),
+                UUID.randomUUID().toString(), "typeOne");
+        Assert.assertTrue(concurrencyLimiter.tryAcquire(taskOne));
+        Assert.assertFalse(concurrencyLimiter.tryAcquire(taskTwo));
+        Assert.assertTrue(concurrencyLimiter.tryAcquire(taskThree));
+        Assert.assertFalse(concurrencyLimiter.tryAcquire(taskFour));
+
+        final ConcurrencyUsage concurrencyUsage = concurrencyLimiter.getUsage("namespace");
+        Assert.assertEquals(2, concurrencyUsage.getNamespace().getInFlight());
+        Assert.assertEquals(-1, concurrencyUsage.getNamespace().getLimit());
+        Assert.assertEquals(1, concurrencyUsage.getWorkflows().get("workflowOne").getInFlight());
+        Assert.assertEquals(1, concurrencyUsage.getWorkflows().get("workflowOne").getLimit());
+        Assert.assertEquals(1, concurrencyUsage.getWorkflows().get("workflowTwo").getInFlight());
+        Assert.assertEquals(2, concurrencyUsage.getTaskTypes().get("typeOne").getInFlight());
+        Assert.assertEquals(2, concurrencyUsage.getTaskTypes().get("typeOne").getLimit());
+    }
+
+    @Test
+    public void testAcquireAndReleaseAreIdempotent() {
+        final ConcurrencyConfig concurrencyConfig = new ConcurrencyConfig();
+        concurrencyConfig.setMaxTasksPerNamespace(1);
+        final ConcurrencyLimiter concurrencyLimiter = new ConcurrencyLimiter(concurrencyConfig);
+
+        final Task taskOne = createTask("namespace", "workflow", UUID.randomUUID().toString(),
+                UUID.randomUUID().toString(), "type");
+        final Task taskTwo = createTask("namespace", "workflow", UUID.randomUUID().toString(),
+                UUID.randomUUID().toString(), "type");
+        Assert.assertFalse(concurrencyLimiter.release(taskOne));
+        Assert.assertTrue(concurrencyLimiter.tryAcquire(taskOne));
+        Assert.assertTrue(concurrencyLimiter.tryAcquire(taskOne));
+        concurrencyLimiter.acquire(taskOne);
+        Assert.assertEquals(1, concurrencyLimiter.getUsage("namespace").getNamespace().getInFlight());
+
+        // tasks already in flight on restart are accounted irrespective of the limits
+        concurrencyLimiter.acquire(taskTwo);
+        Assert.assertEquals(2, concurrencyLimiter.getUsage("namespace").getNamespace().getInFlight());
+
+        Assert.assertTrue(concurrencyLimiter.release(taskOne));
+        Assert.assertFalse(concurrencyLimiter.release(taskOne));
+        Assert.assertEquals(1, concurrencyLimiter.getUsage("namespace").getNamespace().getInFlight());
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cognitree.kronos.scheduler;
+
+import com.cognitree.kronos.scheduler.model.ExecutionForecast;
+import com.cognitree.kronos.scheduler.model.ExecutionForecast.Slot;
+import org.junit.Assert;
+import org.junit.Test;
+import org.quartz.Trigger;
+
+import java.util.Date;
+import java.util.TimeZone;
+
+import static com.cognitree.kronos.scheduler.util.JitterScheduleBuilder.jitterSchedule;
+import static java.util.concurrent.TimeUnit.HOURS;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.quartz.CronScheduleBuilder.cronSchedule;
+import static org.quartz.TriggerBuilder.newTrigger;
+
+public class ExecutionForecasterTest {
+
+    private static final long SLOT_DURATION_IN_MS = MINUTES.toMillis(1);
+    private static final long FROM = HOURS.toMillis(420000);
+    private static final long TO = FROM + MINUTES.toMillis(30);
+
+    @Test
+    public void testForecastCronAndFixedDelayTriggers() {
+        final ExecutionForecaster executionForecaster = new ExecutionForecaster(FROM, TO, SLOT_DURATION_IN_MS);
+        // fires every 10 minutes and runs for 15 minutes, including the job fired before the window
+        executionForecaster.add(buildCronTrigger("0 0/10 * * * ?"), MINUTES.toMillis(15), 3);
+        // runs for 5 minutes and fires again after 5 minutes of completion
+        executionForecaster.addFixedDelay(FROM, MINUTES.toMillis(5), MINUTES.toMillis(5), 1);
+        final ExecutionForecast executionForecast = executionForecaster.forecast();
+
+        Assert.assertEquals(FROM, executionForecast.getFrom());
+        Assert.assertEquals(TO, executionForecast.getTo());
+        Assert.assertEquals(30, executionForecast.getSlots().size());
+        for (int minute = 0; minute < 30; minute++) {
+            final Slot slot = executionForecast.getSlots().get(minute);
+            Assert.assertEquals(FROM + minute * SLOT_DURATION_IN_MS, slot.getStartAt());
+            if (minute % 10 < 5) {
+                Assert.assertEquals("jobs at minute " + minute, 3, slot.getJobs());
+                Assert.assertEquals("tasks at minute " + minute, 7, slot.getTasks());
+            } else {
+                Assert.assertEquals("jobs at minute " + minute, 1, slot.getJobs());
+                Assert.assertEquals("tasks at minute " + minute, 3, slot.getTasks());
+            }
+        }
+    }
+
+    @Test
+    public void testForecastWithJitterOffset() {
+        final ExecutionForecaster executionForecaster = new ExecutionForecaster(FROM, TO, SLOT_DURATION_IN_MS);
+        // fires every hour delayed by the jitter offset of 90 seconds
+        final Trigger trigger = newTrigger().withSchedule(jitterSchedule(cronSchedule("0 0 * * * ?")
+                .inTimeZone(TimeZone.getTimeZone("UTC")), SECONDS.toMillis(90))).startAt(new Date(0)).build();
+        executionForecaster.add(trigger, SECONDS.toMillis(30), 2);
+        final ExecutionForecast executionForecast = executionForecaster.forecast();
+
+        for (int minute = 0; minute < 30; minute++) {
+            final Slot slot = executionForecast.getSlots().get(minute);
+            Assert.assertEquals("jobs at minute " + minute, minute == 1 ? 1 : 0, slot.getJobs());
+            Assert.assertEquals("tasks at minute " + minute, minute == 1 ? 2 : 0, slot.getTasks());
+        }
+    }
+
+    private Trigger buildCronTrigger(String cronExpression) {
+        return newTrigger().withSchedule(cronSchedule(cronExpression).inTimeZone(TimeZone.getTimeZone("UTC")))
+                .startAt(new Date(0)).build();
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cognitree.kronos.scheduler;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class FairShareQueueTest {
+
+    @Test
+    public void testRoundRobinAcrossNamespaces() {
+        final FairShareQueue<String> fairShareQueue = new FairShareQueue<>();
+        for (int i = 0; i < 5; i++) {
+            fairShareQueue.add("namespaceOne", 1, "workflow", "namespaceOne-" + i);
+        }
+        fairShareQueue.add("namespaceTwo", 1, "workflow", "namespaceTwo-0");
+        fairShareQueue.add("namespaceTwo", 1, "workflow", "namespaceTwo-1");
+
+        Assert.assertEquals(7, fairShareQueue.size());
+        Assert.assertEquals(Arrays.asList("namespaceOne-0", "namespaceTwo-0", "namespaceOne-1", "namespaceTwo-1",
+                "namespaceOne-2", "namespaceOne-3", "namespaceOne-4"), drain(fairShareQueue));
+        Assert.assertTrue(fairShareQueue.isEmpty());
+        Assert.assertNull(fairShareQueue.poll());
+    }
+
+    @Test
+    public void testWeightedShareAcrossNamespaces() {
+        final FairShareQueue<String> fairShareQueue = new FairShareQueue<>();
+        for (int i = 0; i < 300; i++) {
+            fairShareQueue.add("namespaceOne", 1, "workflow", "namespaceOne");
+            fairShareQueue.add("namespaceTwo", 3, "workflow", "namespaceTwo");
+        }
+        final Map<String, Integer> dispatched = new HashMap<>();
+        for (int i = 0; i < 200; i++) {
+            dispatched.merge(fairShareQueue.poll(), 1, Integer::sum);
+        }
+        Assert.assertEquals(50, dispatched.get("namespaceOne").intValue());
+        Assert.assertEquals(150, dispatched.get("namespaceTwo").intValue());
+    }
+
+    @Test
+    public void testRoundRobinAcrossWorkflows() {
+        final FairShareQueue<String> fairShareQueue = new FairShareQueue<>();
+        fairShareQueue.add("namespace", 1, "workflowOne", "workflowOne-0");
+        fairShareQueue.add("namespace", 1, "workflowOne", "workflowOne-1");
+        fairShareQueue.add("namespace", 1, "workflowOne", "workflowOne-2");
+        fairShareQueue.add("namespace", 1, "workflowTwo", "workflowTwo-0");
+        fairShareQueue.add("namespace", 1, "workflowThree", "workflowThree-0");
+
+        Assert.assertEquals(Arrays.asList("workflowOne-0", "workflowTwo-0", "workflowThree-0",
+                "workflowOne-1", "workflowOne-2"), drain(fairShareQueue));
+    }
+
+    @Test
+    public void testNamespaceBecomingActiveDoesNotCatchUp() {
+        final FairShareQueue<String> fairShareQueue = new FairShareQueue<>();
+        for (int i = 0; i < 10; i++) {
+            fairShareQueue.add("namespaceOne", 1, "workflow", "namespaceOne");
+        }
+        for (int i = 0; i < 5; i++) {
+            Assert.assertEquals("namespaceOne", fairShareQueue.poll());
+        }
+        // a namespace with tasks becoming ready late gets its share from now on and not for the time it was idle
+        fairShareQueue.add("namespaceTwo", 1, "workflow", "namespaceTwo");
+        fairShareQueue.add("namespaceTwo", 1, "workflow", "namespaceTwo");
+        final List<String> dispatched = drain(fairShareQueue);
+        Assert.assertEquals(Arrays.asList("namespaceTwo", "namespaceOne", "namespaceTwo", "namespaceOne",
+                "namespaceOne", "namespaceOne", "namespaceOne"), dispatched);
+    }
+
+    @Test
+    public void testWeightedShareWithElementsAddedBackAfterPoll() {
+        // mimics a dispatch round where each job is polled and added back while it has tasks ready
+        final FairShareQueue<String> fairShareQueue = new FairShareQueue<>();
+        fairShareQueue.add("namespaceOne", 1, "workflow", "namespaceOne");
+        fairShareQueue.add("namespaceTwo", 3, "workflow", "namespaceTwo");
+        final Map<String, Integer> dispatched = new HashMap<>();
+        for (int i = 0; i < 200; i++) {
+            final String namespace = fairShareQueue.poll();
+            dispatched.merge(namespace, 1, Integer::sum);
+            fairShareQueue.add(namespace, namespace.equals("namespaceOne") ? 1 : 3, "workflow", namespace);
+        }
+        Assert.assertEquals(50, dispatched.get("namespaceOne").intValue());
+        Assert.assertEquals(150, dispatched.get("namespaceTwo").intValue());
+    }
+
+    @Test
+    public void testRoundRobinAcrossWorkflowsWithElementsAddedBackAfterPoll() {
+        final FairShareQueue<String> fairShareQueue = new FairShareQueue<>();
+        fairShareQueue.add("namespace", 1, "workflowOne", "workflowOne");
+        fairShareQueue.add("namespace", 1, "workflowTwo", "workflowTwo");
+        fairShareQueue.add("namespace", 1, "workflowTwo", "workflowTwo");
+        final List<String> dispatched = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            final String workflow = fairShareQueue.poll();
+            dispatched.add(workflow);
+            if (workflow.equals("workflowOne")) {
+                fairShareQueue.add("namespace", 1, "workflowOne", "workflowOne");
+            }
+        }
+        Assert.assertEquals(Arrays.asList("workflowOne", "workflowTwo", "workflowOne", "workflowTwo",
+                "workflowOne", "workflowOne"), dispatched);
+    }
+
+    @Test
+    public void testWeightedShareWithOneSlotPerRound() {
+        // mimics a saturated limit where each released slot starts a dispatch round with every throttled job
+        // and only the first one polled gets the slot, the others are throttled again
+        final FairShareQueue<String> fairShareQueue = new FairShareQueue<>();
+        final Map<String, Integer> dispatched = new HashMap<>();
+        for (int i = 0; i < 200; i++) {
+            fairShareQueue.add("namespaceOne", 1, "workflow", "namespaceOne");
+            fairShareQueue.add("namespaceTwo", 3, "workflow", "namespaceTwo");
+            final boolean[] slotAvailable = {true};
+            while (!fairShareQueue.isEmpty()) {
+                fairShareQueue.poll(namespace -> {
+                    if (!slotAvailable[0]) {
+                        return false;
+                    }
+                    slotAvailable[0] = false;
+                    dispatched.merge(namespace, 1, Integer::sum);
+                    return true;
+                });
+            }
+        }
+        Assert.assertEquals(50, dispatched.get("namespaceOne").intValue());
+        Assert.assertEquals(150, dispatched.get("namespaceTwo").intValue());
+    }
+
+    @Test
+    public void testRoundRobinAcrossWorkflowsWithOneSlotPerRound() {
+        final FairShareQueue<String> fairShareQueue = new FairShareQueue<>();
+        final List<String> dispatched = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            fairShareQueue.add("namespace", 1, "workflowOne", "workflowOne");
+            fairShareQueue.add("namespace", 1, "workflowTwo", "workflowTwo");
+            dispatched.add(fairShareQueue.poll());
+            Assert.assertNotNull(fairShareQueue.poll(workflow -> false));
+            Assert.assertTrue(fairShareQueue.isEmpty());
+        }
+        Assert.assertEquals(Arrays.asList("workflowOne", "workflowTwo", "workflowOne", "workflowTwo"), dispatched);
+    }
+
+    private List<String> drain(FairShareQueue<String> fairShareQueue) {
+        final List<String> elements = new ArrayList<>();
+        while (!fairShareQueue.isEmpty()) {
+            elements.add(fairShareQueue.poll());
+        }
+        return elements;
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cognitree.kronos.scheduler;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.cognitree.kronos.model.Task.Status.ABORTED;
+import static com.cognitree.kronos.model.Task.Status.CREATED;
+import static com.cognitree.kronos.model.Task.Status.FAILED;
+import static com.cognitree.kronos.model.Task.Status.RUNNING;
+import static com.cognitree.kronos.model.Task.Status.SCHEDULED;
+import static com.cognitree.kronos.model.Task.Status.SKIPPED;
+import static com.cognitree.kronos.model.Task.Status.SUCCESSFUL;
+import static com.cognitree.kronos.model.Task.Status.TIMED_OUT;
+import static com.cognitree.kronos.model.Task.Status.UP_FOR_RETRY;
+import static com.cognitree.kronos.model.Task.Status.WAITING;
+
+public class JobTaskCountersTest {
+
+    @Test
+    public void testSuccessfulJob() {
+        final JobTaskCounters jobTaskCounters = new JobTaskCounters();
+        Assert.assertFalse(jobTaskCounters.isComplete());
+        jobTaskCounters.taskAdded(CREATED);
+        jobTaskCounters.taskAdded(CREATED);
+        for (int i = 0; i < 2; i++) {
+            jobTaskCounters.statusChanged(CREATED, WAITING);
+            jobTaskCounters.statusChanged(WAITING, SCHEDULED);
+            jobTaskCounters.statusChanged(SCHEDULED, RUNNING);
+        }
+        jobTaskCounters.statusChanged(RUNNING, SUCCESSFUL);
+        Assert.assertFalse(jobTaskCounters.isComplete());
+        jobTaskCounters.statusChanged(RUNNING, SUCCESSFUL);
+        Assert.assertTrue(jobTaskCounters.isComplete());
+        Assert.assertTrue(jobTaskCounters.isSuccessful());
+        Assert.assertEquals(2, jobTaskCounters.getTotal());
+        Assert.assertEquals(2, jobTaskCounters.getCompleted());
+        Assert.assertEquals(2, jobTaskCounters.getSuccessful());
+    }
+
+    @Test
+    public void testFailedJob() {
+        final JobTaskCounters jobTaskCounters = new JobTaskCounters();
+        jobTaskCounters.taskAdded(SUCCESSFUL);
+        jobTaskCounters.taskAdded(WAITING);
+        jobTaskCounters.statusChanged(WAITING, SKIPPED);
+        Assert.assertTrue(jobTaskCounters.isComplete());
+        Assert.assertFalse(jobTaskCounters.isSuccessful());
+        // transition between final states does not change the count
+        jobTaskCounters.statusChanged(SKIPPED, ABORTED);
+        Assert.assertEquals(2, jobTaskCounters.getCompleted());
+        Assert.assertEquals(1, jobTaskCounters.getSuccessful());
+    }
+
+    @Test
+    public void testRetryAfterTimeout() {
+        final JobTaskCounters jobTaskCounters = new JobTaskCounters();
+        jobTaskCounters.taskAdded(RUNNING);
+        jobTaskCounters.statusChanged(RUNNING, TIMED_OUT);
+        Assert.assertTrue(jobTaskCounters.isComplete());
+        jobTaskCounters.statusChanged(TIMED_OUT, UP_FOR_RETRY);
+        Assert.assertFalse(jobTaskCounters.isComplete());
+        jobTaskCounters.statusChanged(UP_FOR_RETRY, SCHEDULED);
+        jobTaskCounters.statusChanged(SCHEDULED, RUNNING);
+        jobTaskCounters.statusChanged(RUNNING, FAILED);
+        Assert.assertTrue(jobTaskCounters.isComplete());
+        Assert.assertFalse(jobTaskCounters.isSuccessful());
+    }
+
+    @Test
+    public void testCompletedJobIsSeenSuccessfulByConcurrentReader() throws Exception {
+        // the lifecycle handler reads the counters while the job event loop applies the last task transition
+        final JobTaskCounters[] jobs = new JobTaskCounters[100000];
+        for (int i = 0; i < jobs.length; i++) {
+            jobs[i] = new JobTaskCounters();
+            jobs[i].taskAdded(RUNNING);
+        }
+        final ExecutorService executorService = Executors.newFixedThreadPool(2);
+        final Future<Integer> reader = executorService.submit(() -> {
+            int failedJobs = 0;
+            for (JobTaskCounters job : jobs) {
+                while (!job.isComplete()) {
+                    Thread.yield();
+                }
+                if (!job.isSuccessful()) {
+                    failedJobs++;
+                }
+            }
+            return failedJobs;
+        });
+        final Future<?> writer = executorService.submit(() -> {
+            for (JobTaskCounters job : jobs) {
+                job.statusChanged(RUNNING, SUCCESSFUL);
+            }
+        });
+        writer.get();
+        Assert.assertEquals(0, reader.get().intValue());
+        executorService.shutdown();
+    }
+}
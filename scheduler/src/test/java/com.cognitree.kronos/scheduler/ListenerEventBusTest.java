@@ -0,0 +1,198 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cognitree.kronos.scheduler;
+
+import com.cognitree.kronos.scheduler.ListenerConfig.OverflowPolicy;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Consumer;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+public class ListenerEventBusTest {
+
+    @Test
+    public void testOrderedDeliveryPerKey() {
+        final ListenerEventBus<Consumer<String>> eventBus =
+                new ListenerEventBus<>("ordered", buildListenerConfig(100, 4, OverflowPolicy.BLOCK));
+        final Map<String, List<String>> received = Collections.synchronizedMap(new HashMap<>());
+        eventBus.register(event -> received.computeIfAbsent(event.split("-")[0],
+                key -> Collections.synchronizedList(new ArrayList<>())).add(event));
+        for (int i = 0; i < 1000; i++) {
+            for (int job = 0; job < 10; job++) {
+                final String event = "job" + job + "-" + i;
+                eventBus.publish("job" + job, listener -> listener.accept(event));
+            }
+        }
+        // stop delivers the notifications already queued
+        eventBus.stop();
+
+        Assert.assertEquals(10, received.size());
+        for (int job = 0; job < 10; job++) {
+            final List<String> events = received.get("job" + job);
+            Assert.assertEquals(1000, events.size());
+            for (int i = 0; i < 1000; i++) {
+                Assert.assertEquals("job" + job + "-" + i, events.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void testSlowListenerDoesNotBlockPublisher() throws InterruptedException {
+        final ListenerEventBus<Consumer<String>> eventBus =
+                new ListenerEventBus<>("slow", buildListenerConfig(10, 1, OverflowPolicy.BLOCK));
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch delivered = new CountDownLatch(5);
+        eventBus.register(event -> {
+            awaitQuietly(release);
+            delivered.countDown();
+        });
+        for (int i = 0; i < 5; i++) {
+            eventBus.publish("job", listener -> listener.accept("event"));
+        }
+        Assert.assertEquals(5, delivered.getCount());
+        release.countDown();
+        Assert.assertTrue(delivered.await(10, SECONDS));
+        eventBus.stop();
+    }
+
+    @Test
+    public void testDropOnOverflow() {
+        final ListenerEventBus<Consumer<String>> eventBus =
+                new ListenerEventBus<>("drop", buildListenerConfig(2, 1, OverflowPolicy.DROP));
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<String> received = Collections.synchronizedList(new ArrayList<>());
+        eventBus.register(event -> {
+            started.countDown();
+            awaitQuietly(release);
+            received.add(event);
+        });
+        eventBus.publish("job", listener -> listener.accept("event-0"));
+        awaitQuietly(started);
+        // the first notification is being delivered, two fit in the queue and the rest are dropped
+        for (int i = 1; i < 10; i++) {
+            final String event = "event-" + i;
+            eventBus.publish("job", listener -> listener.accept(event));
+        }
+        release.countDown();
+        eventBus.stop();
+        Assert.assertEquals(3, received.size());
+        Assert.assertEquals("event-0", received.get(0));
+        Assert.assertEquals("event-1", received.get(1));
+        Assert.assertEquals("event-2", received.get(2));
+    }
+
+    @Test
+    public void testOverflowPolicyPerListener() {
+        final ListenerEventBus<Consumer<String>> eventBus =
+                new ListenerEventBus<>("per-listener", buildListenerConfig(1, 1, OverflowPolicy.DROP));
+        final CountDownLatch started = new CountDownLatch(2);
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<String> dropping = Collections.synchronizedList(new ArrayList<>());
+        final List<String> blocking = Collections.synchronizedList(new ArrayList<>());
+        eventBus.register(event -> {
+            if (event.equals("event-0")) {
+                started.countDown();
+                awaitQuietly(release);
+            }
+            dropping.add(event);
+        });
+        eventBus.register(event -> {
+            if (event.equals("event-0")) {
+                started.countDown();
+            }
+            blocking.add(event);
+        }, OverflowPolicy.BLOCK);
+        eventBus.publish("job", listener -> listener.accept("event-0"));
+        awaitQuietly(started);
+        // the first listener drops what does not fit its queue, the second one blocks the publisher till it has room
+        for (int i = 1; i < 10; i++) {
+            final String event = "event-" + i;
+            eventBus.publish("job", listener -> listener.accept(event));
+        }
+        release.countDown();
+        eventBus.stop();
+        Assert.assertEquals(2, dropping.size());
+        Assert.assertEquals(10, blocking.size());
+    }
+
+    @Test
+    public void testCallerRunsOnOverflow() {
+        final ListenerEventBus<Consumer<String>> eventBus =
+                new ListenerEventBus<>("caller-runs", buildListenerConfig(1, 1, OverflowPolicy.CALLER_RUNS));
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<Thread> deliveredOn = Collections.synchronizedList(new ArrayList<>());
+        eventBus.register(event -> {
+            if (event.equals("event-0")) {
+                started.countDown();
+                awaitQuietly(release);
+            }
+            deliveredOn.add(Thread.currentThread());
+        });
+        eventBus.publish("job", listener -> listener.accept("event-0"));
+        awaitQuietly(started);
+        eventBus.publish("job", listener -> listener.accept("event-1"));
+        eventBus.publish("job", listener -> listener.accept("event-2"));
+        // the queue is full, the last notification is delivered on the publishing thread
+        Assert.assertEquals(Collections.singletonList(Thread.currentThread()), deliveredOn);
+        release.countDown();
+        eventBus.stop();
+        Assert.assertEquals(3, deliveredOn.size());
+    }
+
+    @Test
+    public void testDeregister() {
+        final ListenerEventBus<Consumer<String>> eventBus =
+                new ListenerEventBus<>("deregister", buildListenerConfig(10, 1, OverflowPolicy.BLOCK));
+        final List<String> received = Collections.synchronizedList(new ArrayList<>());
+        final Consumer<String> listener = received::add;
+        eventBus.register(listener);
+        eventBus.publish("job", l -> l.accept("event-0"));
+        eventBus.deregister(listener);
+        eventBus.publish("job", l -> l.accept("event-1"));
+        Assert.assertEquals(Collections.singletonList("event-0"), received);
+        Assert.assertTrue(SchedulerMetrics.getRegistry().getNames().stream()
+                .noneMatch(name -> name.startsWith(ListenerEventBus.LISTENERS_METRIC_PREFIX + ".deregister")));
+    }
+
+    private ListenerConfig buildListenerConfig(int queueCapacity, int threadsPerListener,
+                                               OverflowPolicy overflowPolicy) {
+        final ListenerConfig listenerConfig = new ListenerConfig();
+        listenerConfig.setQueueCapacity(queueCapacity);
+        listenerConfig.setThreadsPerListener(threadsPerListener);
+        listenerConfig.setOverflowPolicy(overflowPolicy);
+        return listenerConfig;
+    }
+
+    private void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cognitree.kronos.scheduler;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+public class PropertyTemplateTest {
+
+    @Test
+    public void testBindWorkflowProperties() {
+        final Map<String, Object> staticProperties = new HashMap<>();
+        staticProperties.put("keyOne", "valueOne");
+        final Map<String, Object> nestedProperties = new HashMap<>();
+        nestedProperties.put("keyTwo", "${workflow.valueTwo}");
+        nestedProperties.put("keyThree", "${taskOne.keyThree}");
+        final Map<String, Object> properties = new HashMap<>();
+        properties.put("static", staticProperties);
+        properties.put("nested", nestedProperties);
+        properties.put("keyFour", "${ workflow.valueFour }");
+        properties.put("keyFive", 5);
+
+        final Map<String, Object> workflowProperties = new HashMap<>();
+        workflowProperties.put("valueTwo", "two");
+        workflowProperties.put("valueFour", "four");
+        final PropertyTemplate propertyTemplate = PropertyTemplate.compile(properties);
+        final Map<String, Object> taskProperties = propertyTemplate.bindWorkflowProperties(workflowProperties);
+
+        final Map<String, Object> expectedNestedProperties = new HashMap<>();
+        expectedNestedProperties.put("keyTwo", "two");
+        expectedNestedProperties.put("keyThree", "${taskOne.keyThree}");
+        Assert.assertEquals(expectedNestedProperties, taskProperties.get("nested"));
+        Assert.assertEquals("four", taskProperties.get("keyFour"));
+        Assert.assertEquals(5, taskProperties.get("keyFive"));
+        // static properties are shared, not copied
+        Assert.assertSame(staticProperties, taskProperties.get("static"));
+        // template properties are left untouched
+        Assert.assertEquals("${workflow.valueTwo}", nestedProperties.get("keyTwo"));
+    }
+
+    @Test
+    public void testBindContext() {
+        final Map<String, Object> nestedProperties = new HashMap<>();
+        nestedProperties.put("keyOne", "${taskOne.keyOne}");
+        final Map<String, Object> properties = new HashMap<>();
+        properties.put("nested", nestedProperties);
+        properties.put("keyTwo", "${taskOne.keyTwo}");
+        properties.put("keyThree", "${workflow.valueThree}");
+
+        // workflow property replaced with properties referring to the upstream context
+        final Map<String, Object> workflowProperties = Collections.singletonMap("valueThree",
+                Collections.singletonMap("keyFour", "${taskTwo.keyFour}"));
+        final PropertyTemplate propertyTemplate = PropertyTemplate.compile(properties);
+        final Map<String, Object> taskProperties = propertyTemplate.bindWorkflowProperties(workflowProperties);
+
+        final Map<String, Object> context = new HashMap<>();
+        context.put("taskOne.keyOne", "one");
+        context.put("taskTwo.keyFour", "four");
+        final Map<String, Object> boundProperties = propertyTemplate.bindContext(taskProperties, context);
+
+        Assert.assertEquals(Collections.singletonMap("keyOne", "one"), boundProperties.get("nested"));
+        Assert.assertTrue(boundProperties.containsKey("keyTwo"));
+        Assert.assertNull(boundProperties.get("keyTwo"));
+        Assert.assertEquals(Collections.singletonMap("keyFour", "four"), boundProperties.get("keyThree"));
+        Assert.assertEquals(PropertyTemplate.compile(taskProperties).bindContext(taskProperties, context),
+                boundProperties);
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cognitree.kronos.scheduler;
+
+import com.cognitree.kronos.model.Task;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.UUID;
+
+import static com.cognitree.kronos.TestUtil.createTask;
+
+public class TaskDurationEstimatorTest {
+
+    @Test
+    public void testEstimate() {
+        final TaskDurationEstimator taskDurationEstimator = new TaskDurationEstimator();
+        Assert.assertEquals(TaskDurationEstimator.DEFAULT_DURATION_IN_MS,
+                taskDurationEstimator.estimate(createCompletedTask("workflow", "taskA", 0)));
+
+        taskDurationEstimator.record(createCompletedTask("workflow", "taskA", 1000));
+        Assert.assertEquals(1000, taskDurationEstimator.estimate(createCompletedTask("workflow", "taskA", 0)));
+        // estimate moves towards the latest observed duration
+        taskDurationEstimator.record(createCompletedTask("workflow", "taskA", 2000));
+        Assert.assertEquals(1300, taskDurationEstimator.estimate(createCompletedTask("workflow", "taskA", 0)));
+
+        // tasks never observed are estimated from the other tasks of the workflow
+        taskDurationEstimator.record(createCompletedTask("workflow", "taskB", 700));
+        Assert.assertEquals(1000, taskDurationEstimator.estimate(createCompletedTask("workflow", "taskC", 0)));
+        Assert.assertEquals(TaskDurationEstimator.DEFAULT_DURATION_IN_MS,
+                taskDurationEstimator.estimate(createCompletedTask("otherWorkflow", "taskA", 0)));
+    }
+
+    private Task createCompletedTask(String workflow, String name, long duration) {
+        final Task task = createTask("namespace", workflow, UUID.randomUUID().toString(), name, "test");
+        task.setSubmittedAt(System.currentTimeMillis());
+        task.setCompletedAt(task.getSubmittedAt() + duration);
+        return task;
+    }
+}
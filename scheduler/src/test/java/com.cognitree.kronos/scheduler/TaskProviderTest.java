@@ -0,0 +1,421 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cognitree.kronos.scheduler;
+
+import com.cognitree.kronos.model.Task;
+import com.cognitree.kronos.model.TaskId;
+import com.cognitree.kronos.scheduler.model.JobId;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.cognitree.kronos.TestUtil.createTask;
+import static com.cognitree.kronos.model.Task.Status.CREATED;
+import static com.cognitree.kronos.model.Task.Status.RUNNING;
+import static com.cognitree.kronos.model.Task.Status.SCHEDULED;
+import static com.cognitree.kronos.model.Task.Status.SKIPPED;
+import static com.cognitree.kronos.model.Task.Status.SUCCESSFUL;
+import static com.cognitree.kronos.model.Task.Status.UP_FOR_RETRY;
+import static com.cognitree.kronos.model.Task.Status.WAITING;
+import static java.util.concurrent.TimeUnit.HOURS;
+
+public class TaskProviderTest {
+
+    @Test
+    public void testGetTaskById() {
+        final TaskProvider taskProvider = new TaskProvider(0);
+        final String job = UUID.randomUUID().toString();
+        final Task taskOne = createTask("namespace", "workflow", job, "taskOne", "test");
+        final Task taskTwo = createTask("namespace", "workflow", job, "taskTwo", "test", "taskOne");
+        Assert.assertTrue(taskProvider.add(taskOne));
+        Assert.assertTrue(taskProvider.add(taskTwo));
+        Assert.assertFalse(taskProvider.add(taskOne));
+        Assert.assertTrue(taskProvider.resolve(taskTwo));
+
+        Assert.assertSame(taskOne, taskProvider.getTask(TaskId.build("namespace", "taskOne", job, "workflow")));
+        Assert.assertSame(taskTwo, taskProvider.getTask(TaskId.build("namespace", "taskTwo", job, "workflow")));
+        Assert.assertNull(taskProvider.getTask(TaskId.build("namespace", "taskThree", job, "workflow")));
+    }
+
+    @Test
+    public void testRemoveCompletedJobs() {
+        final TaskProvider taskProvider = new TaskProvider(0);
+        final String job = UUID.randomUUID().toString();
+        final Task taskOne = createTask("namespace", "workflow", job, "taskOne", "test");
+        final Task taskTwo = createTask("namespace", "workflow", job, "taskTwo", "test", "taskOne");
+        taskProvider.add(taskOne);
+        taskProvider.add(taskTwo);
+        taskProvider.resolve(taskTwo);
+        updateStatus(taskProvider, taskOne, SUCCESSFUL);
+        taskProvider.removeCompletedJobs();
+        Assert.assertSame(taskOne, taskProvider.getTask(taskOne.getIdentity()));
+
+        updateStatus(taskProvider, taskTwo, SUCCESSFUL);
+        taskProvider.removeCompletedJobs();
+        Assert.assertNull(taskProvider.getTask(taskOne.getIdentity()));
+        Assert.assertNull(taskProvider.getTask(taskTwo.getIdentity()));
+        taskProvider.checkConsistency();
+    }
+
+    @Test
+    public void testRemoveCompletedJobsAfterRetention() {
+        final TaskProvider taskProvider = new TaskProvider(HOURS.toMillis(1));
+        final Task task = createTask("namespace", "workflow", UUID.randomUUID().toString(), "taskOne", "test");
+        taskProvider.add(task);
+        updateStatus(taskProvider, task, SUCCESSFUL);
+
+        taskProvider.removeCompletedJobs();
+        Assert.assertSame(task, taskProvider.getTask(task.getIdentity()));
+    }
+
+    @Test
+    public void testRemoveCompletedJobsRetainsIncompleteJobs() {
+        final TaskProvider taskProvider = new TaskProvider(0);
+        final String job = UUID.randomUUID().toString();
+        final Task taskOne = createTask("namespace", "workflow", job, "taskOne", "test");
+        final Task taskTwo = createTask("namespace", "workflow", job, "taskTwo", "test");
+        taskTwo.setStatus(RUNNING);
+        taskProvider.add(taskOne);
+        taskProvider.add(taskTwo);
+        updateStatus(taskProvider, taskOne, SUCCESSFUL);
+
+        taskProvider.removeCompletedJobs();
+        Assert.assertSame(taskOne, taskProvider.getTask(taskOne.getIdentity()));
+        Assert.assertSame(taskTwo, taskProvider.getTask(taskTwo.getIdentity()));
+        taskProvider.checkConsistency();
+    }
+
+    @Test
+    public void testRemoveJob() {
+        final TaskProvider taskProvider = new TaskProvider(HOURS.toMillis(1));
+        final String job = UUID.randomUUID().toString();
+        final Task taskOne = createTask("namespace", "workflow", job, "taskOne", "test");
+        final Task taskTwo = createTask("namespace", "workflow", job, "taskTwo", "test", "taskOne");
+        taskOne.setStatus(RUNNING);
+        taskTwo.setStatus(WAITING);
+        final Task otherJobTask = createTask("namespace", "workflow", UUID.randomUUID().toString(), "taskOne", "test");
+        otherJobTask.setStatus(RUNNING);
+        taskProvider.add(taskOne);
+        taskProvider.add(taskTwo);
+        taskProvider.add(otherJobTask);
+
+        final List<JobId> jobIds = taskProvider.getJobIds(jobId -> jobId.getId().equals(job));
+        Assert.assertEquals(1, jobIds.size());
+        // jobs are removed irrespective of the status of their tasks
+        final List<Task> removedTasks = taskProvider.removeJob(jobIds.get(0));
+        Assert.assertEquals(2, removedTasks.size());
+        Assert.assertTrue(removedTasks.containsAll(Arrays.asList(taskOne, taskTwo)));
+        Assert.assertNull(taskProvider.getTask(taskOne.getIdentity()));
+        Assert.assertNull(taskProvider.getTask(taskTwo.getIdentity()));
+        Assert.assertSame(otherJobTask, taskProvider.getTask(otherJobTask.getIdentity()));
+        Assert.assertEquals(1, taskProvider.size(RUNNING));
+        Assert.assertTrue(taskProvider.removeJob(jobIds.get(0)).isEmpty());
+        taskProvider.checkConsistency();
+    }
+
+    @Test
+    public void testAddAll() {
+        final TaskProvider taskProvider = new TaskProvider(0);
+        final String job = UUID.randomUUID().toString();
+        // taskOne is complete and not loaded, taskThree depends on taskOne and taskTwo
+        final Task taskTwo = createTask("namespace", "workflow", job, "taskTwo", "test");
+        final Task taskThree = createTask("namespace", "workflow", job, "taskThree", "test", "taskOne", "taskTwo");
+        final Task taskFour = createTask("namespace", "workflow", job, "taskFour", "test", "taskOne");
+        final Task otherJobTask = createTask("namespace", "workflow", UUID.randomUUID().toString(), "taskOne", "test");
+        taskTwo.setStatus(RUNNING);
+        taskThree.setStatus(WAITING);
+        taskFour.setStatus(WAITING);
+        otherJobTask.setStatus(WAITING);
+        taskProvider.addAll(Arrays.asList(taskThree, taskFour, otherJobTask, taskTwo));
+        taskProvider.checkConsistency();
+
+        Assert.assertSame(taskTwo, taskProvider.getTask(taskTwo.getIdentity()));
+        Assert.assertEquals(Collections.singletonList(taskThree), taskProvider.getDependentTasks(taskTwo));
+        Assert.assertEquals(new HashSet<>(Arrays.asList(taskFour, otherJobTask)),
+                new HashSet<>(taskProvider.getReadyTasks()));
+
+        updateStatus(taskProvider, taskTwo, SUCCESSFUL);
+        Assert.assertEquals(new HashSet<>(Arrays.asList(taskThree, taskFour, otherJobTask)),
+                new HashSet<>(taskProvider.getReadyTasks()));
+    }
+
+    @Test
+    public void testAddAllTasksOfJob() {
+        final TaskProvider taskProvider = new TaskProvider(0);
+        final String job = UUID.randomUUID().toString();
+        final JobId jobId = JobId.build("namespace", job, "workflow");
+        final Task taskOne = createTask("namespace", "workflow", job, "taskOne", "test");
+        final Task taskTwo = createTask("namespace", "workflow", job, "taskTwo", "test", "taskOne");
+        final Task taskThree = createTask("namespace", "workflow", job, "taskThree", "test", "taskOne", "taskTwo");
+        Assert.assertEquals(Arrays.asList(taskOne, taskTwo, taskThree),
+                taskProvider.addAll(jobId, Arrays.asList(taskOne, taskTwo, taskThree)));
+        taskProvider.checkConsistency();
+        Assert.assertEquals(new HashSet<>(Arrays.asList(taskTwo, taskThree)),
+                new HashSet<>(taskProvider.getDependentTasks(taskOne)));
+
+        // tasks already available in the provider are skipped
+        final Task taskFour = createTask("namespace", "workflow", job, "taskFour", "test", "taskThree");
+        Assert.assertEquals(Collections.singletonList(taskFour),
+                taskProvider.addAll(jobId, Arrays.asList(taskThree, taskFour)));
+        Assert.assertSame(taskThree, taskProvider.getTask(taskThree.getIdentity()));
+        Assert.assertEquals(Collections.singletonList(taskFour), taskProvider.getDependentTasks(taskThree));
+        taskProvider.checkConsistency();
+    }
+
+    @Test
+    public void testGetRemainingPathLengths() {
+        final TaskProvider taskProvider = new TaskProvider(0);
+        final String job = UUID.randomUUID().toString();
+        // taskA -> taskB -> taskC -> taskD is the critical path, taskE and taskF are short branches
+        final Task taskA = createTask("namespace", "workflow", job, "taskA", "test");
+        final Task taskB = createTask("namespace", "workflow", job, "taskB", "test", "taskA");
+        final Task taskC = createTask("namespace", "workflow", job, "taskC", "test", "taskB");
+        final Task taskD = createTask("namespace", "workflow", job, "taskD", "test", "taskC");
+        final Task taskE = createTask("namespace", "workflow", job, "taskE", "test");
+        final Task taskF = createTask("namespace", "workflow", job, "taskF", "test", "taskA", "taskE");
+        taskProvider.addAll(Arrays.asList(taskA, taskB, taskC, taskD, taskE, taskF));
+
+        final Map<String, Long> durations = new HashMap<>();
+        durations.put("taskA", 10L);
+        durations.put("taskB", 20L);
+        durations.put("taskC", 30L);
+        durations.put("taskD", 40L);
+        durations.put("taskE", 50L);
+        durations.put("taskF", 5L);
+        final Map<Task, Long> remainingPathLengths =
+                taskProvider.getRemainingPathLengths(TaskProvider.getJobId(taskA), task -> durations.get(task.getName()));
+        Assert.assertEquals(100L, remainingPathLengths.get(taskA).longValue());
+        Assert.assertEquals(90L, remainingPathLengths.get(taskB).longValue());
+        Assert.assertEquals(70L, remainingPathLengths.get(taskC).longValue());
+        Assert.assertEquals(40L, remainingPathLengths.get(taskD).longValue());
+        Assert.assertEquals(55L, remainingPathLengths.get(taskE).longValue());
+        Assert.assertEquals(5L, remainingPathLengths.get(taskF).longValue());
+
+        // lengths are cached till the job graph changes
+        Assert.assertSame(remainingPathLengths,
+                taskProvider.getRemainingPathLengths(TaskProvider.getJobId(taskA), task -> 1L));
+        final Task taskG = createTask("namespace", "workflow", job, "taskG", "test", "taskD");
+        taskProvider.add(taskG);
+        taskProvider.resolve(taskG);
+        Assert.assertEquals(5L, taskProvider.getRemainingPathLengths(TaskProvider.getJobId(taskA), task -> 1L)
+                .get(taskA).longValue());
+    }
+
+    @Test
+    public void testGetUpstreamContext() {
+        final TaskProvider taskProvider = new TaskProvider(0);
+        final String job = UUID.randomUUID().toString();
+        // diamond, taskFour depends on taskTwo and taskThree both depending on taskOne
+        final Task taskOne = createTask("namespace", "workflow", job, "taskOne", "test");
+        final Task taskTwo = createTask("namespace", "workflow", job, "taskTwo", "test", "taskOne");
+        final Task taskThree = createTask("namespace", "workflow", job, "taskThree", "test", "taskOne");
+        final Task taskFour = createTask("namespace", "workflow", job, "taskFour", "test", "taskTwo", "taskThree");
+        final List<Task> tasks = Arrays.asList(taskOne, taskTwo, taskThree, taskFour);
+        tasks.forEach(taskProvider::add);
+        tasks.forEach(taskProvider::resolve);
+
+        complete(taskProvider, taskOne, Collections.singletonMap("keyOne", "valueOne"));
+        Assert.assertEquals(Collections.singletonMap("taskOne.keyOne", "valueOne"),
+                taskProvider.getUpstreamContext(taskTwo));
+        complete(taskProvider, taskTwo, Collections.singletonMap("keyTwo", "valueTwo"));
+        complete(taskProvider, taskThree, null);
+
+        final Map<String, Object> expectedContext = new HashMap<>();
+        expectedContext.put("taskOne.keyOne", "valueOne");
+        expectedContext.put("taskTwo.keyTwo", "valueTwo");
+        Assert.assertEquals(expectedContext, taskProvider.getUpstreamContext(taskFour));
+        Assert.assertTrue(taskProvider.getUpstreamContext(taskOne).isEmpty());
+
+        complete(taskProvider, taskFour, null);
+        taskProvider.removeCompletedJobs();
+        Assert.assertTrue(taskProvider.getUpstreamContext(taskFour).isEmpty());
+    }
+
+    @Test
+    public void testConcurrentJobs() throws Exception {
+        final TaskProvider taskProvider = new TaskProvider(0);
+        final int jobs = 200;
+        final ExecutorService executorService = Executors.newFixedThreadPool(8);
+        final List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < jobs; i++) {
+            futures.add(executorService.submit(() -> {
+                final String job = UUID.randomUUID().toString();
+                final List<Task> tasks = Arrays.asList(createTask("namespace", "workflow", job, "taskOne", "test"),
+                        createTask("namespace", "workflow", job, "taskTwo", "test", "taskOne"),
+                        createTask("namespace", "workflow", job, "taskThree", "test", "taskOne", "taskTwo"));
+                tasks.forEach(task -> task.setStatus(CREATED));
+                tasks.forEach(taskProvider::add);
+                for (Task task : tasks) {
+                    Assert.assertTrue(taskProvider.resolve(task));
+                    changeStatus(taskProvider, task, WAITING);
+                }
+                final JobId jobId = JobId.build("namespace", job, "workflow");
+                for (Task task : tasks) {
+                    Assert.assertEquals(Collections.singletonList(task), taskProvider.getReadyTasks(jobId));
+                    changeStatus(taskProvider, task, SCHEDULED);
+                    changeStatus(taskProvider, task, RUNNING);
+                    changeStatus(taskProvider, task, SUCCESSFUL);
+                }
+                Assert.assertTrue(taskProvider.getReadyTasks(jobId).isEmpty());
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executorService.shutdown();
+        taskProvider.checkConsistency();
+        Assert.assertEquals(jobs * 3, taskProvider.size(SUCCESSFUL));
+
+        taskProvider.removeCompletedJobs();
+        Assert.assertEquals(0, taskProvider.size(SUCCESSFUL));
+        taskProvider.checkConsistency();
+    }
+
+    @Test
+    public void testGetReadyTasks() {
+        final TaskProvider taskProvider = new TaskProvider(0);
+        final String job = UUID.randomUUID().toString();
+        final Task taskOne = createTask("namespace", "workflow", job, "taskOne", "test");
+        final Task taskTwo = createTask("namespace", "workflow", job, "taskTwo", "test");
+        final Task taskThree = createTask("namespace", "workflow", job, "taskThree", "test", "taskOne", "taskTwo");
+        taskProvider.add(taskOne);
+        taskProvider.add(taskTwo);
+        taskProvider.add(taskThree);
+        taskProvider.resolve(taskOne);
+        taskProvider.resolve(taskTwo);
+        taskProvider.resolve(taskThree);
+        Assert.assertTrue(taskProvider.getReadyTasks().isEmpty());
+
+        updateStatus(taskProvider, taskOne, WAITING);
+        updateStatus(taskProvider, taskTwo, WAITING);
+        updateStatus(taskProvider, taskThree, WAITING);
+        Assert.assertEquals(Arrays.asList(taskOne, taskTwo), taskProvider.getReadyTasks());
+
+        updateStatus(taskProvider, taskOne, SCHEDULED);
+        updateStatus(taskProvider, taskTwo, SCHEDULED);
+        Assert.assertTrue(taskProvider.getReadyTasks().isEmpty());
+
+        updateStatus(taskProvider, taskOne, RUNNING);
+        updateStatus(taskProvider, taskOne, SUCCESSFUL);
+        Assert.assertTrue(taskProvider.getReadyTasks().isEmpty());
+
+        updateStatus(taskProvider, taskTwo, RUNNING);
+        updateStatus(taskProvider, taskTwo, UP_FOR_RETRY);
+        Assert.assertEquals(Collections.singletonList(taskTwo), taskProvider.getReadyTasks());
+
+        updateStatus(taskProvider, taskTwo, SCHEDULED);
+        updateStatus(taskProvider, taskTwo, RUNNING);
+        updateStatus(taskProvider, taskTwo, SUCCESSFUL);
+        Assert.assertEquals(Collections.singletonList(taskThree), taskProvider.getReadyTasks());
+
+        updateStatus(taskProvider, taskThree, SCHEDULED);
+        Assert.assertTrue(taskProvider.getReadyTasks().isEmpty());
+    }
+
+    @Test
+    public void testGetReadyTasksOnResolveWithCompletedDependencies() {
+        final TaskProvider taskProvider = new TaskProvider(0);
+        final String job = UUID.randomUUID().toString();
+        final Task taskOne = createTask("namespace", "workflow", job, "taskOne", "test");
+        final Task taskTwo = createTask("namespace", "workflow", job, "taskTwo", "test", "taskOne");
+        taskOne.setStatus(SUCCESSFUL);
+        taskTwo.setStatus(WAITING);
+        taskProvider.add(taskOne);
+        taskProvider.add(taskTwo);
+        taskProvider.resolve(taskOne);
+        taskProvider.resolve(taskTwo);
+        Assert.assertEquals(Collections.singletonList(taskTwo), taskProvider.getReadyTasks());
+        taskProvider.checkConsistency();
+    }
+
+    @Test
+    public void testGetTasksByStatus() {
+        final TaskProvider taskProvider = new TaskProvider(0);
+        final String job = UUID.randomUUID().toString();
+        final Task taskOne = createTask("namespace", "workflow", job, "taskOne", "test");
+        final Task taskTwo = createTask("namespace", "workflow", job, "taskTwo", "test", "taskOne");
+        taskOne.setStatus(CREATED);
+        taskTwo.setStatus(CREATED);
+        taskProvider.add(taskOne);
+        taskProvider.add(taskTwo);
+        Assert.assertEquals(new HashSet<>(Arrays.asList(taskOne, taskTwo)),
+                new HashSet<>(taskProvider.getTasks(Collections.singletonList(CREATED))));
+        Assert.assertEquals(2, taskProvider.size(CREATED));
+
+        taskProvider.resolve(taskOne);
+        taskProvider.resolve(taskTwo);
+        updateStatus(taskProvider, taskOne, WAITING);
+        updateStatus(taskProvider, taskOne, SCHEDULED);
+        updateStatus(taskProvider, taskOne, RUNNING);
+        Assert.assertEquals(Collections.singletonList(taskTwo), taskProvider.getTasks(Collections.singletonList(CREATED)));
+        Assert.assertEquals(Collections.singletonList(taskOne), taskProvider.getActiveTasks());
+        Assert.assertEquals(Arrays.asList(taskOne, taskTwo), taskProvider.getTasks(Arrays.asList(RUNNING, CREATED)));
+        Assert.assertEquals(0, taskProvider.size(WAITING));
+
+        // status change notified more than once is ignored
+        taskProvider.statusChanged(taskOne);
+        Assert.assertEquals(1, taskProvider.size(RUNNING));
+        taskProvider.checkConsistency();
+
+        updateStatus(taskProvider, taskOne, SUCCESSFUL);
+        updateStatus(taskProvider, taskTwo, SKIPPED);
+        Assert.assertTrue(taskProvider.getActiveTasks().isEmpty());
+        taskProvider.removeCompletedJobs();
+        Assert.assertEquals(0, taskProvider.size(SUCCESSFUL));
+        Assert.assertEquals(0, taskProvider.size(SKIPPED));
+        taskProvider.checkConsistency();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testCheckConsistencyOnMissedStatusChange() {
+        final TaskProvider taskProvider = new TaskProvider(0);
+        final Task task = createTask("namespace", "workflow", UUID.randomUUID().toString(), "taskOne", "test");
+        task.setStatus(CREATED);
+        taskProvider.add(task);
+        taskProvider.resolve(task);
+        taskProvider.checkConsistency();
+        task.setStatus(WAITING);
+        taskProvider.checkConsistency();
+    }
+
+    private void updateStatus(TaskProvider taskProvider, Task task, Task.Status status) {
+        changeStatus(taskProvider, task, status);
+        taskProvider.checkConsistency();
+    }
+
+    private void complete(TaskProvider taskProvider, Task task, Map<String, Object> context) {
+        task.setContext(context);
+        updateStatus(taskProvider, task, SUCCESSFUL);
+    }
+
+    private void changeStatus(TaskProvider taskProvider, Task task, Task.Status status) {
+        task.setStatus(status);
+        taskProvider.statusChanged(task);
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cognitree.kronos.scheduler;
+
+import com.cognitree.kronos.scheduler.model.Workflow;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static com.cognitree.kronos.TestUtil.createWorkflow;
+
+public class WorkflowPlanTest {
+
+    @Test
+    public void testCompile() throws IOException {
+        final Workflow workflow = createWorkflow("workflow.yaml", UUID.randomUUID().toString(),
+                UUID.randomUUID().toString(), Collections.singletonMap("keyC", "valC"));
+        // order of the tasks in the plan does not depend on the order in the workflow
+        Collections.reverse(workflow.getTasks());
+        workflow.getTasks().get(0).getProperties().put("keyC", "${workflow.keyC}");
+
+        final WorkflowPlan workflowPlan = WorkflowPlan.compile(workflow);
+        Assert.assertEquals(workflow.getIdentity(), workflowPlan.getWorkflowId());
+        Assert.assertEquals(workflow.getProperties(), workflowPlan.getProperties());
+        Assert.assertEquals(Arrays.asList("taskOne", "taskTwo", "taskThree"), getTaskNames(workflowPlan));
+
+        final WorkflowPlan.TaskPlan taskPlan = workflowPlan.getTaskPlan("taskThree");
+        Assert.assertEquals("taskThree", taskPlan.getWorkflowTask().getName());
+        final Map<String, Object> properties =
+                taskPlan.getPropertyTemplate().bindWorkflowProperties(workflow.getProperties());
+        Assert.assertEquals("valC", properties.get("keyC"));
+        Assert.assertEquals("valA", properties.get("keyA"));
+    }
+
+    @Test
+    public void testCompileSkipsDisabledTasks() throws IOException {
+        final Workflow workflow = createWorkflow("workflow.yaml", UUID.randomUUID().toString(),
+                UUID.randomUUID().toString());
+        final Workflow.WorkflowTask taskThree = workflow.getTasks().get(2);
+        taskThree.setEnabled(false);
+
+        final WorkflowPlan workflowPlan = WorkflowPlan.compile(workflow);
+        Assert.assertEquals(Arrays.asList("taskOne", "taskTwo"), getTaskNames(workflowPlan));
+        Assert.assertNull(workflowPlan.getTaskPlan(taskThree.getName()));
+    }
+
+    @Test
+    public void testVersionIsFingerprintOfWorkflow() throws IOException {
+        final Workflow workflow = createWorkflow("workflow.yaml", UUID.randomUUID().toString(),
+                UUID.randomUUID().toString());
+        final Workflow sameWorkflow = createWorkflow("workflow.yaml", workflow.getName(), workflow.getNamespace());
+        Assert.assertEquals(WorkflowPlan.compile(workflow).getVersion(), WorkflowPlan.compile(sameWorkflow).getVersion());
+
+        sameWorkflow.getTasks().get(0).getProperties().put("keyC", "valC");
+        Assert.assertNotEquals(WorkflowPlan.compile(workflow).getVersion(),
+                WorkflowPlan.compile(sameWorkflow).getVersion());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testPlanIsImmutable() throws IOException {
+        final Workflow workflow = createWorkflow("workflow.yaml", UUID.randomUUID().toString(),
+                UUID.randomUUID().toString());
+        WorkflowPlan.compile(workflow).getTaskPlans().clear();
+    }
+
+    private List<String> getTaskNames(WorkflowPlan workflowPlan) {
+        return workflowPlan.getTaskPlans().stream()
+                .map(taskPlan -> taskPlan.getWorkflowTask().getName())
+                .collect(Collectors.toList());
+    }
+}
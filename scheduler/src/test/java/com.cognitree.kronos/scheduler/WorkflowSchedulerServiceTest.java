@@ -101,8 +101,7 @@ public class WorkflowSchedulerServiceTest {
     public void testResolveWorkflowTasks() throws IOException {
         final Workflow workflow = createWorkflow("workflow.yaml", UUID.randomUUID().toString(),
                 UUID.randomUUID().toString());
-        final List<Workflow.WorkflowTask> workflowTasks =
-                WorkflowSchedulerService.getService().orderWorkflowTasks(workflow.getTasks());
+        final List<Workflow.WorkflowTask> workflowTasks = WorkflowPlan.orderWorkflowTasks(workflow.getTasks());
         Assert.assertEquals("taskOne", workflowTasks.get(0).getName());
         Assert.assertEquals("taskTwo", workflowTasks.get(1).getName());
         Assert.assertEquals("taskThree", workflowTasks.get(2).getName());
@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cognitree.kronos.scheduler.util;
+
+import com.cognitree.kronos.scheduler.model.FixedDelaySchedule;
+import com.cognitree.kronos.scheduler.model.WorkflowTrigger;
+import org.junit.Assert;
+import org.junit.Test;
+import org.quartz.JobDataMap;
+import org.quartz.JobKey;
+import org.quartz.Trigger;
+import org.quartz.TriggerKey;
+
+import java.util.Date;
+
+public class FixedDelayTriggerTest {
+
+    @Test
+    public void testParkOnFire() throws Exception {
+        final FixedDelayTrigger trigger = buildTrigger(1000);
+        final Date firstFireTime = trigger.computeFirstFireTime(null);
+        Assert.assertFalse(trigger.isParked());
+
+        trigger.triggered(null);
+        Assert.assertTrue(trigger.isParked());
+        Assert.assertTrue(trigger.mayFireAgain());
+        Assert.assertEquals(firstFireTime, trigger.getPreviousFireTime());
+        Assert.assertEquals(1, trigger.getTimesTriggered());
+    }
+
+    @Test
+    public void testNext() throws Exception {
+        final FixedDelayTrigger trigger = buildTrigger(1000);
+        trigger.computeFirstFireTime(null);
+        trigger.triggered(null);
+
+        final long currentTimeMillis = System.currentTimeMillis();
+        final FixedDelayTrigger nextTrigger = trigger.next(currentTimeMillis);
+        Assert.assertEquals(trigger.getKey(), nextTrigger.getKey());
+        Assert.assertEquals(trigger.getJobKey(), nextTrigger.getJobKey());
+        Assert.assertEquals("value", nextTrigger.getJobDataMap().getString("key"));
+        Assert.assertEquals(1000, nextTrigger.getRepeatInterval());
+        Assert.assertEquals(new Date(currentTimeMillis + 1000), nextTrigger.computeFirstFireTime(null));
+        Assert.assertFalse(nextTrigger.isParked());
+    }
+
+    private FixedDelayTrigger buildTrigger(long intervalInMs) throws Exception {
+        final FixedDelaySchedule schedule = new FixedDelaySchedule();
+        schedule.setIntervalInMs(intervalInMs);
+        final WorkflowTrigger workflowTrigger = new WorkflowTrigger();
+        workflowTrigger.setSchedule(schedule);
+        final JobDataMap jobDataMap = new JobDataMap();
+        jobDataMap.put("key", "value");
+        final Trigger trigger = TriggerHelper.buildTrigger(workflowTrigger, jobDataMap,
+                new TriggerKey("trigger", "group"), new JobKey("job", "group"));
+        Assert.assertTrue(trigger instanceof FixedDelayTrigger);
+        return (FixedDelayTrigger) trigger;
+    }
+}
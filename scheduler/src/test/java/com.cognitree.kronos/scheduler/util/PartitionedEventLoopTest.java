@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cognitree.kronos.scheduler.util;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+public class PartitionedEventLoopTest {
+
+    private final PartitionedEventLoop eventLoop = new PartitionedEventLoop("test-event-loop", 4);
+
+    @Before
+    public void start() {
+        eventLoop.start();
+    }
+
+    @After
+    public void stop() {
+        eventLoop.stop();
+    }
+
+    @Test
+    public void testCommandsOfKeyRunInOrderOnSingleThread() throws Exception {
+        final int producers = 8;
+        final int commandsPerProducer = 10000;
+        // state owned by the event loops, mutated without any synchronization
+        final Map<Integer, List<Integer>> commandsByKey = new HashMap<>();
+        final Map<Integer, Set<Thread>> threadsByKey = new HashMap<>();
+        for (int key = 0; key < producers; key++) {
+            commandsByKey.put(key, new ArrayList<>());
+            threadsByKey.put(key, new HashSet<>());
+        }
+        final ExecutorService executorService = Executors.newFixedThreadPool(producers);
+        final List<Future<?>> futures = new ArrayList<>();
+        for (int producer = 0; producer < producers; producer++) {
+            final int key = producer;
+            futures.add(executorService.submit(() -> {
+                for (int i = 0; i < commandsPerProducer; i++) {
+                    final int command = i;
+                    eventLoop.execute(key, () -> {
+                        commandsByKey.get(key).add(command);
+                        threadsByKey.get(key).add(Thread.currentThread());
+                    });
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executorService.shutdown();
+        // commands queued before are run by the time a command submitted later completes
+        for (int i = 0; i < producers; i++) {
+            final int key = i;
+            final int size = eventLoop.call(key, commandsByKey.get(key)::size);
+            Assert.assertEquals(commandsPerProducer, size);
+            Assert.assertEquals(1, eventLoop.call(key, threadsByKey.get(key)::size).intValue());
+            final List<Integer> commands = eventLoop.call(key, () -> new ArrayList<>(commandsByKey.get(key)));
+            for (int command = 0; command < commandsPerProducer; command++) {
+                Assert.assertEquals(command, commands.get(command).intValue());
+            }
+        }
+    }
+
+    @Test
+    public void testNestedCommandsRunInline() {
+        final List<String> commands = new ArrayList<>();
+        final String result = eventLoop.call("key", () -> {
+            Assert.assertTrue(eventLoop.inEventLoop());
+            commands.add("outer");
+            eventLoop.execute("key", () -> commands.add("inner"));
+            return eventLoop.call("key", () -> String.join(",", commands));
+        });
+        Assert.assertEquals("outer,inner", result);
+        Assert.assertFalse(eventLoop.inEventLoop());
+    }
+
+    @Test
+    public void testFailedCommandDoesNotStopEventLoop() throws InterruptedException {
+        try {
+            eventLoop.call("key", () -> {
+                throw new IllegalArgumentException("failed");
+            });
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals("failed", e.getMessage());
+        }
+        eventLoop.execute("key", () -> {
+            throw new IllegalArgumentException("failed");
+        });
+        final CountDownLatch latch = new CountDownLatch(1);
+        eventLoop.execute("key", latch::countDown);
+        Assert.assertTrue(latch.await(5, SECONDS));
+    }
+
+    @Test
+    public void testQueuedCommandsRunOnStop() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1000);
+        for (int i = 0; i < 1000; i++) {
+            eventLoop.execute(i, latch::countDown);
+        }
+        eventLoop.stop();
+        Assert.assertEquals(0, latch.getCount());
+    }
+
+    @Test
+    public void testCallRacingStopDoesNotHang() throws Exception {
+        final int callers = 4;
+        final ExecutorService executorService = Executors.newFixedThreadPool(callers);
+        // the window between the running check and the submit is narrow, race the stop against many event loops
+        for (int i = 0; i < 500; i++) {
+            final PartitionedEventLoop racingEventLoop = new PartitionedEventLoop("racing-event-loop", 1);
+            racingEventLoop.start();
+            final CountDownLatch started = new CountDownLatch(callers);
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int caller = 0; caller < callers; caller++) {
+                futures.add(executorService.submit(() -> {
+                    started.countDown();
+                    try {
+                        while (true) {
+                            racingEventLoop.call("key", () -> "result");
+                        }
+                    } catch (IllegalStateException e) {
+                        // event loop stopped, either before or after the command was submitted
+                    }
+                }));
+            }
+            started.await();
+            racingEventLoop.stop();
+            for (Future<?> future : futures) {
+                future.get(5, SECONDS);
+            }
+        }
+        executorService.shutdown();
+    }
+
+    @Test
+    public void testCommandSubmittedAfterStopIsRejected() {
+        eventLoop.stop();
+        try {
+            eventLoop.call("key", () -> "result");
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cognitree.kronos.scheduler.util;
+
+import com.cognitree.kronos.scheduler.util.TimingWheel.Timeout;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+public class TimingWheelTest {
+
+    private final ExecutorService executorService = Executors.newSingleThreadExecutor();
+    private final TimingWheel timingWheel = new TimingWheel("test-timer", 10, 8, executorService);
+
+    @Before
+    public void start() {
+        timingWheel.start();
+    }
+
+    @After
+    public void stop() {
+        timingWheel.stop();
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void testExpiry() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final long scheduledAt = System.currentTimeMillis();
+        // delay spanning more than one round of the wheel
+        final Timeout timeout = timingWheel.schedule(latch::countDown, 200, MILLISECONDS);
+        Assert.assertTrue(latch.await(5, SECONDS));
+        Assert.assertTrue(System.currentTimeMillis() - scheduledAt >= 200);
+        Assert.assertTrue(timeout.isExpired());
+        Assert.assertFalse(timeout.cancel());
+    }
+
+    @Test
+    public void testCancel() throws InterruptedException {
+        final AtomicInteger expired = new AtomicInteger();
+        final List<Timeout> timeouts = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            timeouts.add(timingWheel.schedule(expired::incrementAndGet, 50 + i % 100, MILLISECONDS));
+        }
+        final CountDownLatch latch = new CountDownLatch(1);
+        timingWheel.schedule(latch::countDown, 200, MILLISECONDS);
+        for (int i = 0; i < timeouts.size(); i += 2) {
+            Assert.assertTrue(timeouts.get(i).cancel());
+            Assert.assertFalse(timeouts.get(i).cancel());
+        }
+        Assert.assertTrue(latch.await(5, SECONDS));
+        Assert.assertEquals(500, expired.get());
+        for (int i = 0; i < timeouts.size(); i++) {
+            Assert.assertEquals(i % 2 == 0, timeouts.get(i).isCancelled());
+            Assert.assertEquals(i % 2 != 0, timeouts.get(i).isExpired());
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cognitree.kronos.scheduler.util;
+
+import com.cognitree.kronos.scheduler.model.CronSchedule;
+import com.cognitree.kronos.scheduler.model.DailyTimeIntervalSchedule;
+import com.cognitree.kronos.scheduler.model.SimpleSchedule;
+import com.cognitree.kronos.scheduler.model.WorkflowTrigger;
+import org.junit.Assert;
+import org.junit.Test;
+import org.quartz.DateBuilder;
+import org.quartz.Trigger;
+
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import static java.util.concurrent.TimeUnit.HOURS;
+
+public class TriggerHelperTest {
+
+    @Test
+    public void testJitterOffset() {
+        final Set<Long> offsets = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            final WorkflowTrigger workflowTrigger = createWorkflowTrigger(UUID.randomUUID().toString(), 60000);
+            final long offset = TriggerHelper.getJitterOffset(workflowTrigger);
+            Assert.assertTrue(offset >= 0 && offset < 60000);
+            // offset is derived from the trigger identity
+            Assert.assertEquals(offset, TriggerHelper.getJitterOffset(
+                    createWorkflowTrigger(workflowTrigger.getName(), 60000)));
+            offsets.add(offset);
+        }
+        // triggers are spread across the window
+        Assert.assertTrue(offsets.size() > 90);
+        Assert.assertEquals(0, TriggerHelper.getJitterOffset(createWorkflowTrigger("trigger", 0)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeJitterWindow() {
+        TriggerHelper.getJitterOffset(createWorkflowTrigger("trigger", -1));
+    }
+
+    @Test
+    public void testBuildCronTriggerWithJitter() throws Exception {
+        final WorkflowTrigger workflowTrigger = createWorkflowTrigger("trigger", 60000);
+        final long jitterOffset = TriggerHelper.getJitterOffset(workflowTrigger);
+        final Trigger trigger = TriggerHelper.buildTrigger(workflowTrigger);
+        Assert.assertTrue(trigger instanceof JitteredCronTrigger);
+        // fires every hour delayed by the offset, the trigger starts now so look at the hours from tomorrow
+        final long hour = (System.currentTimeMillis() / HOURS.toMillis(1) + 24) * HOURS.toMillis(1);
+        Assert.assertEquals(hour + jitterOffset, trigger.getFireTimeAfter(new Date(hour - 1)).getTime());
+        Assert.assertEquals(hour + jitterOffset, trigger.getFireTimeAfter(new Date(hour + jitterOffset - 1)).getTime());
+        Assert.assertEquals(hour + HOURS.toMillis(1) + jitterOffset,
+                trigger.getFireTimeAfter(new Date(hour + jitterOffset)).getTime());
+        // the offset is retained by the triggers built from it
+        final Trigger rebuiltTrigger = trigger.getTriggerBuilder().build();
+        Assert.assertTrue(rebuiltTrigger instanceof JitteredCronTrigger);
+        Assert.assertEquals(jitterOffset, ((JitteredCronTrigger) rebuiltTrigger).getJitterOffset());
+
+        final Trigger triggerWithoutJitter = TriggerHelper.buildTrigger(createWorkflowTrigger("trigger", 0));
+        Assert.assertFalse(triggerWithoutJitter instanceof JitteredCronTrigger);
+        Assert.assertEquals(hour, triggerWithoutJitter.getFireTimeAfter(new Date(hour - 1)).getTime());
+    }
+
+    @Test
+    public void testBuildDailyTimeIntervalTriggerWithJitter() throws Exception {
+        final DailyTimeIntervalSchedule dailyTimeIntervalSchedule = new DailyTimeIntervalSchedule();
+        dailyTimeIntervalSchedule.setRepeatInterval(1);
+        dailyTimeIntervalSchedule.setRepeatIntervalUnit(DateBuilder.IntervalUnit.HOUR);
+        dailyTimeIntervalSchedule.setJitterWindowInMs(60000);
+        dailyTimeIntervalSchedule.setTimezone("UTC");
+        final WorkflowTrigger workflowTrigger = createWorkflowTrigger("trigger", 0);
+        workflowTrigger.setSchedule(dailyTimeIntervalSchedule);
+        final long jitterOffset = TriggerHelper.getJitterOffset(workflowTrigger);
+        final Trigger trigger = TriggerHelper.buildTrigger(workflowTrigger);
+        Assert.assertTrue(trigger instanceof JitteredDailyTimeIntervalTrigger);
+        final long startAt = trigger.getStartTime().getTime();
+        final long firstFireTime = trigger.getFireTimeAfter(new Date(startAt)).getTime();
+        Assert.assertEquals(jitterOffset, firstFireTime % HOURS.toMillis(1));
+        Assert.assertEquals(firstFireTime + HOURS.toMillis(1),
+                trigger.getFireTimeAfter(new Date(firstFireTime)).getTime());
+    }
+
+    @Test
+    public void testBuildSimpleTriggerWithJitter() throws Exception {
+        final SimpleSchedule simpleSchedule = new SimpleSchedule();
+        simpleSchedule.setRepeatForever(true);
+        simpleSchedule.setRepeatIntervalInMs(HOURS.toMillis(1));
+        simpleSchedule.setJitterWindowInMs(60000);
+        final WorkflowTrigger workflowTrigger = createWorkflowTrigger("trigger", 0);
+        workflowTrigger.setSchedule(simpleSchedule);
+        workflowTrigger.setStartAt(HOURS.toMillis(420000));
+        final long jitterOffset = TriggerHelper.getJitterOffset(workflowTrigger);
+        // fire times are relative to the start time, which is delayed by the offset
+        final Trigger trigger = TriggerHelper.buildTrigger(workflowTrigger);
+        Assert.assertEquals(workflowTrigger.getStartAt() + jitterOffset, trigger.getStartTime().getTime());
+    }
+
+    private WorkflowTrigger createWorkflowTrigger(String name, long jitterWindowInMs) {
+        final CronSchedule cronSchedule = new CronSchedule();
+        cronSchedule.setCronExpression("0 0 * * * ?");
+        cronSchedule.setJitterWindowInMs(jitterWindowInMs);
+        cronSchedule.setTimezone("UTC");
+        final WorkflowTrigger workflowTrigger = new WorkflowTrigger();
+        workflowTrigger.setNamespace("namespace");
+        workflowTrigger.setWorkflow("workflow");
+        workflowTrigger.setName(name);
+        workflowTrigger.setSchedule(cronSchedule);
+        return workflowTrigger;
+    }
+}